@@ -20,6 +20,7 @@ import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import com.huhx0015.spotifystreamer.R;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackEventBus;
 import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
 import com.huhx0015.spotifystreamer.fragments.SSArtistsFragment;
 import com.huhx0015.spotifystreamer.fragments.SSPlayerFragment;
@@ -32,6 +33,8 @@ import com.huhx0015.spotifystreamer.interfaces.OnSnackbarDisplayListener;
 import com.huhx0015.spotifystreamer.interfaces.OnSpotifySelectedListener;
 import com.huhx0015.spotifystreamer.interfaces.OnTrackInfoUpdateListener;
 import com.huhx0015.spotifystreamer.ui.actionbar.SSActionBar;
+import com.huhx0015.spotifystreamer.ui.adapters.SSResultsViewPool;
+import com.huhx0015.spotifystreamer.ui.graphics.SSIconAtlas;
 import com.huhx0015.spotifystreamer.ui.layouts.SSUnbind;
 import com.huhx0015.spotifystreamer.ui.notifications.SSNotificationPlayer;
 import com.huhx0015.spotifystreamer.ui.toast.SSSnackbar;
@@ -61,6 +64,9 @@ public class SSMainActivity extends AppCompatActivity implements OnSpotifySelect
     private Boolean isActivityPaused = false; // Used to determine if the activity is currently in an onPause() state.
     private Boolean isFinishing = false; // Used to determine if the activity is currently finishing.
 
+    // EVENT VARIABLES
+    private SSPlaybackEventBus.OnPlaybackEventAdapter drawerPlaybackListener; // Updates the drawer player buttons on playback changes.
+
     // DATA VARIABLES
     private static final String ARTIST_IMAGE_URL = "artistImageUrl"; // Used for restoring the artist image URL value for rotation change events.
     private static final String ARTIST_INPUT = "artistInput"; // Used for restoring the artist input value for rotation change events.
@@ -86,12 +92,12 @@ public class SSMainActivity extends AppCompatActivity implements OnSpotifySelect
     // LAYOUT VARIABLES
     private ActionBarDrawerToggle drawerToggle; // References the ActionBar drawer toggle object.
     private Boolean isTablet = false; // Used to determine if the current device is a mobile or tablet device.
-    private float curDensity; // References the density value of the current device.
 
     // LIST VARIABLES
     private ArrayList<SSSpotifyModel> artistListResult = new ArrayList<>(); // Stores the artist list result.
     private ArrayList<SSSpotifyModel> trackListResult = new ArrayList<>(); // Stores the track list result.
     private int listPosition = -1; // Used to determine the current position in the top tracks list.
+    private final SSResultsViewPool resultsViewPool = new SSResultsViewPool(); // View pool shared by the artist and track result lists.
 
     // LOGGING VARIABLES
     private static final String LOG_TAG = SSMainActivity.class.getSimpleName();
@@ -173,6 +179,9 @@ public class SSMainActivity extends AppCompatActivity implements OnSpotifySelect
 
         isActivityPaused = false; // Indicates that this activity is no longer in an onPause state.
 
+        // Subscribes the drawer player buttons to the playback status events.
+        SSPlaybackEventBus.getInstance().subscribe(drawerPlaybackListener, SSPlaybackEventBus.EVENT_PLAYBACK_STATUS);
+
         Log.d(LOG_TAG, "ACTIVITY LIFECYCLE (onResume): onResume invoked.");
     }
 
@@ -183,6 +192,9 @@ public class SSMainActivity extends AppCompatActivity implements OnSpotifySelect
 
         isActivityPaused = true; // Indicates that this activity has entered an onPause state.
 
+        // Unsubscribes the drawer player buttons, as they are not visible while paused.
+        SSPlaybackEventBus.getInstance().unsubscribe(drawerPlaybackListener);
+
         Log.d(LOG_TAG, "ACTIVITY LIFECYCLE (onPause): onPause invoked.");
     }
 
@@ -370,9 +382,6 @@ public class SSMainActivity extends AppCompatActivity implements OnSpotifySelect
     // setupLayout(): Sets up the layout for the activity.
     private void setupLayout() {
 
-        // Retrieves the device's density attributes.
-        curDensity = getResources().getDisplayMetrics().density;
-
         // Updates the isTablet value to determine if the device is a mobile or tablet device.
         isTablet = getResources().getBoolean(R.bool.isTablet);
         Log.d(LOG_TAG, "setupLayout(): isTablet: " + isTablet);
@@ -445,6 +454,20 @@ public class SSMainActivity extends AppCompatActivity implements OnSpotifySelect
                 playNextSong(false); // Signals SSPlayerFragment to play the previous song in the tracklist.
             }
         });
+
+        // PLAYBACK STATUS: Enables only the PLAY or PAUSE button that applies to the current
+        // playback status.
+        drawerPlaybackListener = new SSPlaybackEventBus.OnPlaybackEventAdapter() {
+
+            @Override
+            public void playbackStatus(Boolean isPlay) {
+
+                if (drawerPlayButton != null) {
+                    drawerPlayButton.setEnabled(!isPlay);
+                    drawerPauseButton.setEnabled(isPlay);
+                }
+            }
+        };
     }
 
     // setupDrawer(): Sets up the drawer and the Toolbar for the activity layout.
@@ -617,29 +640,19 @@ public class SSMainActivity extends AppCompatActivity implements OnSpotifySelect
         // Loads the image resources for the rest of the ImageButton objects.
         if (!onlyArtist) {
 
+            SSIconAtlas iconAtlas = SSIconAtlas.getInstance();
+
             // NEXT BUTTON:
-            Picasso.with(this)
-                    .load(android.R.drawable.ic_media_next)
-                    .resize((int) (48 * curDensity), (int) (48 * curDensity))
-                    .into(drawerNextButton);
+            drawerNextButton.setImageDrawable(iconAtlas.getIcon(this, android.R.drawable.ic_media_next, 48));
 
             // PLAY BUTTON:
-            Picasso.with(this)
-                    .load(android.R.drawable.ic_media_play)
-                    .resize((int) (48 * curDensity), (int) (48 * curDensity))
-                    .into(drawerPlayButton);
+            drawerPlayButton.setImageDrawable(iconAtlas.getIcon(this, android.R.drawable.ic_media_play, 48));
 
             // PAUSE BUTTON:
-            Picasso.with(this)
-                    .load(android.R.drawable.ic_media_pause)
-                    .resize((int) (48 * curDensity), (int) (48 * curDensity))
-                    .into(drawerPauseButton);
+            drawerPauseButton.setImageDrawable(iconAtlas.getIcon(this, android.R.drawable.ic_media_pause, 48));
 
             // PREVIOUS BUTTON:
-            Picasso.with(this)
-                    .load(android.R.drawable.ic_media_previous)
-                    .resize((int) (48 * curDensity), (int) (48 * curDensity))
-                    .into(drawerPreviousButton);
+            drawerPreviousButton.setImageDrawable(iconAtlas.getIcon(this, android.R.drawable.ic_media_previous, 48));
         }
     }
 
@@ -913,6 +926,13 @@ public class SSMainActivity extends AppCompatActivity implements OnSpotifySelect
         }
     }
 
+    // getResultsViewPool(): Invoked by SSArtistsFragment and SSTracksFragment to share the result
+    // card views between their result lists.
+    @Override
+    public SSResultsViewPool getResultsViewPool() {
+        return resultsViewPool;
+    }
+
     // updateArtistInput(): Invoked by SSArtistsFragment to keep an update of the user's artist
     // input.
     @Override
@@ -941,6 +961,11 @@ public class SSMainActivity extends AppCompatActivity implements OnSpotifySelect
             catch (ClassCastException cce) {} // Catch for class cast exception errors.
         }
 
+        // Resumes the track restored from the playback snapshot, if there is one.
+        else if (resumeTrack()) {
+            Log.d(LOG_TAG, "playCurrentSong(): Resuming the restored track.");
+        }
+
         // Displays a Snackbar/Toast message, indicating that no track has been selected.
         else {
             displaySnackbar("No previous track has been selected.");
@@ -969,6 +994,13 @@ public class SSMainActivity extends AppCompatActivity implements OnSpotifySelect
         catch (ClassCastException cce) {} // Catch for class cast exception errors.
     }
 
+    // resumeTrack(): Signals the attached class to invoke the SSMusicService to play the current
+    // track in the playback queue. Returns false if there is no track to resume.
+    private Boolean resumeTrack() {
+        try { return ((OnMusicServiceListener) getApplication()).resumeTrack(); }
+        catch (ClassCastException cce) { return false; } // Catch for class cast exception errors.
+    }
+
     // setPosition(): Signals the attached class to invoke the SSMusicService to update the song
     // position.
     private void setPosition(int position) {
@@ -4,16 +4,23 @@ import android.app.Application;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
+import android.content.ComponentCallbacks2;
 import android.content.ServiceConnection;
 import android.graphics.Bitmap;
-import android.os.Handler;
 import android.os.IBinder;
 import android.support.v4.app.Fragment;
 import android.util.Log;
-import com.huhx0015.spotifystreamer.interfaces.OnMusicPlayerListener;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackEventBus;
+import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
 import com.huhx0015.spotifystreamer.interfaces.OnMusicServiceListener;
+import com.huhx0015.spotifystreamer.preferences.SSPreferences;
 import com.huhx0015.spotifystreamer.services.SSMusicService;
-import com.huhx0015.spotifystreamer.ui.toast.SSToast;
+import com.squareup.picasso.LruCache;
+import com.squareup.picasso.OkHttpDownloader;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.StatsSnapshot;
+import java.io.File;
+import java.util.ArrayList;
 
 /** -----------------------------------------------------------------------------------------------
  *  [SSApplication] CLASS
@@ -27,24 +34,96 @@ public class SSApplication extends Application implements OnMusicServiceListener
 
     /** CLASS VARIABLES ________________________________________________________________________ **/
 
-    // FRAGMENT VARIABLES
-    private Fragment playerFragment; // References the player fragment attached to this service.
+    // IMAGE VARIABLES
+    private LruCache imageCache; // Memory cache of the shared Picasso image loader.
+    private static final String IMAGE_CACHE_DIR = "ss_images"; // Name of the image disk cache directory.
+    private static final int IMAGE_CACHE_FRACTION = 8; // Fraction of the heap used for the image memory cache.
+    private static final long IMAGE_DISK_CACHE_SIZE = 50 * 1024 * 1024; // Size of the image disk cache (in bytes).
 
     // LOGGING VARIABLES
     private static final String LOG_TAG = SSApplication.class.getSimpleName();
 
+    // COMMAND VARIABLES
+    private final ArrayList<Runnable> pendingCommands = new ArrayList<>(); // Commands issued before the SSMusicService was bound, in the order they were issued.
+
     // SERVICE VARIABLES
+    private Boolean isServiceBinding = false; // Used to determine if the SSMusicService is currently being bound.
     private Boolean serviceBound = false; // Used to determine if the SSMusicService is currently bound.
     private Intent audioIntent; // An Intent object that references the Intent for the SSMusicService.
     private SSMusicService musicService; // A service that handles the control of audio playback in the background.
 
+    // SHARED PREFERENCE VARIABLES
+    private static final String SS_OPTIONS = "ss_options"; // Used to reference the name of the preference XML file.
+
     // SYSTEM VARIABLES
     private final int api_level = android.os.Build.VERSION.SDK_INT; // Used to determine the device's Android API version.
 
-    // THREAD VARIABLES
-    private Handler readySongTimerHandler = new Handler(); // Handler for the ready song timer thread.
-    private static final int TIMEOUT_VALUE = 10; // Number of seconds until a timeout message is displayed.
-    private int currentTimer = 0; // Number of seconds that has elapsed for the readySongTimerThread.
+    /** APPLICATION LIFECYCLE METHODS __________________________________________________________ **/
+
+    // onCreate(): Runs when the application is launched. If warm-up has been enabled, the
+    // SSMusicService is set up immediately, so that it is already bound by the time the first
+    // track is played.
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        setUpImageLoader(); // Sets up the shared Picasso image loader.
+
+        if (SSPreferences.getWarmUp(SSPreferences.initializePreferences(SS_OPTIONS, this))) {
+            Log.d(LOG_TAG, "onCreate(): Warming up the SSMusicService.");
+            setUpAudioService();
+        }
+    }
+
+    // onTrimMemory(): Runs when the system requests the application to reduce it's memory usage.
+    // The image loader metrics are logged, and the image memory cache is cleared once the
+    // application is in the background and memory is running low.
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+
+        logImageStats();
+
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            imageCache.clear();
+        }
+    }
+
+    /** IMAGE METHODS __________________________________________________________________________ **/
+
+    // setUpImageLoader(): Sets up the Picasso instance that is shared by every Picasso.with() call
+    // in the application. The memory cache is limited to 1/IMAGE_CACHE_FRACTION of the heap, and
+    // downloaded images are kept in an OkHttp disk cache.
+    private void setUpImageLoader() {
+
+        int cacheSize = (int) (Runtime.getRuntime().maxMemory() / IMAGE_CACHE_FRACTION);
+        imageCache = new LruCache(cacheSize);
+
+        Picasso imageLoader = new Picasso.Builder(this)
+                .memoryCache(imageCache)
+                .downloader(new OkHttpDownloader(new File(getCacheDir(), IMAGE_CACHE_DIR), IMAGE_DISK_CACHE_SIZE))
+                .build();
+
+        try {
+            Picasso.setSingletonInstance(imageLoader);
+        }
+
+        // Illegal state exception handler. The shared instance has already been set.
+        catch (IllegalStateException e) {
+            Log.e(LOG_TAG, "ERROR: setUpImageLoader(): The image loader has already been set up.");
+        }
+    }
+
+    // logImageStats(): Logs the memory cache hits, misses and size, and the number of bytes that
+    // have been decoded and downloaded by the shared Picasso image loader.
+    public void logImageStats() {
+
+        StatsSnapshot stats = Picasso.with(this).getSnapshot();
+
+        Log.d(LOG_TAG, "logImageStats(): Cache hits: " + stats.cacheHits + ", misses: " + stats.cacheMisses +
+                ", size: " + stats.size + "/" + stats.maxSize + " bytes, decoded: " + stats.totalOriginalBitmapSize +
+                " bytes, downloaded: " + stats.totalDownloadSize + " bytes.");
+    }
 
     /** SERVICE METHODS ________________________________________________________________________ **/
 
@@ -59,101 +138,117 @@ public class SSApplication extends Application implements OnMusicServiceListener
             // Sets the binder for the service.
             SSMusicService.SSMusicBinder binder = (SSMusicService.SSMusicBinder) service;
             musicService = binder.getService();
+            isServiceBinding = false;
             serviceBound = true; // Indicates that the service is bounded.
+
+            // Runs the commands that were issued before the service was bound, in order.
+            if (!pendingCommands.isEmpty()) {
+
+                Log.d(LOG_TAG, "onServiceConnected(): Running " + pendingCommands.size() + " pending commands.");
+
+                for (Runnable command : pendingCommands) {
+                    command.run();
+                }
+
+                pendingCommands.clear();
+            }
         }
 
-        // onServiceDisconnected: Runs when the service is disconnected from the activity.
+        // onServiceDisconnected: Runs when the service is disconnected from the activity. The
+        // system rebinds the service automatically, so commands are buffered until it reconnects.
         @Override
         public void onServiceDisconnected(ComponentName name) {
             serviceBound = false; // Indicates that the service is no longer bound.
+            isServiceBinding = true;
         }
     };
 
-    /** THREAD METHODS _________________________________________________________________________ **/
+    // runCommand(): Runs the specified SSMusicService command if the service is bound. Otherwise,
+    // the command is buffered and the service is set up, and the buffered commands are run in the
+    // order they were issued once the service has been bound.
+    private void runCommand(Runnable command) {
 
-    // readySongTimerThread(): A threaded function which is run when playback of a song has been
-    // initialized. It runs for a given time, where if the song has not already started playback,
-    // a timeout error Toast message will be displayed.
-    private Runnable readySongTimerThread = new Runnable() {
+        if (serviceBound) {
+            command.run();
+        }
+
+        else {
+            pendingCommands.add(command);
+            setUpAudioService(); // Sets up the SSMusicService.
+        }
+    }
 
-        public void run() {
+    // runCommandIfBinding(): Runs the specified SSMusicService command if the service is bound, or
+    // buffers it if the service is currently being bound. Otherwise the command is not needed, as
+    // the service is not running, and it is dropped.
+    private void runCommandIfBinding(Runnable command) {
 
-            // Compares the current timer value with the TIMEOUT_VALUE. If it has not exceeded the
-            // TIMEOUT_VALUE, the thread is looped again.
-            if (currentTimer <= TIMEOUT_VALUE) {
-                currentTimer++; // Increments the timer value.
-                readySongTimerHandler.postDelayed(this, 1000); // Thread is run again in 1000 ms.
-            }
+        if (serviceBound) {
+            command.run();
+        }
 
-            // Displays an timeout error message and stops the ready song timer thread.
-            else {
-                SSToast.toastyPopUp("The track could not be played due to a time-out error.", getApplicationContext());
-                pauseTrack(true); // Stops attempted playback of track.
-                stopSongPrepare(true); // Signals the SSPlayerFragment to stop song preparation conditions.
-                currentTimer = 0; // Resets the current timer value.
-                readySongTimerHandler.removeCallbacks(this);
-            }
+        else if (isServiceBinding) {
+            pendingCommands.add(command);
         }
-    };
+    }
 
     /** INTERFACE METHODS ______________________________________________________________________ **/
 
     // attachFragment(): Invoked by SSPlayerFragment to attach it to the SSMusicService.
     @Override
-    public void attachFragment(Fragment fragment) {
+    public void attachFragment(final Fragment fragment) {
 
-        this.playerFragment = fragment; // Attaches the playerFragment to this class.
+        // Attaches the SSPlayerFragment, once the SSMusicService has been bound.
+        runCommand(new Runnable() {
 
-        // If the service has disconnected, the SSMusicService is restarted.
-        if (!serviceBound) {
-            setUpAudioService(); // Sets up the SSMusicService.
-        }
+            @Override
+            public void run() {
+                musicService.attachPlayerFragment(fragment);
+            }
+        });
+    }
 
-        // Attaches the SSPlayerFragment.
-        else {
-            musicService.attachPlayerFragment(fragment);
-        }
+    // getNextQueuePosition(): Invoked by SSPlayerFragment to retrieve the track list position of the
+    // next track in the SSMusicService playback queue.
+    @Override
+    public int getNextQueuePosition() {
+        return serviceBound ? musicService.getNextQueuePosition() : -1;
     }
 
     // pauseTrack(): Invoked by SSPlayerFragment to signal the SSMusicService to pause the song
     // stream.
     @Override
-    public void pauseTrack(Boolean isStop) {
+    public void pauseTrack(final Boolean isStop) {
 
-        // If the service has disconnected, the SSMusicService is restarted.
-        if (!serviceBound) {
-            setUpAudioService(); // Sets up the SSMusicService.
-        }
+        runCommand(new Runnable() {
 
-        else {
-            musicService.startStopThreads(false); // Signals the SSMusicService to stop the seekbar thread.
-            musicService.pauseTrack(isStop); // Signals the SSMusicService to pause the song stream.
-        }
+            @Override
+            public void run() {
+                musicService.startStopThreads(false); // Signals the SSMusicService to stop the seekbar thread.
+                musicService.pauseTrack(isStop); // Signals the SSMusicService to pause the song stream.
+            }
+        });
     }
 
-    // stopSongPrepare(): Signals the SSPlayerFragment to hide the song preparation progress bar.
+    // stopSongPrepare(): Publishes that the song preparation progress bar should be hidden.
     private void stopSongPrepare(Boolean isStop) {
-
-        if (playerFragment != null) {
-            try { ((OnMusicPlayerListener) playerFragment).stopSongPrepare(isStop); }
-            catch (ClassCastException cce) {} // Catch for class cast exception errors.
-        }
+        SSPlaybackEventBus.getInstance().publishPrepareStopped(isStop);
     }
 
     // playTrack(): Invoked by SSPlayerFragment to signal the SSMusicService to play the selected
     // stream.
     @Override
-    public void playTrack(String url, Boolean loop, Bitmap albumImage, Boolean notiOn, String artist, String track) {
-
-        // If the service has disconnected, the SSMusicService is restarted.
-        if (!serviceBound) {
-            setUpAudioService(); // Sets up the SSMusicService.
-        }
+    public void playTrack(final String url, final Boolean loop, final Bitmap albumImage, final Boolean notiOn,
+                          final String artist, final String track) {
 
         // Signals the SSMusicService to begin music playback of the selected track.
-        else {
-            musicService.playTrack(url, loop, albumImage, notiOn, artist, track);
-        }
+        runCommand(new Runnable() {
+
+            @Override
+            public void run() {
+                musicService.playTrack(url, loop, albumImage, notiOn, artist, track);
+            }
+        });
     }
 
     // removeAudioService(): Invoked by the SSMainActivity to stops the SSMusicService running in
@@ -171,22 +266,90 @@ public class SSApplication extends Application implements OnMusicServiceListener
             audioIntent = null;
             musicService = null;
         }
+
+        pendingCommands.clear(); // Discards any commands that have yet to be run.
     }
 
-    // setPosition(): Invoked by SSPlayerFragment to signal the SSMusicService to skip to the
-    // selected position in the song.
+    // resumeTrack(): Invoked by SSMainActivity to signal the SSMusicService to play the current
+    // track in the playback queue. Returns false if the service is not bound, or if there is no
+    // track to resume.
     @Override
-    public void setPosition(int position) {
+    public Boolean resumeTrack() {
+        return serviceBound && musicService.resumeTrack();
+    }
 
-        // If the service has disconnected, the SSMusicService is restarted.
-        if (!serviceBound) {
-            setUpAudioService(); // Sets up the SSMusicService.
-        }
+    // setNextTrack(): Invoked by SSPlayerFragment to signal the SSMusicService to set the next
+    // track to crossfade into.
+    @Override
+    public void setNextTrack(final String url, final int crossfade) {
+
+        // The next track is only needed while a song is playing in the SSMusicService.
+        runCommandIfBinding(new Runnable() {
+
+            @Override
+            public void run() {
+                musicService.setNextTrack(url, crossfade);
+            }
+        });
+    }
+
+    // setPlaybackQueue(): Invoked by SSPlayerFragment to signal the SSMusicService to replace it's
+    // playback queue with the specified track list. If the service is not yet bound, the queue is
+    // set once the service has been bound.
+    @Override
+    public void setPlaybackQueue(final ArrayList<SSSpotifyModel> list, final int position) {
+
+        runCommand(new Runnable() {
+
+            @Override
+            public void run() {
+                musicService.setPlaybackQueue(list, position);
+            }
+        });
+    }
+
+    // setPlayerVisible(): Invoked by SSPlayerFragment to signal the SSMusicService whether the
+    // player interface is currently visible.
+    @Override
+    public void setPlayerVisible(final Boolean isVisible) {
+
+        // Seekbar updates are only needed while the SSMusicService is running.
+        runCommandIfBinding(new Runnable() {
+
+            @Override
+            public void run() {
+                musicService.setPlayerVisible(isVisible);
+            }
+        });
+    }
+
+    // setPosition(): Invoked by SSPlayerFragment to signal the SSMusicService to skip to the
+    // selected position (in milliseconds) in the song.
+    @Override
+    public void setPosition(final int position) {
 
         // Signals the SSMusicService to set the song position.
-        else {
-            musicService.setPosition(position);
-        }
+        runCommand(new Runnable() {
+
+            @Override
+            public void run() {
+                musicService.setPosition(position);
+            }
+        });
+    }
+
+    // setQueuePosition(): Invoked by SSPlayerFragment to signal the SSMusicService to move it's
+    // playback queue to the specified track list position.
+    @Override
+    public void setQueuePosition(final int position) {
+
+        runCommand(new Runnable() {
+
+            @Override
+            public void run() {
+                musicService.setQueuePosition(position);
+            }
+        });
     }
 
     // setUpAudioService(): Sets up the SSMusicService service for playing audio from the
@@ -194,10 +357,12 @@ public class SSApplication extends Application implements OnMusicServiceListener
     @Override
     public void setUpAudioService() {
 
-        if (!serviceBound) {
+        if (!serviceBound && !isServiceBinding) {
 
             Log.d(LOG_TAG, "setUpAudioService(): Setting up SSMusicService...");
 
+            isServiceBinding = true; // Commands are buffered until the service has been bound.
+
             // Sets up the service intent and begins the service.
             audioIntent = new Intent(this, SSMusicService.class); // Sets a Intent to the service.
             bindService(audioIntent, musicConnection, Context.BIND_AUTO_CREATE); // Binds the service.
@@ -205,31 +370,30 @@ public class SSApplication extends Application implements OnMusicServiceListener
         }
     }
 
-    // startSongTimer(): Invoked by the SSPlayerFragment to start/stop the song timer thread.
+    // skipQueue(): Invoked by SSPlayerFragment to move the SSMusicService playback queue to the
+    // next or previous track.
     @Override
-    public void startStopSongTimer(Boolean isStart) {
-
-        // Starts the song timer thread.
-        if (isStart) {
-            readySongTimerHandler.postDelayed(readySongTimerThread, 1000);
-        }
-
-        // Stops the song timer thread.
-        else {
-            currentTimer = 0; // Resets the current timer value.
-            readySongTimerHandler.removeCallbacks(readySongTimerThread);
-        }
+    public int skipQueue(Boolean isNext) {
+        return serviceBound ? musicService.skipQueue(isNext) : -1;
     }
 
     // updateNotification(): Invoked by the SSPlayerFragment to signal the SSMusicService to update
     // the notification player when the next/previous button is pressed from SSPlayerFragment.
     @Override
-    public void updateNotification(String songUrl, Boolean notiOn, Bitmap albumImage, String artist, String track) {
+    public void updateNotification(final String songUrl, Boolean notiOn, final Bitmap albumImage,
+                                   final String artist, final String track) {
 
         // A new notification player is only displayed if the device is running on Android API level
         // 21 (LOLLIPOP) or higher.
-        if (serviceBound && notiOn && (api_level >= 21)) {
-            musicService.initializeMediaSession(songUrl, albumImage, artist, track);
+        if (notiOn && (api_level >= 21)) {
+
+            runCommandIfBinding(new Runnable() {
+
+                @Override
+                public void run() {
+                    musicService.updateMediaSession(songUrl, albumImage, artist, track);
+                }
+            });
         }
     }
 
@@ -238,23 +402,21 @@ public class SSApplication extends Application implements OnMusicServiceListener
     @Override
     public void updatePlayer() {
 
-        // If the service has disconnected, the SSMusicService is restarted.
-        if (!serviceBound) {
-            setUpAudioService(); // Sets up the SSMusicService.
-        }
+        runCommand(new Runnable() {
 
-        else {
+            @Override
+            public void run() {
 
-            // If the currentTimer is between 0 - TIMEOUT_VALUE, it indicates that a song is
-            // currently being prepared for playback. Signals the SSPlayerFragment to display the
-            // progress indicator if currently active.
-            if ((currentTimer > 0) && (currentTimer <= TIMEOUT_VALUE)) {
-                stopSongPrepare(false);
-            }
+                // If a song is currently being prepared for playback, the SSPlayerFragment is
+                // signalled to display the progress indicator.
+                if (musicService.isPreparing()) {
+                    stopSongPrepare(false);
+                }
 
-            // The SSPlayerFragment is updated of the current song status and max song duration via
-            // SSMusicService & SSMusicEngine.
-            musicService.updatePlayer();
-        }
+                // The SSPlayerFragment is updated of the current song status and max song duration
+                // via SSMusicService & SSMusicEngine.
+                musicService.updatePlayer();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -3,11 +3,16 @@ package com.huhx0015.spotifystreamer.audio;
 import android.content.Context;
 import android.media.AudioManager;
 import android.media.MediaPlayer;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
 import android.os.PowerManager;
-import android.support.v4.app.Fragment;
+import android.os.Process;
+import android.os.SystemClock;
 import android.util.Log;
-import com.huhx0015.spotifystreamer.interfaces.OnMusicPlayerListener;
+import com.huhx0015.spotifystreamer.ui.toast.SSToast;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /** -----------------------------------------------------------------------------------------------
  *  [SSMusicEngine] CLASS
@@ -15,271 +20,818 @@ import java.io.IOException;
  *  DESCRIPTION: SSMusicEngine class is used to support music playback for the application.
  *  Code adapted from my own HuhX Game Sound Engine project here:
  *  https://github.com/huhx0015/HuhX_Game_Sound_Engine
+ *
+ *  Playback is modelled as an explicit SSPlaybackState state machine. All commands and MediaPlayer
+ *  callbacks are serialized on a dedicated playback thread, so that the MediaPlayer object and the
+ *  engine variables are only accessed from one thread and the main thread never blocks on a
+ *  MediaPlayer call. Results are published to the SSPlaybackEventBus, which delivers them to the
+ *  main thread. The playback state itself is held in an AtomicReference, so that it can be safely read
+ *  from any thread.
  *  -----------------------------------------------------------------------------------------------
  */
 
-public class SSMusicEngine {
+public class SSMusicEngine implements SSPlaybackEngine {
 
     /** CLASS VARIABLES ________________________________________________________________________ **/
 
     // AUDIO VARIABLES:
     private MediaPlayer backgroundSong; // MediaPlayer variable for background song.
-    private String currentSong; // Used for determining what song is playing in the background.
-    private Boolean isPaused; // Used for determining if a song has been paused.
-    public int songPosition; // Used for resuming playback on a song that was paused.
-    public Boolean musicOn; // Used for determining whether music is playing in the background.
-
-    // FRAGMENT VARIABLES:
-    private Fragment playerFragment; // References the SSPlayerFragment for updating the music player interface.
+    private SSPlaybackClock playbackClock = new SSPlaybackClock(); // Tracks the playback position of the background song.
+    private String currentUrl; // The URL of the song currently loaded into the MediaPlayer object.
+    private int resumePosition = 0; // Used for resuming playback (in milliseconds) once the song has been prepared.
+
+    // SEEK VARIABLES:
+    private boolean isSeekInFlight = false; // Used to determine if the MediaPlayer object is currently seeking.
+    private int queuedSeekPosition = -1; // The latest seek position (in milliseconds) requested during a seek, or -1 if none.
+
+    // BUFFER VARIABLES:
+    private volatile int bufferedPercent = 0; // The percentage of the current song that has been buffered.
+    private volatile int rebufferCount = 0; // Number of times playback of the current song has stalled due to buffering.
+    private boolean isAwaitingBuffer = false; // Used to determine if playback is being held until the start threshold is buffered.
+    private boolean isTrackStarted = false; // Used to determine if playback of the current song has started.
+    private int startThreshold = 0; // The percentage of the song that must be buffered before playback begins.
+    private static final int MAX_START_THRESHOLD = 50; // The maximum start threshold (in percent).
+    private static final int START_THRESHOLD_STEP = 10; // The start threshold adjustment (in percent) per rebuffer.
+    private static final int START_THRESHOLD_WAIT = 5000; // Maximum number of milliseconds playback is held for the start threshold.
+
+    // CROSSFADE VARIABLES:
+    private MediaPlayer nextSong; // MediaPlayer variable for the next song, which is faded in over the background song.
+    private String nextUrl; // The URL of the next song to crossfade into.
+    private boolean isCrossfading = false; // Used to determine if the songs are currently being crossfaded.
+    private boolean isNextPrepared = false; // Used to determine if the next song has been prepared.
+    private int crossfadeDuration = 0; // Number of milliseconds over which the songs are crossfaded.
+    private long crossfadeStartTime = 0; // The elapsed realtime (in milliseconds) at which the crossfade began.
+    private static final int CROSSFADE_PRELOAD_LEAD = 5000; // Number of milliseconds before the crossfade that the next song is prepared.
+    private static final int CROSSFADE_RAMP_INTERVAL = 50; // Number of milliseconds between volume ramp steps.
+
+    // METRICS VARIABLES:
+    private final SSPlaybackMetrics playbackMetrics = SSPlaybackMetrics.getInstance(); // Records the playback quality of each song.
+
+    // EVENT VARIABLES:
+    private final SSPlaybackEventBus eventBus = SSPlaybackEventBus.getInstance(); // Delivers the playback events to the main thread.
 
     // LOGGING VARIABLES:
     private static final String LOG_TAG = SSMusicEngine.class.getSimpleName(); // Used for logging output to logcat.
 
+    // PREPARE VARIABLES:
+    private boolean hasRetried = false; // Used to determine if the current song has already been retried.
+    private boolean isBuffering = false; // Used to determine if the song is currently buffering.
+    private boolean isHoldingPrepared = false; // Used to determine if the song being prepared is to be held instead of played.
+    private boolean preparingLoop = false; // The loop condition of the song being prepared.
+    private int prepareTimeout = DEFAULT_PREPARE_TIMEOUT; // Number of milliseconds until a prepare or stall times out.
+    public static final int DEFAULT_PREPARE_TIMEOUT = 10000; // Default prepare deadline (in milliseconds).
+    private static final int STALL_NOTIFY_DELAY = 250; // Number of milliseconds of buffering before a stall is displayed.
+
+    // STATE VARIABLES:
+    private final AtomicReference<SSPlaybackState> playbackState = new AtomicReference<>(SSPlaybackState.IDLE);
+
     // SYSTEM VARIABLES:
-    private Context context; // References the application context.
+    private volatile Context context; // References the application context.
+
+    // THREAD VARIABLES:
+    private final HandlerThread playbackThread; // Dedicated thread on which all MediaPlayer calls are run.
+    private final Handler commandHandler; // Handler for the command queue, which serializes all engine operations on the playback thread.
+    private final Handler mainHandler = new Handler(Looper.getMainLooper()); // Handler for posting results back to the main thread.
 
     /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
 
     // SSMusicEngine(): Constructor for SSMusicEngine class.
     private final static SSMusicEngine ss_music = new SSMusicEngine();
 
-    // SSMusicEngine(): Deconstructor for SSMusicEngine class.
-    private SSMusicEngine() {}
+    // SSMusicEngine(): Deconstructor for SSMusicEngine class. Starts the playback thread. As the
+    // MediaPlayer objects are created on this thread, their callbacks are also delivered on it.
+    private SSMusicEngine() {
+        playbackThread = new HandlerThread("SSPlaybackThread", Process.THREAD_PRIORITY_AUDIO);
+        playbackThread.start();
+        commandHandler = new Handler(playbackThread.getLooper());
+    }
 
     // getInstance(): Returns the ss_sounds instance.
     public static SSMusicEngine getInstance() { return ss_music; }
 
     // initializeAudio(): Initializes the SSMusicEngine class variables.
+    @Override
     public void initializeAudio(Context con) {
 
         Log.d(LOG_TAG, "INITIALIZING: Initializing music engine.");
 
         this.context = con; // Sets the application Context reference.
-        this.backgroundSong = new MediaPlayer(); // Instantiates the main MediaPlayer object.
-        this.isPaused = true; // Indicates that the song is not paused by default.
-        this.musicOn = true; // Indicates that music playback is enabled by default.
-        this.currentSong = "STOPPED"; // Sets the "STOPPED" condition for the song name string.
-        this.songPosition = 0; // Sets the song position to the beginning of the song by default.
 
-        Log.d(LOG_TAG, "INITIALIZING: Music engine initialization complete.");
+        commandHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+                releasePlayer(); // Releases any MediaPlayer object from a previous session.
+                playbackMetrics.endPlay(); // Commits the playback record of the previous session.
+                resumePosition = 0; // Sets the song position to the beginning of the song by default.
+                playbackClock.reset(); // Resets the playback clock.
+
+                Log.d(LOG_TAG, "INITIALIZING: Music engine initialization complete.");
+            }
+        });
     }
 
-    // attachFragment(): Attaches the player fragment to this class.
-    public void attachFragment(Fragment fragment) {
-        this.playerFragment = fragment; // Sets the player fragment to interact with.
-        Log.d(LOG_TAG, "attachFragment: Fragment attached.");
+    /** STATE FUNCTIONALITY ____________________________________________________________________ **/
+
+    // getPlaybackState(): Returns the current playback state. This can be called from any thread.
+    @Override
+    public SSPlaybackState getPlaybackState() {
+        return playbackState.get();
     }
 
-    /** MUSIC FUNCTIONALITY ____________________________________________________________________ **/
+    // isPreparing(): Determines if a song is currently being prepared for playback.
+    @Override
+    public Boolean isPreparing() {
+        return playbackState.get() == SSPlaybackState.PREPARING;
+    }
 
-    // getSongDuration(): Returns the current song's maximum duration.
-    public int getSongDuration() {
+    // isSongPlaying(): Determines if a song is currently playing in the background.
+    @Override
+    public Boolean isSongPlaying() {
+        return playbackState.get() == SSPlaybackState.PLAYING;
+    }
 
-        int maxDuration = 0;
+    // setState(): Atomically transitions the engine to the specified playback state. Returns false
+    // if the transition is not allowed from the current state.
+    private boolean setState(SSPlaybackState next) {
 
-        if ( (backgroundSong != null) && (backgroundSong.isPlaying()) ) {
-            maxDuration = backgroundSong.getDuration() / 1000; // Retrieves the maximum song duration.
-        }
+        while (true) {
+
+            SSPlaybackState current = playbackState.get();
 
-        return maxDuration;
+            // Rejects any transitions that are not defined by the state machine.
+            if (!current.canTransitionTo(next)) {
+                Log.d(LOG_TAG, "setState(): Ignoring transition from " + current + " to " + next + ".");
+                return false;
+            }
+
+            if (playbackState.compareAndSet(current, next)) {
+                Log.d(LOG_TAG, "setState(): " + current + " -> " + next);
+                return true;
+            }
+        }
     }
 
-    // getSongPosition(): Returns the current song position of the current song playing in the
-    // background.
-    public int getSongPosition() {
+    /** THREAD FUNCTIONALITY ___________________________________________________________________ **/
 
-        int position = 0; // Used to reference the current song position.
+    // prepareTimeoutThread(): A threaded function which runs when the song has not been prepared,
+    // or has not recovered from a buffering stall, by the prepare deadline.
+    private Runnable prepareTimeoutThread = new Runnable() {
 
-        if (backgroundSong != null) {
+        public void run() {
+            Log.e(LOG_TAG, "ERROR: Song preparation has timed out.");
+            retryOrFail(true);
+        }
+    };
+
+    // bufferWaitThread(): A threaded function which begins playback of a prepared song with
+    // whatever has been buffered so far, if the start threshold has not been buffered in time.
+    private Runnable bufferWaitThread = new Runnable() {
 
-            // Returns the current song position as long as the song is currently playing.
-            if (backgroundSong.isPlaying()) {
-                position = backgroundSong.getCurrentPosition() / 1000;
+        public void run() {
+            if (isAwaitingBuffer) {
+                Log.d(LOG_TAG, "PREPARING: Start threshold was not reached in time, starting playback.");
+                startPreparedSong(backgroundSong);
             }
+        }
+    };
 
-            // If the song has stopped playing, a value of -1 is returned to indicate that the song
-            // is no longer playing.
-            else {
-                return -1;
+    // stallNotifyThread(): A threaded function which signals the SSPlayerFragment that the song
+    // has stalled, if buffering has not ended shortly after it has started.
+    private Runnable stallNotifyThread = new Runnable() {
+
+        public void run() {
+            if (isBuffering) {
+                bufferingStatus(true); // Displays the SSPlayerFragment buffering indicator.
             }
         }
+    };
 
-        return position;
-    }
+    // crossfadePreloadThread(): A threaded function which prepares the next song shortly before
+    // the crossfade is due to begin.
+    private Runnable crossfadePreloadThread = new Runnable() {
 
-    // setSongPosition(): Sets the song position of the current song playing in the background.
-    public void setSongPosition(int position) {
+        public void run() {
+            prepareNextSong();
+        }
+    };
 
-        Log.d(LOG_TAG, "setSongPosition(): Updating song position at: " + position);
+    // crossfadeStartThread(): A threaded function which starts the next song and begins the volume
+    // ramps, once the background song is within the crossfade duration of it's end.
+    private Runnable crossfadeStartThread = new Runnable() {
 
-        if (backgroundSong != null) {
+        public void run() {
+
+            // If the next song is not ready in time, the background song ends normally and the
+            // next song is played through the auto play path instead.
+            if (!isNextPrepared || (playbackState.get() != SSPlaybackState.PLAYING)) {
+                Log.d(LOG_TAG, "CROSSFADE: Next song is not ready, skipping the crossfade.");
+                return;
+            }
+
+            Log.d(LOG_TAG, "CROSSFADE: Crossfade has begun.");
+
+            isCrossfading = true;
+            crossfadeStartTime = SystemClock.elapsedRealtime();
+            nextSong.setVolume(0f, 0f);
+            nextSong.start(); // Begins playing the next song silently.
+            commandHandler.post(crossfadeRampThread);
+        }
+    };
+
+    // crossfadeRampThread(): A threaded function which ramps the volume of the background song
+    // down and the volume of the next song up. The same Runnable is re-posted for each step, so no
+    // objects are allocated while the volumes are ramped.
+    private Runnable crossfadeRampThread = new Runnable() {
 
-            songPosition = position * 1000; // Sets the new song position.
+        public void run() {
 
-            // Sets the song position as long as the song is currently playing in the background.
-            if (backgroundSong.isPlaying()) {
-                backgroundSong.seekTo(songPosition);
+            if (!isCrossfading) {
+                return;
             }
+
+            float progress = (float) (SystemClock.elapsedRealtime() - crossfadeStartTime) / crossfadeDuration;
+
+            if (progress >= 1f) {
+                completeCrossfade();
+                return;
+            }
+
+            backgroundSong.setVolume(1f - progress, 1f - progress);
+            nextSong.setVolume(progress, progress);
+            commandHandler.postDelayed(this, CROSSFADE_RAMP_INTERVAL);
         }
+    };
+
+    // cancelPrepareTimers(): Cancels the prepare deadline, stall and buffer wait threads.
+    private void cancelPrepareTimers() {
+        commandHandler.removeCallbacks(prepareTimeoutThread);
+        commandHandler.removeCallbacks(stallNotifyThread);
+        commandHandler.removeCallbacks(bufferWaitThread);
+    }
+
+    /** MUSIC FUNCTIONALITY ____________________________________________________________________ **/
+
+    // setPrepareTimeout(): Sets the number of milliseconds until a song preparation or a buffering
+    // stall times out.
+    @Override
+    public void setPrepareTimeout(final int timeout) {
+
+        commandHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+                prepareTimeout = timeout;
+            }
+        });
+    }
+
+    // setNextSong(): Sets the next song to crossfade into, once the current song is within the
+    // specified crossfade duration (in milliseconds) of it's end. A null URL or a zero duration
+    // disables the crossfade.
+    @Override
+    public void setNextSong(final String songUrl, final int crossfade) {
+
+        commandHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+
+                // Ignores the request if the same song has already been set.
+                if ((songUrl != null) && songUrl.equals(nextUrl) && (crossfade == crossfadeDuration)) {
+                    return;
+                }
+
+                releaseNextPlayer(); // Releases any previously prepared next song.
+                nextUrl = songUrl;
+                crossfadeDuration = crossfade;
+                scheduleCrossfade();
+            }
+        });
+    }
+
+    // getBufferedFraction(): Returns the fraction (0.0 - 1.0) of the current song that has been
+    // buffered. This can be called from any thread.
+    @Override
+    public float getBufferedFraction() {
+        return bufferedPercent / 100f;
+    }
+
+    // getRebufferCount(): Returns the number of times playback of the current song has stalled due
+    // to buffering. This can be called from any thread.
+    @Override
+    public int getRebufferCount() {
+        return rebufferCount;
+    }
+
+    // setOnClockStateListener(): Sets the listener that is signalled when the playback clock
+    // starts or stops.
+    @Override
+    public void setOnClockStateListener(SSPlaybackClock.OnClockStateListener listener) {
+        playbackClock.setOnClockStateListener(listener);
+    }
+
+    // getSongDuration(): Returns the current song's maximum duration (in milliseconds).
+    @Override
+    public int getSongDuration() {
+        return playbackClock.getDuration();
+    }
+
+    // getSongPosition(): Returns the current song position (in milliseconds) of the current song
+    // playing in the background. The position is interpolated by the playback clock, so the
+    // MediaPlayer object is not queried.
+    @Override
+    public int getSongPosition() {
+        return playbackClock.getPosition();
+    }
+
+    // setSongPosition(): Sets the song position (in milliseconds) of the current song playing in
+    // the background.
+    @Override
+    public void setSongPosition(final int position) {
+
+        commandHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+
+                Log.d(LOG_TAG, "setSongPosition(): Updating song position at: " + position);
+
+                resumePosition = position; // Sets the new song position.
+
+                SSPlaybackState state = playbackState.get();
+
+                // Seeks to the new position as long as the song has been prepared. The clock is
+                // anchored at the target position until the seek has completed.
+                if ((state == SSPlaybackState.PLAYING) || (state == SSPlaybackState.PAUSED) ||
+                        (state == SSPlaybackState.PREPARED)) {
+                    cancelCrossfade(); // Cancels any crossfade, as the end of the song has moved.
+                    seekTo(position);
+                    playbackClock.anchor(position, (state == SSPlaybackState.PLAYING) && !isBuffering);
+                    scheduleCrossfade();
+                }
+            }
+        });
     }
 
     // playSongUrl(): Plays the music file based on the specified song URL.
     // Set loop variable to true to enable infinite song looping.
     // TRUE: Loops the song infinitely.
     // FALSE: Disables song looping.
-    public void playSongUrl(String songUrl, Boolean loop) {
+    @Override
+    public void playSongUrl(final String songUrl, final Boolean loop) {
+
+        commandHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+
+                SSPlaybackState state = playbackState.get();
+
+                // HELD: If the same song is still being prepared to be held, it is played once it
+                // has been prepared instead.
+                if ((state == SSPlaybackState.PREPARING) && isHoldingPrepared && songUrl.equals(currentUrl)) {
+                    Log.d(LOG_TAG, "PREPARING: Song will be played once it has been prepared.");
+                    isHoldingPrepared = false;
+                    preparingLoop = loop;
+                    backgroundSong.setLooping(loop);
+                    playbackMetrics.beginPlay(songUrl, false); // Begins a new playback record.
+                }
+
+                // RESUME: If the same song was paused or held, playback is resumed without
+                // preparing the song again.
+                else if (((state == SSPlaybackState.PAUSED) || (state == SSPlaybackState.PREPARED))
+                        && songUrl.equals(currentUrl)) {
+                    isHoldingPrepared = false;
+                    playbackMetrics.clearTap(); // The tap does not begin a new playback record.
+                    resumeSong(loop);
+                }
+
+                // Calls playSong to create a MediaPlayer object and play the song.
+                else {
+                    Log.d(LOG_TAG, "PREPARING: Preparing song for playback.");
+
+                    // Adapts the start threshold to the rebuffering of the previous song.
+                    if (isTrackStarted) {
+                        adaptStartThreshold();
+                    }
+
+                    hasRetried = false; // Allows a single retry for the new song.
+                    isHoldingPrepared = false;
+                    isTrackStarted = false;
+                    playbackMetrics.beginPlay(songUrl, false); // Begins a new playback record.
+                    rebufferCount = 0; // Resets the rebuffer count for the new song.
+                    playSong(songUrl, loop);
+                }
+            }
+        });
+    }
+
+    // prepareSongUrl(): Prepares the music file based on the specified song URL without playing
+    // it. Once prepared, the song is held at the specified position (in milliseconds) in the
+    // PREPARED state, so that playSongUrl() begins playback of the same song without preparing it
+    // again. Nothing is prepared if a song is already loaded.
+    @Override
+    public void prepareSongUrl(final String songUrl, final int position) {
+
+        commandHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+
+                SSPlaybackState state = playbackState.get();
 
-        // If the music option has been enabled, a song is selected based on the passed in songUrl string.
-        if (musicOn) {
+                if ((state == SSPlaybackState.PREPARING) || (state == SSPlaybackState.PREPARED) ||
+                        (state == SSPlaybackState.PLAYING) || (state == SSPlaybackState.PAUSED)) {
+                    Log.d(LOG_TAG, "prepareSongUrl(): A song is already loaded, the song will not be prepared.");
+                    return;
+                }
 
-            // Calls playSong to create a MediaPlayer object and play the song.
-            Log.d(LOG_TAG, "PREPARING: Preparing song for playback.");
-            playSong(songUrl, loop);
+                Log.d(LOG_TAG, "PREPARING: Preparing song to be held for playback.");
+
+                hasRetried = false; // Allows a single retry for the new song.
+                isHoldingPrepared = true;
+                isTrackStarted = false;
+                rebufferCount = 0; // Resets the rebuffer count for the new song.
+                resumePosition = position; // Sets the position at which the song is held.
+                playSong(songUrl, false);
+            }
+        });
+    }
+
+    //  playSong(): Sets up a MediaPlayer object and begins playing the song. A prepare deadline is
+    //  armed, which is cancelled once the MediaPlayer object signals that it has been prepared.
+    private void playSong(final String songUrl, final boolean loop) {
+
+        boolean isSongReady = false; // Used to determine if song is ready for playback.
+
+        // Releases any song currently loaded in the background before switching to a new song.
+        if (backgroundSong != null) {
+            Log.d(LOG_TAG, "PREPARING: Releasing the current MediaPlayer object before switching to a new song.");
+            releasePlayer();
         }
 
-        // Outputs a message to logcat indicating that the song cannot be played.
-        else {
-            Log.d(LOG_TAG, "ERROR: Song cannot be played. Music engine is currently disabled.");
+        setState(SSPlaybackState.PREPARING); // Indicates that the song is currently being prepared.
+        releaseNextPlayer(); // Releases any next song that was prepared for a crossfade.
+        resetSeek(); // Clears any seeks from the previous MediaPlayer object.
+        isAwaitingBuffer = false;
+        bufferedPercent = 0;
+        bufferingProgress(0); // Resets the SSPlayerFragment buffering progress.
+
+        // Sets up the MediaPlayer object for the song to be played.
+        backgroundSong = new MediaPlayer(); // Initializes the MediaPlayer.
+        backgroundSong.setWakeMode(context.getApplicationContext(), PowerManager.PARTIAL_WAKE_LOCK); // Sets the wake lock mode.
+        backgroundSong.setAudioStreamType(AudioManager.STREAM_MUSIC); // Sets the audio type for the MediaPlayer object.
+
+        Log.d(LOG_TAG, "PREPARING: MediaPlayer stream type set to STREAM_MUSIC.");
+
+        // Stores the song parameters, in case the song needs to be retried on a fresh connection.
+        currentUrl = songUrl;
+        preparingLoop = loop;
+
+        // Attempts to set the data source for the MediaPlayer object.
+        try {
+            backgroundSong.setDataSource(songUrl);
+            isSongReady = true;
+        }
+
+        // IO exception handler.
+        catch (IOException e) {
+            e.printStackTrace();
+            Log.e(LOG_TAG, "ERROR: playSong(): I/O exception occurred.");
+        }
+
+        // Null pointer exception handlers.
+        catch (NullPointerException e) {
+            e.printStackTrace();
+            Log.e(LOG_TAG, "ERROR: playSong(): Null pointer exception occurred.");
+        }
+
+        // If the data source could not be set, the song is retried once before failing.
+        if (!isSongReady) {
+            retryOrFail(false);
+            return;
+        }
+
+        attachListeners(backgroundSong); // Sets up the listeners for the MediaPlayer object.
+
+        // Prepares the song track for playback.
+        cancelPrepareTimers();
+        commandHandler.postDelayed(prepareTimeoutThread, prepareTimeout); // Arms the prepare deadline.
+        backgroundSong.prepareAsync(); // Prepares the stream asynchronously.
+        backgroundSong.setLooping(loop); // Enables infinite looping of music.
+
+        Log.d(LOG_TAG, "PREPARING: Loop condition has been set to " + loop + ".");
+    }
+
+    // seekTo(): Seeks the background song to the specified position (in milliseconds). If a seek
+    // is already in progress, the position is queued and only the latest queued position is
+    // issued once the current seek has completed.
+    private void seekTo(int position) {
+
+        if (isSeekInFlight) {
+            queuedSeekPosition = position;
+            return;
         }
+
+        isSeekInFlight = true;
+        backgroundSong.seekTo(position);
     }
 
-    //  playSong(): Sets up a MediaPlayer object and begins playing the song.
-    private void playSong(final String songUrl, boolean loop) {
+    // resetSeek(): Clears the in-progress and queued seeks, such as when the MediaPlayer object is
+    // replaced.
+    private void resetSeek() {
+        isSeekInFlight = false;
+        queuedSeekPosition = -1;
+    }
 
-        Boolean isSongReady; // Used to determine if song is ready for playback.
+    // startPreparedSong(): Begins playback of a song that has been prepared.
+    private void startPreparedSong(MediaPlayer mediaPlayer) {
 
-        // Checks to see if the MediaPlayer class has been instantiated first before playing a song.
-        // This is to prevent a rare null pointer exception bug.
-        if (backgroundSong == null) {
+        isAwaitingBuffer = false;
+        commandHandler.removeCallbacks(bufferWaitThread); // Cancels the start threshold hold.
 
-            Log.d(LOG_TAG, "WARNING: MediaPlayer object was null. Re-initializing MediaPlayer object.");
-            backgroundSong = new MediaPlayer();
+        if ((mediaPlayer == null) || !setState(SSPlaybackState.PLAYING)) {
+            return;
+        }
+
+        // Cancels the prepare deadline, unless the song is still stalled from buffering, in which
+        // case the deadline is re-armed as the stall deadline.
+        if (!isBuffering) {
+            cancelPrepareTimers();
         }
 
         else {
+            commandHandler.removeCallbacks(prepareTimeoutThread);
+            commandHandler.postDelayed(prepareTimeoutThread, prepareTimeout);
+        }
 
-            // Stops any songs currently playing in the background.
-            if (backgroundSong.isPlaying()) {
-                Log.d(LOG_TAG, "PREPARING: Song currently playing in the background. Stopping playback before switching to a new song.");
-                backgroundSong.stop();
-            }
+        // If the song was previously paused, resume the song at it's previous location.
+        if (resumePosition > 0) {
 
-            // Sets up the MediaPlayer object for the song to be played.
-            releaseMedia(); // Releases MediaPool resources.
-            backgroundSong = new MediaPlayer(); // Initializes the MediaPlayer.
-            backgroundSong.setWakeMode(context.getApplicationContext(), PowerManager.PARTIAL_WAKE_LOCK); // Sets the wake lock mode.
-            backgroundSong.setAudioStreamType(AudioManager.STREAM_MUSIC); // Sets the audio type for the MediaPlayer object.
+            Log.d(LOG_TAG, "PREPARING: Song was previously paused, resuming song playback.");
 
-            Log.d(LOG_TAG, "PREPARING: MediaPlayer stream type set to STREAM_MUSIC.");
+            seekTo(resumePosition); // Jumps to the position where the song left off.
+            resumePosition = 0; // Resets resumePosition variable after song's position has been set.
+        }
 
-            // Attempts to set the data source for the MediaPlayer object.
-            try {
-                backgroundSong.setDataSource(songUrl);
-                isSongReady = true;
-            }
+        Log.d(LOG_TAG, "MUSIC: Song playback has begun.");
 
-            // IO exception handler.
-            catch (IOException e) {
-                e.printStackTrace();
-                Log.e(LOG_TAG, "ERROR: playSong(): I/O exception occurred.");
-                return;
-            }
+        mediaPlayer.start(); // Begins playing the song.
+        isTrackStarted = true;
+        playbackMetrics.markFirstAudio(); // Records the start of playback.
 
-            // Null pointer exception handlers.
-            catch (NullPointerException e) {
-                e.printStackTrace();
-                Log.e(LOG_TAG, "ERROR: playSong(): Null pointer exception occurred.");
-                return;
-            }
+        // Anchors the playback clock at the start position of the song.
+        playbackClock.setDuration(mediaPlayer.getDuration());
+        playbackClock.anchor(mediaPlayer.getCurrentPosition(), true);
 
-            if (isSongReady) {
+        playbackStatus(true); // Updates SSPlayerFragment on the song playback status.
+        setDuration(mediaPlayer.getDuration()); // Retrieves the maximum song duration.
+        scheduleCrossfade(); // Schedules the crossfade into the next song, if one has been set.
+    }
 
-                // Prepares the song track for playback.
-                backgroundSong.prepareAsync(); // Prepares the stream asynchronously.
-                backgroundSong.setLooping(loop); // Enables infinite looping of music.
+    // holdPreparedSong(): Holds a song that has been prepared without playing it. The song is moved
+    // to the position it is to be resumed from, and the playback clock is left stopped.
+    private void holdPreparedSong(MediaPlayer mediaPlayer) {
 
-                Log.d(LOG_TAG, "PREPARING: Loop condition has been set to " + loop + ".");
+        if (!setState(SSPlaybackState.PREPARED)) {
+            return;
+        }
 
-                // Sets up the listener for the MediaPlayer object. Song playback begins immediately
-                // once the MediaPlayer object is ready.
-                backgroundSong.setOnPreparedListener(new MediaPlayer.OnPreparedListener() {
+        cancelPrepareTimers(); // Cancels the prepare deadline.
 
-                    @Override
-                    public void onPrepared(MediaPlayer mediaPlayer) {
+        if (resumePosition > 0) {
+            seekTo(resumePosition); // Jumps to the position where the song left off.
+        }
 
-                        // If the song was previously paused, resume the song at it's previous location.
-                        if (isPaused) {
+        playbackClock.setDuration(mediaPlayer.getDuration());
+        playbackClock.anchor(resumePosition, false);
+        setDuration(mediaPlayer.getDuration()); // Retrieves the maximum song duration.
 
-                            Log.d(LOG_TAG, "PREPARING: Song was previously paused, resuming song playback.");
+        Log.d(LOG_TAG, "MUSIC: Song has been prepared and is held at " + resumePosition + "ms.");
+    }
 
-                            mediaPlayer.seekTo(songPosition); // Jumps to the position where the song left off.
-                            songPosition = 0; // Resets songPosition variable after song's position has been set.
-                            isPaused = false; // Indicates that the song is no longer paused.
-                        }
+    // adaptStartThreshold(): Raises the start threshold if the previous song stalled due to
+    // buffering, or lowers it if the previous song played without stalling.
+    private void adaptStartThreshold() {
 
-                        Log.d(LOG_TAG, "MUSIC: Song playback has begun.");
+        if (rebufferCount > 0) {
+            startThreshold = Math.min(MAX_START_THRESHOLD, startThreshold + (START_THRESHOLD_STEP * rebufferCount));
+        }
 
-                        mediaPlayer.start(); // Begins playing the song.
-                        playbackStatus(true); // Updates SSPlayerFragment on the song playback status.
-                        setDuration(mediaPlayer.getDuration() / 1000); // Retrieves the maximum song duration.
-                    }
-                });
-            }
+        else {
+            startThreshold = Math.max(0, startThreshold - START_THRESHOLD_STEP);
         }
+
+        Log.d(LOG_TAG, "PREPARING: Start threshold set to " + startThreshold + "% (" + rebufferCount + " rebuffers).");
     }
 
-    // isSongPlaying(): Determines if a song is currently playing in the background.
-    public Boolean isSongPlaying() {
-        return backgroundSong.isPlaying();
+    // resumeSong(): Resumes playback of the paused song at it's previous position.
+    private void resumeSong(boolean loop) {
+
+        if (setState(SSPlaybackState.PLAYING)) {
+
+            Log.d(LOG_TAG, "MUSIC: Resuming paused song playback.");
+
+            // Jumps to the new position, if the position was changed while the song was paused.
+            if (resumePosition != backgroundSong.getCurrentPosition()) {
+                seekTo(resumePosition);
+            }
+
+            resumePosition = 0;
+            backgroundSong.setLooping(loop);
+            backgroundSong.start(); // Resumes playing the song.
+            playbackClock.anchor(backgroundSong.getCurrentPosition(), true);
+
+            playbackStatus(true); // Updates SSPlayerFragment on the song playback status.
+            setDuration(backgroundSong.getDuration()); // Retrieves the maximum song duration.
+            scheduleCrossfade(); // Schedules the crossfade into the next song, if one has been set.
+        }
     }
 
-    // pauseSong(): Pauses any songs playing in the background and returns it's position.
-    public void pauseSong() {
+    // retryOrFail(): Retries the current song once on a fresh MediaPlayer connection, resuming at
+    // the last known song position. A paused song is only prepared and held at it's paused
+    // position, so that it does not start playing by itself. If the song has already been retried,
+    // playback is stopped and the SSPlayerFragment is signalled that the song could not be played.
+    // isTimeout indicates whether the failure was a time-out or an error.
+    private void retryOrFail(boolean isTimeout) {
 
-        Log.d(LOG_TAG, "MUSIC: Music playback has been paused.");
+        SSPlaybackState state = playbackState.get();
 
-        // Checks to see if mapSong has been initialized first before saving the song position and pausing the song.
-        if (backgroundSong != null) {
+        // Records the failure. A time-out once the song has been prepared is a buffering stall that
+        // did not recover, rather than a failed preparation.
+        if (isTimeout && (state != SSPlaybackState.PREPARING)) {
+            playbackMetrics.markRebufferTimeout();
+        }
 
-            songPosition = backgroundSong.getCurrentPosition(); // Retrieves the current song position and saves it.
+        else {
+            playbackMetrics.markPrepareFailure(isTimeout);
+        }
 
-            // Pauses the song only if there is a song is currently playing.
-            if (backgroundSong.isPlaying()) {
-                backgroundSong.pause(); // Pauses the song.
+        cancelPrepareTimers();
+        cancelCrossfade();
+        isBuffering = false;
+        isAwaitingBuffer = false;
+
+        // RETRY: Prepares the song again on a new MediaPlayer object.
+        if (!hasRetried && (currentUrl != null)) {
+
+            Log.d(LOG_TAG, "PREPARING: Retrying song playback on a fresh connection.");
+
+            hasRetried = true;
+
+            // PAUSED: The song is held once prepared, at the position it was paused at.
+            if (state == SSPlaybackState.PAUSED) {
+                isHoldingPrepared = true;
             }
 
+            // Resumes the song at the last known position, if playback had already started.
+            int lastPosition = (state == SSPlaybackState.PAUSED) ? resumePosition : playbackClock.getPosition();
+            if (lastPosition > 0) {
+                resumePosition = lastPosition;
+            }
+
+            playbackClock.anchor(lastPosition, false);
+            playSong(currentUrl, preparingLoop);
+        }
+
+        // FAIL: Stops any attempted playback and signals the SSPlayerFragment.
+        else {
+
+            Log.e(LOG_TAG, "ERROR: Song could not be played after retrying.");
+
+            setState(SSPlaybackState.ERROR);
+            playbackMetrics.markFailed(); // Records that the song could not be played.
+
+            if (backgroundSong != null) {
+                backgroundSong.reset(); // Cancels any pending preparation.
+            }
+
+            resumePosition = 0;
+            playbackClock.reset(); // Resets the playback clock.
             playbackStatus(false); // Updates SSPlayerFragment on the song playback status.
+            stopSongPrepare(true); // Signals the SSPlayerFragment to stop song preparation conditions.
 
-            isPaused = true; // Indicates that the song is currently paused.
-            currentSong = "PAUSED";
+            // A song that was only being prepared to be held fails silently, as playback was not
+            // requested.
+            if (isHoldingPrepared) {
+                isHoldingPrepared = false;
+                return;
+            }
+
+            // Displays the error message on the main thread.
+            mainHandler.post(new Runnable() {
+
+                @Override
+                public void run() {
+                    SSToast.toastyPopUp("The track could not be played due to a time-out error.", context);
+                }
+            });
         }
     }
 
-    //  stopSong(): Stops any songs playing in the background.
+    // pauseSong(): Pauses any songs playing in the background and returns it's position.
+    @Override
+    public void pauseSong() {
+
+        commandHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+
+                // Pauses the song only if there is a song is currently playing.
+                if (setState(SSPlaybackState.PAUSED)) {
+
+                    Log.d(LOG_TAG, "MUSIC: Music playback has been paused.");
+
+                    cancelPrepareTimers(); // Cancels any pending stall timers.
+                    cancelCrossfade(); // Cancels any pending or active crossfade.
+                    backgroundSong.pause(); // Pauses the song.
+                    resumePosition = backgroundSong.getCurrentPosition(); // Retrieves the current song position and saves it.
+                    playbackClock.anchor(resumePosition, false); // Stops the playback clock.
+                    playbackStatus(false); // Updates SSPlayerFragment on the song playback status.
+                }
+            }
+        });
+    }
+
+    //  stopSong(): Stops any songs playing or being prepared in the background.
+    @Override
     public void stopSong() {
 
-        // Checks to see if mapSong has been initiated first before stopping song playback.
-        if ( (backgroundSong != null) && (musicOn) ) {
-            backgroundSong.stop(); // Stops any songs currently playing in the background.
-            playbackStatus(false); // Updates SSPlayerFragment on the song playback status.
-            currentSong = "STOPPED";
-            Log.d(LOG_TAG, "MUSIC: Song playback has been stopped.");
-        }
+        commandHandler.post(new Runnable() {
 
-        else {
-            Log.d(LOG_TAG, "ERROR: Cannot stop song, as MediaPlayer object is already null.");
-        }
+            @Override
+            public void run() {
+
+                SSPlaybackState previousState = playbackState.get();
+
+                if (setState(SSPlaybackState.STOPPED)) {
+
+                    cancelPrepareTimers(); // Cancels any pending prepare deadline or stall timers.
+                    cancelCrossfade(); // Cancels any pending or active crossfade.
+                    isBuffering = false;
+                    isAwaitingBuffer = false;
+                    isHoldingPrepared = false;
+
+                    // PREPARING: A MediaPlayer object cannot be stopped while it is being prepared,
+                    // so the preparation is cancelled by resetting the MediaPlayer object instead.
+                    if (previousState == SSPlaybackState.PREPARING) {
+                        backgroundSong.reset();
+                        currentUrl = null;
+                    }
+
+                    else {
+                        backgroundSong.stop(); // Stops any songs currently playing in the background.
+                    }
+
+                    playbackClock.reset(); // Resets the playback clock.
+                    playbackMetrics.endPlay(); // Commits the playback record.
+                    playbackStatus(false); // Updates SSPlayerFragment on the song playback status.
+                    Log.d(LOG_TAG, "MUSIC: Song playback has been stopped.");
+                }
+
+                else {
+                    Log.d(LOG_TAG, "ERROR: Cannot stop song, as no song is currently playing.");
+                }
+            }
+        });
     }
 
     // releaseMedia(): Used to release the resources being used by mediaPlayer objects.
+    @Override
     public void releaseMedia() {
 
+        commandHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+                releasePlayer();
+                playbackMetrics.endPlay(); // Commits the playback record.
+            }
+        });
+    }
+
+    // releasePlayer(): Releases the MediaPlayer object and returns the engine to the IDLE state.
+    // The playback record is left open, as the MediaPlayer object is also released when it is
+    // replaced or retried; the callers commit it once playback has ended. This must only be
+    // called from the command queue.
+    private void releasePlayer() {
+
+        cancelPrepareTimers(); // Cancels any pending prepare deadline or stall timers.
+        releaseNextPlayer(); // Releases any next song that was prepared for a crossfade.
+        isBuffering = false;
+        isAwaitingBuffer = false;
+        setState(SSPlaybackState.IDLE);
+
         // Releases MediaPool resources.
         if (backgroundSong != null) {
 
             backgroundSong.reset();
             backgroundSong.release();
             backgroundSong = null;
+            currentUrl = null;
+            playbackClock.anchor(playbackClock.getPosition(), false); // Stops the playback clock.
 
             Log.d(LOG_TAG, "RELEASE: MediaPlayer object has been released.");
         }
@@ -291,58 +843,462 @@ public class SSMusicEngine {
 
     // updatePlayer(): Updates the attached player fragment on the playback status, as well as the
     // max duration of the song.
+    @Override
     public void updatePlayer() {
 
-        // If a song is currently playing in the background, the attached playerFragment is signaled
-        // on the current song playback status.
-        if (isSongPlaying()) {
-            playbackStatus(true);
-        }
+        commandHandler.post(new Runnable() {
 
-        // Signals to the playerFragment that no song is currently playing in the background.
-        else {
-            playbackStatus(false);
+            @Override
+            public void run() {
+
+                // Publishes the current song playback status.
+                playbackStatus(isSongPlaying());
+
+                int maxDuration = getSongDuration(); // Retrieves the current song's maximum duration.
+
+                // Publishes the updated duration value.
+                if (maxDuration != 0) {
+                    setDuration(maxDuration);
+                }
+            }
+        });
+    }
+
+    // warmUp(): Creates and releases a MediaPlayer object on the playback thread, which loads the
+    // media framework and connects to the media server ahead of the first song being prepared.
+    // Nothing is done if a song has already been loaded.
+    @Override
+    public void warmUp() {
+
+        commandHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+
+                if (backgroundSong == null) {
+
+                    Log.d(LOG_TAG, "warmUp(): Warming up the media framework.");
+
+                    MediaPlayer warmUpPlayer = new MediaPlayer();
+                    warmUpPlayer.release();
+                }
+            }
+        });
+    }
+
+    /** CROSSFADE FUNCTIONALITY ________________________________________________________________ **/
+
+    // scheduleCrossfade(): Schedules the next song to be prepared and faded in, based on the time
+    // remaining in the background song. Nothing is scheduled if no next song has been set, or if
+    // the background song is looping.
+    private void scheduleCrossfade() {
+
+        commandHandler.removeCallbacks(crossfadePreloadThread);
+        commandHandler.removeCallbacks(crossfadeStartThread);
+
+        int duration = playbackClock.getDuration();
+
+        if ((nextUrl == null) || (crossfadeDuration <= 0) || preparingLoop || (duration <= 0)
+                || (playbackState.get() != SSPlaybackState.PLAYING) || isCrossfading) {
+            return;
         }
 
-        int maxDuration = getSongDuration(); // Retrieves the current song's maximum duration.
+        long fadeDelay = duration - playbackClock.getPosition() - crossfadeDuration;
+
+        commandHandler.postDelayed(crossfadePreloadThread, Math.max(0, fadeDelay - CROSSFADE_PRELOAD_LEAD));
+        commandHandler.postDelayed(crossfadeStartThread, Math.max(0, fadeDelay));
+    }
+
+    // cancelCrossfade(): Cancels any scheduled crossfade. If the songs are currently being
+    // crossfaded, the next song is released and the background song is restored to full volume.
+    private void cancelCrossfade() {
+
+        commandHandler.removeCallbacks(crossfadePreloadThread);
+        commandHandler.removeCallbacks(crossfadeStartThread);
+        commandHandler.removeCallbacks(crossfadeRampThread);
+
+        if (isCrossfading) {
 
-        // Sends the updated duration value to the playerFragment.
-        if (maxDuration != 0) {
-            setDuration(maxDuration);
+            Log.d(LOG_TAG, "CROSSFADE: Crossfade has been cancelled.");
+
+            isCrossfading = false;
+            releaseNextPlayer();
+
+            if (backgroundSong != null) {
+                backgroundSong.setVolume(1f, 1f);
+            }
         }
     }
 
-    /** INTERFACE METHODS ______________________________________________________________________ **/
+    // prepareNextSong(): Sets up a MediaPlayer object for the next song and prepares it, so that
+    // it is ready to be started once the crossfade begins.
+    private void prepareNextSong() {
 
-    // playbackStatus(): Signals the SSPlayerFragment on the current playback status of the
-    // streaming Spotify song.
-    private void playbackStatus(Boolean isPlay) {
+        if ((nextSong != null) || (nextUrl == null)) {
+            return;
+        }
 
-        if (playerFragment != null) {
+        Log.d(LOG_TAG, "CROSSFADE: Preparing the next song.");
 
-            Log.d(LOG_TAG, "playbackStatus(): Attempting to update the SSPlayerFragment of the song playback status.");
+        nextSong = new MediaPlayer();
+        nextSong.setWakeMode(context.getApplicationContext(), PowerManager.PARTIAL_WAKE_LOCK);
+        nextSong.setAudioStreamType(AudioManager.STREAM_MUSIC);
+        nextSong.setOnPreparedListener(nextPreparedListener);
+        nextSong.setOnErrorListener(nextErrorListener);
 
-            try { ((OnMusicPlayerListener) playerFragment).playbackStatus(isPlay); }
-            catch (ClassCastException cce) {} // Catch for class cast exception errors.
+        try {
+            nextSong.setDataSource(nextUrl);
+            nextSong.prepareAsync();
         }
 
-        else {
-            Log.d(LOG_TAG, "playbackStatus(): SSPlayerFragment was null.");
+        // IO exception handler. The next song is played through the auto play path instead.
+        catch (IOException e) {
+            e.printStackTrace();
+            Log.e(LOG_TAG, "ERROR: prepareNextSong(): I/O exception occurred.");
+            releaseNextPlayer();
         }
     }
 
-    // setDuration(): Signals the SSPlayerFragment to set the max duration for the Spotify song.
-    private void setDuration(int duration) {
+    // completeCrossfade(): Swaps the next song in as the background song once the crossfade has
+    // completed, and releases the previous background song.
+    private void completeCrossfade() {
 
-        Log.d(LOG_TAG, "setDuration(): Duration of the current song: " + duration);
+        commandHandler.removeCallbacks(crossfadeRampThread);
+
+        Log.d(LOG_TAG, "CROSSFADE: Crossfade has completed.");
+
+        MediaPlayer previousSong = backgroundSong;
+
+        // Swaps the next song in as the background song.
+        isCrossfading = false;
+        isNextPrepared = false;
+        backgroundSong = nextSong;
+        currentUrl = nextUrl;
+        nextSong = null;
+        nextUrl = null;
+
+        backgroundSong.setVolume(1f, 1f);
+        resetSeek(); // Clears any seeks from the previous MediaPlayer object.
+        attachListeners(backgroundSong); // Replaces the next song listeners with the background song listeners.
+
+        // Releases the previous background song.
+        previousSong.reset();
+        previousSong.release();
+
+        // Begins a new playback record for the crossfaded song, which is already playing.
+        playbackMetrics.beginPlay(currentUrl, true);
+        playbackMetrics.markPrepared();
+        playbackMetrics.markFirstAudio();
+
+        // Resets the per-song values for the new background song.
+        hasRetried = false;
+        rebufferCount = 0;
+        bufferedPercent = 100;
+        resumePosition = 0;
+
+        // Anchors the playback clock at the current position of the new background song.
+        playbackClock.setDuration(backgroundSong.getDuration());
+        playbackClock.anchor(backgroundSong.getCurrentPosition(), true);
+
+        playbackAdvanced(); // Signals the SSPlayerFragment that the next song is now playing.
+        setDuration(backgroundSong.getDuration()); // Retrieves the maximum song duration.
+        bufferingProgress(bufferedPercent);
+    }
+
+    // releaseNextPlayer(): Releases the MediaPlayer object for the next song, if one has been
+    // prepared.
+    private void releaseNextPlayer() {
 
-        if (playerFragment != null) {
-            try { ((OnMusicPlayerListener) playerFragment).setDuration(duration); }
-            catch (ClassCastException cce) {} // Catch for class cast exception errors.
+        isNextPrepared = false;
+
+        if (nextSong != null) {
+            nextSong.reset();
+            nextSong.release();
+            nextSong = null;
+            Log.d(LOG_TAG, "CROSSFADE: Next song has been released.");
         }
+    }
 
-        else {
-            Log.d(LOG_TAG, "setDuration(): SSPlayerFragment was null.");
+    /** LISTENER FUNCTIONALITY _________________________________________________________________ **/
+
+    // preparedListener(): Begins song playback once the MediaPlayer object is ready.
+    private MediaPlayer.OnPreparedListener preparedListener = new MediaPlayer.OnPreparedListener() {
+
+        @Override
+        public void onPrepared(MediaPlayer mediaPlayer) {
+
+            // Ignores callbacks from a MediaPlayer object that has since been replaced, or a
+            // preparation that has since been cancelled.
+            if ((mediaPlayer != backgroundSong) || (playbackState.get() != SSPlaybackState.PREPARING)) {
+                return;
+            }
+
+            playbackMetrics.markPrepared(); // Records the end of preparation.
+
+            // HELD: The song is held at it's position until it is played.
+            if (isHoldingPrepared) {
+                holdPreparedSong(mediaPlayer);
+            }
+
+            // SLOW NETWORK: Holds playback until the start threshold has been buffered, to
+            // avoid rebuffering immediately after playback begins. The prepare deadline is
+            // replaced by the buffer wait, so playback will begin regardless once
+            // START_THRESHOLD_WAIT has passed.
+            else if (bufferedPercent < startThreshold) {
+                Log.d(LOG_TAG, "PREPARING: Waiting for " + startThreshold + "% of the song to be buffered.");
+                isAwaitingBuffer = true;
+                commandHandler.removeCallbacks(prepareTimeoutThread);
+                commandHandler.postDelayed(bufferWaitThread, START_THRESHOLD_WAIT);
+            }
+
+            else {
+                startPreparedSong(mediaPlayer);
+            }
         }
+    };
+
+    // bufferingUpdateListener(): Updates the buffered percentage of the song, and begins any held
+    // playback once the start threshold has been buffered.
+    private MediaPlayer.OnBufferingUpdateListener bufferingUpdateListener = new MediaPlayer.OnBufferingUpdateListener() {
+
+        @Override
+        public void onBufferingUpdate(MediaPlayer mediaPlayer, int percent) {
+
+            if ((mediaPlayer != backgroundSong) || (percent == bufferedPercent)) {
+                return;
+            }
+
+            bufferedPercent = percent;
+            bufferingProgress(percent); // Updates the SSPlayerFragment buffering progress.
+
+            if (isAwaitingBuffer && (percent >= startThreshold)) {
+                startPreparedSong(mediaPlayer);
+            }
+        }
+    };
+
+    // seekCompleteListener(): Re-anchors the playback clock once the MediaPlayer object has
+    // completed a seek.
+    private MediaPlayer.OnSeekCompleteListener seekCompleteListener = new MediaPlayer.OnSeekCompleteListener() {
+
+        @Override
+        public void onSeekComplete(MediaPlayer mediaPlayer) {
+
+            if (mediaPlayer != backgroundSong) {
+                return;
+            }
+
+            isSeekInFlight = false;
+
+            // Issues the latest seek that was requested while this seek was in progress. The clock
+            // remains anchored at the requested position until the final seek has completed.
+            if (queuedSeekPosition >= 0) {
+                int position = queuedSeekPosition;
+                queuedSeekPosition = -1;
+                seekTo(position);
+                return;
+            }
+
+            playbackClock.anchor(mediaPlayer.getCurrentPosition(),
+                    (playbackState.get() == SSPlaybackState.PLAYING) && !isBuffering);
+        }
+    };
+
+    // completionListener(): Stops the playback clock and signals the SSPlayerFragment once the
+    // song has reached the end of playback.
+    private MediaPlayer.OnCompletionListener completionListener = new MediaPlayer.OnCompletionListener() {
+
+        @Override
+        public void onCompletion(MediaPlayer mediaPlayer) {
+
+            if (mediaPlayer != backgroundSong) {
+                return;
+            }
+
+            // CROSSFADE: If the background song ends while the next song is being faded in, the
+            // crossfade is completed immediately.
+            if (isCrossfading) {
+                completeCrossfade();
+                return;
+            }
+
+            if (!setState(SSPlaybackState.STOPPED)) {
+                return;
+            }
+
+            Log.d(LOG_TAG, "MUSIC: Song playback has completed.");
+
+            playbackMetrics.endPlay(); // Commits the playback record.
+
+            resumePosition = 0;
+            playbackClock.anchor(playbackClock.getDuration(), false);
+            playbackCompleted(); // Updates SSPlayerFragment that the song has ended.
+        }
+    };
+
+    // errorListener(): Retries the song on a fresh connection if the MediaPlayer object reports
+    // an error.
+    private MediaPlayer.OnErrorListener errorListener = new MediaPlayer.OnErrorListener() {
+
+        @Override
+        public boolean onError(MediaPlayer mediaPlayer, int what, int extra) {
+
+            Log.e(LOG_TAG, "ERROR: MediaPlayer error occurred: " + what + ", " + extra);
+
+            if (mediaPlayer == backgroundSong) {
+                retryOrFail(false);
+            }
+
+            return true; // Indicates that the error has been handled.
+        }
+    };
+
+    // infoListener(): Tracks buffering stalls that are reported by the MediaPlayer object.
+    private MediaPlayer.OnInfoListener infoListener = new MediaPlayer.OnInfoListener() {
+
+        @Override
+        public boolean onInfo(MediaPlayer mediaPlayer, int what, int extra) {
+
+            if (mediaPlayer != backgroundSong) {
+                return false;
+            }
+
+            // BUFFERING START: Freezes the playback clock and begins the stall timers.
+            if (what == MediaPlayer.MEDIA_INFO_BUFFERING_START) {
+
+                Log.d(LOG_TAG, "MUSIC: Buffering has started.");
+
+                isBuffering = true;
+
+                // Counts the stall as a rebuffer if it occurs during playback.
+                if (playbackState.get() == SSPlaybackState.PLAYING) {
+                    rebufferCount++;
+                    playbackMetrics.markRebufferStart();
+                }
+
+                playbackClock.anchor(mediaPlayer.getCurrentPosition(), false);
+                cancelCrossfade(); // The crossfade is rescheduled once buffering has ended.
+                commandHandler.removeCallbacks(stallNotifyThread);
+                commandHandler.postDelayed(stallNotifyThread, STALL_NOTIFY_DELAY);
+
+                // Arms the stall deadline, unless the song is being prepared, in which case the
+                // original prepare deadline is kept.
+                if (playbackState.get() != SSPlaybackState.PREPARING) {
+                    commandHandler.removeCallbacks(prepareTimeoutThread);
+                    commandHandler.postDelayed(prepareTimeoutThread, prepareTimeout);
+                }
+
+                return true;
+            }
+
+            // BUFFERING END: Resumes the playback clock and cancels the stall timers. The stall
+            // deadline is only cancelled during playback, as the prepare deadline must remain
+            // armed while the song is being prepared.
+            else if (what == MediaPlayer.MEDIA_INFO_BUFFERING_END) {
+
+                Log.d(LOG_TAG, "MUSIC: Buffering has ended.");
+
+                isBuffering = false;
+                commandHandler.removeCallbacks(stallNotifyThread);
+
+                if (playbackState.get() == SSPlaybackState.PLAYING) {
+                    commandHandler.removeCallbacks(prepareTimeoutThread);
+                }
+
+                playbackMetrics.markRebufferEnd();
+                playbackClock.anchor(mediaPlayer.getCurrentPosition(),
+                        playbackState.get() == SSPlaybackState.PLAYING);
+                bufferingStatus(false); // Hides the SSPlayerFragment buffering indicator.
+                scheduleCrossfade();
+                return true;
+            }
+
+            return false;
+        }
+    };
+
+    // nextPreparedListener(): Marks the next song as ready for the crossfade.
+    private MediaPlayer.OnPreparedListener nextPreparedListener = new MediaPlayer.OnPreparedListener() {
+
+        @Override
+        public void onPrepared(MediaPlayer mediaPlayer) {
+
+            if (mediaPlayer == nextSong) {
+                Log.d(LOG_TAG, "CROSSFADE: Next song has been prepared.");
+                isNextPrepared = true;
+            }
+        }
+    };
+
+    // nextErrorListener(): Releases the next song if it could not be prepared. The next song is
+    // then played through the auto play path once the background song has ended.
+    private MediaPlayer.OnErrorListener nextErrorListener = new MediaPlayer.OnErrorListener() {
+
+        @Override
+        public boolean onError(MediaPlayer mediaPlayer, int what, int extra) {
+
+            Log.e(LOG_TAG, "ERROR: Next song error occurred: " + what + ", " + extra);
+
+            if (mediaPlayer == nextSong) {
+                cancelCrossfade();
+                releaseNextPlayer();
+            }
+
+            return true; // Indicates that the error has been handled.
+        }
+    };
+
+    // attachListeners(): Sets up the listeners for the specified MediaPlayer object. The listeners
+    // are shared by all MediaPlayer objects, and ignore any callbacks from a MediaPlayer object
+    // that is not the current background song.
+    private void attachListeners(MediaPlayer mediaPlayer) {
+        mediaPlayer.setOnPreparedListener(preparedListener);
+        mediaPlayer.setOnBufferingUpdateListener(bufferingUpdateListener);
+        mediaPlayer.setOnSeekCompleteListener(seekCompleteListener);
+        mediaPlayer.setOnCompletionListener(completionListener);
+        mediaPlayer.setOnErrorListener(errorListener);
+        mediaPlayer.setOnInfoListener(infoListener);
+    }
+
+    /** EVENT METHODS __________________________________________________________________________ **/
+
+    // All events are published to the SSPlaybackEventBus, which delivers them to the subscribers on
+    // the main thread. Events without any subscribers are dropped by the bus.
+
+    // playbackStatus(): Publishes the current playback status of the streaming Spotify song.
+    private void playbackStatus(Boolean isPlay) {
+        eventBus.publishPlaybackStatus(isPlay);
+    }
+
+    // bufferingProgress(): Publishes the percentage of the Spotify song that has been buffered.
+    private void bufferingProgress(int percent) {
+        eventBus.publishBufferingProgress(percent);
+    }
+
+    // playbackAdvanced(): Publishes that playback has crossfaded into the next song in the
+    // tracklist.
+    private void playbackAdvanced() {
+        eventBus.publishPlaybackAdvanced();
+    }
+
+    // playbackCompleted(): Publishes that the Spotify song has reached the end of playback.
+    private void playbackCompleted() {
+        eventBus.publishPlaybackCompleted();
+    }
+
+    // bufferingStatus(): Publishes whether the Spotify song is currently stalled due to buffering.
+    private void bufferingStatus(Boolean isBuffering) {
+        eventBus.publishBufferingStatus(isBuffering);
+    }
+
+    // stopSongPrepare(): Publishes that the song preparation conditions should be stopped.
+    private void stopSongPrepare(Boolean isStop) {
+        eventBus.publishPrepareStopped(isStop);
+    }
+
+    // setDuration(): Publishes the max duration for the Spotify song.
+    private void setDuration(int duration) {
+        Log.d(LOG_TAG, "setDuration(): Duration of the current song: " + duration);
+        eventBus.publishDuration(duration);
     }
-}
\ No newline at end of file
+}
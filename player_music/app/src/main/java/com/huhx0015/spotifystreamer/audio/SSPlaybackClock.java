@@ -0,0 +1,150 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import android.os.SystemClock;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSPlaybackClock] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSPlaybackClock class is used to track the playback position of the current song.
+ *  Instead of polling the MediaPlayer object, the clock is anchored whenever the MediaPlayer object
+ *  reports a prepared, seek complete or completion event, and the current position is interpolated
+ *  from the elapsed time since the last anchor whenever it is requested. The time source can be
+ *  replaced with a virtual clock for deterministic testing off-device.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSPlaybackClock {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CLOCK VARIABLES
+    private long anchorPosition = 0; // The song position (in milliseconds) at the last anchor event.
+    private long anchorTime = 0; // The elapsed realtime (in milliseconds) at the last anchor event.
+    private int duration = 0; // The maximum duration (in milliseconds) of the current song.
+    private boolean isRunning = false; // Used to determine if the clock is currently advancing.
+
+    // LISTENER VARIABLES
+    private volatile OnClockStateListener clockListener; // Listener that is signalled when the clock starts or stops.
+
+    // TIME VARIABLES
+    private final TimeSource timeSource; // The source of the elapsed time (in milliseconds).
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SYSTEM_TIME: The time source that returns the device elapsed realtime.
+    public static final TimeSource SYSTEM_TIME = new TimeSource() {
+
+        @Override
+        public long now() {
+            return SystemClock.elapsedRealtime();
+        }
+    };
+
+    // SSPlaybackClock(): Constructor for SSPlaybackClock class, which uses the device elapsed
+    // realtime as it's time source.
+    public SSPlaybackClock() {
+        this(SYSTEM_TIME);
+    }
+
+    // SSPlaybackClock(): Constructor for SSPlaybackClock class, which uses the specified time source.
+    public SSPlaybackClock(TimeSource source) {
+        this.timeSource = source;
+    }
+
+    /** CLOCK METHODS __________________________________________________________________________ **/
+
+    // anchor(): Anchors the clock at the specified song position. If isRun is true, the position
+    // will advance in realtime from this point on.
+    public void anchor(int position, boolean isRun) {
+
+        boolean wasRunning;
+
+        synchronized (this) {
+            wasRunning = isRunning;
+            anchorPosition = position;
+            anchorTime = timeSource.now();
+            isRunning = isRun;
+        }
+
+        // Signals the listener only if the running state of the clock has changed. The listener is
+        // copied first, as it may be cleared from another thread.
+        OnClockStateListener listener = clockListener;
+        if ((wasRunning != isRun) && (listener != null)) {
+            listener.onClockStateChanged(isRun);
+        }
+    }
+
+    // getDuration(): Returns the maximum duration (in milliseconds) of the current song.
+    public synchronized int getDuration() {
+        return duration;
+    }
+
+    // getPosition(): Returns the interpolated song position (in milliseconds). The position is
+    // clamped to the song duration, if the duration is known.
+    public synchronized int getPosition() {
+
+        long position = anchorPosition;
+
+        // Advances the position by the time that has elapsed since the last anchor event.
+        if (isRunning) {
+            position += timeSource.now() - anchorTime;
+        }
+
+        if ((duration > 0) && (position > duration)) {
+            position = duration;
+        }
+
+        return (int) position;
+    }
+
+    // isRunning(): Determines if the clock is currently advancing.
+    public synchronized boolean isRunning() {
+        return isRunning;
+    }
+
+    // reset(): Stops the clock and resets the position and duration values.
+    public void reset() {
+        synchronized (this) {
+            duration = 0;
+        }
+        anchor(0, false);
+    }
+
+    // setDuration(): Sets the maximum duration (in milliseconds) of the current song.
+    public synchronized void setDuration(int duration) {
+        this.duration = duration;
+    }
+
+    // setOnClockStateListener(): Sets the listener that is signalled when the clock starts or stops.
+    public void setOnClockStateListener(OnClockStateListener listener) {
+        this.clockListener = listener;
+    }
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [OnClockStateListener] INTERFACE
+     * DESCRIPTION: This is an interface subclass that is used to signal when the playback clock
+     * starts or stops advancing.
+     * --------------------------------------------------------------------------------------------
+     */
+    public interface OnClockStateListener {
+
+        // onClockStateChanged(): The method that is called when the clock starts or stops.
+        void onClockStateChanged(boolean isRunning);
+    }
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [TimeSource] INTERFACE
+     * DESCRIPTION: This is an interface subclass that is used to supply the elapsed time to the
+     * playback clock.
+     * --------------------------------------------------------------------------------------------
+     */
+    public interface TimeSource {
+
+        // now(): Returns the current elapsed time (in milliseconds).
+        long now();
+    }
+}
@@ -0,0 +1,170 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSPlaybackController] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSPlaybackController class keeps the playback engine and the SSPlaybackQueue of
+ *  the SSMusicService in step. It plays, skips and prepares the tracks of the queue, follows the
+ *  playback engine from one track to the next, and queues the following track for a crossfade
+ *  based on the current playback settings. The playback
+ *  engine is supplied to the constructor, so that the control logic can be run against a fake
+ *  engine on the JVM. This class should only be accessed from the main thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSPlaybackController {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // AUDIO VARIABLES
+    private final SSPlaybackEngine playbackEngine; // Playback engine that plays the queued tracks.
+
+    // QUEUE VARIABLES
+    private final SSPlaybackQueue playbackQueue; // The queue of tracks to be played.
+
+    // SETTINGS VARIABLES
+    private boolean isAutoPlay = false; // Used to determine if the next track is played automatically.
+    private boolean isRepeat = false; // Used to determine if the current track is repeated.
+    private int crossfadeDuration = 0; // Duration (in milliseconds) of the crossfade into the next track.
+    private int prepareTimeout = 0; // Number of milliseconds until a song preparation times out.
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSPlaybackController(): Constructor for SSPlaybackController class.
+    public SSPlaybackController(SSPlaybackEngine engine, SSPlaybackQueue queue) {
+        this.playbackEngine = engine;
+        this.playbackQueue = queue;
+    }
+
+    // updateSettings(): Updates the playback settings. The shuffled play order of the playback
+    // queue is only generated when the shuffle setting has changed.
+    public void updateSettings(boolean autoPlay, boolean repeat, boolean shuffle, int crossfade, int timeout) {
+        this.isAutoPlay = autoPlay;
+        this.isRepeat = repeat;
+        this.crossfadeDuration = crossfade;
+        this.prepareTimeout = timeout;
+        playbackQueue.setShuffle(shuffle);
+    }
+
+    /** PLAYBACK FUNCTIONALITY _________________________________________________________________ **/
+
+    // playSong(): Plays the song at the specified song URL, with the prepare deadline of the
+    // current settings.
+    public void playSong(String songUrl, Boolean loop) {
+        playbackEngine.setPrepareTimeout(prepareTimeout);
+        playbackEngine.playSongUrl(songUrl, loop);
+    }
+
+    // pauseSong(): Stops or pauses the current song. The playback engine validates the command
+    // against it's current playback state, so a stop or pause that does not apply is ignored.
+    public void pauseSong(Boolean isStop) {
+
+        // STOP:
+        if (isStop) {
+            playbackEngine.stopSong();
+        }
+
+        // PAUSE:
+        else {
+            playbackEngine.pauseSong();
+        }
+    }
+
+    // playCurrentTrack(): Plays the current track in the playback queue and queues the following
+    // track for a crossfade. Returns the current track, or null if the queue is empty.
+    public SSSpotifyModel playCurrentTrack() {
+
+        SSSpotifyModel track = playbackQueue.getCurrent();
+
+        if (track != null) {
+            playSong(track.getSongURL(), false);
+            queueNextTrack();
+        }
+
+        return track;
+    }
+
+    // prepareCurrentTrack(): Prepares the current track in the playback queue without playing it,
+    // and holds it at the specified song position (in milliseconds). Returns the current track, or
+    // null if the queue is empty.
+    public SSSpotifyModel prepareCurrentTrack(int songPosition) {
+
+        SSSpotifyModel track = playbackQueue.getCurrent();
+
+        if (track != null) {
+            playbackEngine.setPrepareTimeout(prepareTimeout);
+            playbackEngine.prepareSongUrl(track.getSongURL(), songPosition);
+        }
+
+        return track;
+    }
+
+    // skipTrack(): Moves the playback queue to the next or previous track. If a song is currently
+    // playing or being prepared, the new track is played. Returns the new track, or null if the
+    // end of the queue has been reached.
+    public SSSpotifyModel skipTrack(Boolean isNext) {
+
+        SSSpotifyModel track = isNext ? playbackQueue.next() : playbackQueue.previous();
+
+        if (track == null) {
+            return null;
+        }
+
+        if (playbackEngine.isSongPlaying() || playbackEngine.isPreparing()) {
+            playbackEngine.stopSong(); // Stops the current song.
+            playbackEngine.setSongPosition(0); // Resets the song position for the new track.
+            playSong(track.getSongURL(), false);
+        }
+
+        queueNextTrack();
+        return track;
+    }
+
+    // advanceTrack(): Moves the playback queue to the next track once the playback engine has
+    // crossfaded into it, and queues the track after it. Returns the new track, or null if the end
+    // of the queue has been reached.
+    public SSSpotifyModel advanceTrack() {
+
+        SSSpotifyModel track = playbackQueue.next();
+        queueNextTrack();
+        return track;
+    }
+
+    // completeTrack(): Continues playback in the same way as the player interface once the current
+    // song has reached the end of playback without a crossfade. If repeat is enabled, the current
+    // track is played again, and if auto play is enabled, the next track is played. Returns the
+    // track that is played, or null if playback has ended.
+    public SSSpotifyModel completeTrack() {
+
+        // REPEAT:
+        if (isRepeat) {
+            return playCurrentTrack();
+        }
+
+        // AUTO PLAY:
+        else if (isAutoPlay && (playbackQueue.next() != null)) {
+            playbackEngine.setSongPosition(0); // Resets the song position for the new track.
+            return playCurrentTrack();
+        }
+
+        return null;
+    }
+
+    // queueNextTrack(): Queues the track following the current track in the playback queue for a
+    // crossfade. The queued track is cleared if auto play or crossfade has been disabled, if
+    // repeat is enabled, or if the end of the queue has been reached.
+    public void queueNextTrack() {
+
+        SSSpotifyModel nextTrack = playbackQueue.peekNext();
+
+        if ((nextTrack != null) && (crossfadeDuration > 0) && isAutoPlay && !isRepeat) {
+            playbackEngine.setNextSong(nextTrack.getSongURL(), crossfadeDuration);
+        }
+
+        else {
+            playbackEngine.setNextSong(null, 0);
+        }
+    }
+}
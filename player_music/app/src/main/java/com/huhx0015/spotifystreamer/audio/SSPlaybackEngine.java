@@ -0,0 +1,79 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import android.content.Context;
+
+/**
+ * -------------------------------------------------------------------------------------------------
+ * [SSPlaybackEngine] INTERFACE
+ * PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ * DESCRIPTION: This is an interface class that defines the playback operations used by the
+ * SSMusicService class. SSMusicEngine implements this interface on top of the MediaPlayer class,
+ * which allows the playback control logic to be run against other implementations, such as a
+ * deterministic fake for testing off-device.
+ * -------------------------------------------------------------------------------------------------
+ */
+
+public interface SSPlaybackEngine {
+
+    // getBufferedFraction(): Returns the fraction (0.0 - 1.0) of the current song that has been
+    // buffered.
+    float getBufferedFraction();
+
+    // getPlaybackState(): Returns the current playback state.
+    SSPlaybackState getPlaybackState();
+
+    // getRebufferCount(): Returns the number of times playback of the current song has stalled
+    // due to buffering.
+    int getRebufferCount();
+
+    // getSongDuration(): Returns the current song's maximum duration (in milliseconds).
+    int getSongDuration();
+
+    // getSongPosition(): Returns the current song position (in milliseconds).
+    int getSongPosition();
+
+    // initializeAudio(): Initializes the playback engine.
+    void initializeAudio(Context con);
+
+    // isPreparing(): Determines if a song is currently being prepared for playback.
+    Boolean isPreparing();
+
+    // isSongPlaying(): Determines if a song is currently playing.
+    Boolean isSongPlaying();
+
+    // pauseSong(): Pauses the song that is currently playing.
+    void pauseSong();
+
+    // playSongUrl(): Plays the song at the specified song URL.
+    void playSongUrl(String songUrl, Boolean loop);
+
+    // prepareSongUrl(): Prepares the song at the specified song URL without playing it, and holds
+    // it at the specified position (in milliseconds) until it is played.
+    void prepareSongUrl(String songUrl, int position);
+
+    // releaseMedia(): Releases the resources used by the playback engine.
+    void releaseMedia();
+
+    // setNextSong(): Sets the next song to crossfade into, once the current song is within the
+    // specified crossfade duration (in milliseconds) of it's end.
+    void setNextSong(String songUrl, int crossfade);
+
+    // setOnClockStateListener(): Sets the listener that is signalled when the playback clock
+    // starts or stops.
+    void setOnClockStateListener(SSPlaybackClock.OnClockStateListener listener);
+
+    // setPrepareTimeout(): Sets the number of milliseconds until a song preparation times out.
+    void setPrepareTimeout(int timeout);
+
+    // setSongPosition(): Sets the song position (in milliseconds) of the current song.
+    void setSongPosition(int position);
+
+    // stopSong(): Stops the song that is currently playing or being prepared.
+    void stopSong();
+
+    // updatePlayer(): Updates the attached player fragment on the playback status and duration.
+    void updatePlayer();
+
+    // warmUp(): Loads the media framework in advance, so that the first song is prepared sooner.
+    void warmUp();
+}
@@ -0,0 +1,389 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import com.huhx0015.spotifystreamer.interfaces.OnPlaybackEventListener;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSPlaybackEventBus] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSPlaybackEventBus class delivers the playback events published by SSMusicEngine,
+ *  SSMusicService and SSApplication to any number of subscribers on the main thread. Events can be
+ *  published from any thread, and are dispatched at most once per frame. The position, duration
+ *  and buffering progress updates are coalesced, so that only the latest value is delivered, while
+ *  all other events are delivered in the order that they were published. Subscribers only receive
+ *  the events in their event mask, and events that no subscriber is interested in are dropped
+ *  without scheduling a dispatch.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSPlaybackEventBus {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // EVENT VARIABLES
+    public static final int EVENT_BUFFERING_PROGRESS = 1; // Coalesced.
+    public static final int EVENT_BUFFERING_STATUS = 1 << 1;
+    public static final int EVENT_DURATION = 1 << 2; // Coalesced.
+    public static final int EVENT_PLAYBACK_ADVANCED = 1 << 3;
+    public static final int EVENT_PLAYBACK_COMPLETED = 1 << 4;
+    public static final int EVENT_PLAYBACK_STATUS = 1 << 5;
+    public static final int EVENT_POSITION = 1 << 6; // Coalesced.
+    public static final int EVENT_PREPARE_STOPPED = 1 << 7;
+    public static final int EVENT_ALL = 0xFF;
+
+    // LOGGING VARIABLES
+    private static final String LOG_TAG = SSPlaybackEventBus.class.getSimpleName(); // Used for logging output to logcat.
+
+    // PENDING VARIABLES
+    private static final int QUEUE_CAPACITY = 64; // Maximum number of ordered events pending dispatch.
+    private final Object eventLock = new Object(); // Guards the pending events.
+    private final int[] pendingEvents = new int[QUEUE_CAPACITY]; // Ring buffer of the ordered events.
+    private final int[] pendingValues = new int[QUEUE_CAPACITY]; // Values of the ordered events.
+    private int pendingStart = 0; // Index of the oldest ordered event.
+    private int pendingCount = 0; // Number of ordered events pending dispatch.
+    private int pendingMask = 0; // Coalesced events pending dispatch.
+    private int pendingBufferingProgress; // Latest buffering progress (in percent).
+    private int pendingDuration; // Latest song duration (in milliseconds).
+    private int pendingPosition; // Latest song position (in milliseconds).
+
+    // DISPATCH VARIABLES
+    private final int[] dispatchEvents = new int[QUEUE_CAPACITY]; // Ordered events being dispatched.
+    private final int[] dispatchValues = new int[QUEUE_CAPACITY]; // Values of the ordered events being dispatched.
+
+    // SUBSCRIBER VARIABLES
+    private volatile Subscriber[] subscribers = new Subscriber[0]; // The subscribers, replaced on each change.
+    private volatile int subscribedMask = 0; // Union of all subscriber event masks.
+
+    // THREAD VARIABLES
+    private final Handler mainHandler = new Handler(Looper.getMainLooper()); // Handler for the dispatch thread.
+    private boolean isDispatchScheduled = false; // Used to determine if a dispatch is pending.
+    private long lastDispatchTime = 0; // The uptime (in milliseconds) of the last dispatch.
+    private static final int FRAME_INTERVAL = 16; // Minimum number of milliseconds between dispatches (~60 fps).
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSPlaybackEventBus(): Constructor for SSPlaybackEventBus class.
+    private final static SSPlaybackEventBus ss_bus = new SSPlaybackEventBus();
+
+    // SSPlaybackEventBus(): Deconstructor method for SSPlaybackEventBus class.
+    private SSPlaybackEventBus() {}
+
+    // getInstance(): Returns the ss_bus instance.
+    public static SSPlaybackEventBus getInstance() { return ss_bus; }
+
+    /** SUBSCRIPTION FUNCTIONALITY _____________________________________________________________ **/
+
+    // subscribe(): Subscribes the specified listener to the events in the specified event mask. If
+    // the listener is already subscribed, it's event mask is replaced. This must be called from the
+    // main thread.
+    public void subscribe(OnPlaybackEventListener listener, int eventMask) {
+
+        unsubscribe(listener);
+
+        Subscriber[] current = subscribers;
+        Subscriber[] updated = new Subscriber[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = new Subscriber(listener, eventMask);
+
+        subscribers = updated;
+        subscribedMask |= eventMask;
+    }
+
+    // unsubscribe(): Unsubscribes the specified listener from all events. This must be called from
+    // the main thread.
+    public void unsubscribe(OnPlaybackEventListener listener) {
+
+        Subscriber[] current = subscribers;
+
+        for (int i = 0; i < current.length; i++) {
+
+            if (current[i].listener == listener) {
+
+                Subscriber[] updated = new Subscriber[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+
+                int mask = 0;
+                for (Subscriber subscriber : updated) {
+                    mask |= subscriber.eventMask;
+                }
+
+                subscribers = updated;
+                subscribedMask = mask;
+                return;
+            }
+        }
+    }
+
+    /** PUBLISH FUNCTIONALITY __________________________________________________________________ **/
+
+    // publishBufferingProgress(): Publishes the percentage of the song that has been buffered.
+    public void publishBufferingProgress(int percent) {
+        publishCoalesced(EVENT_BUFFERING_PROGRESS, percent);
+    }
+
+    // publishBufferingStatus(): Publishes whether the song has stalled due to buffering.
+    public void publishBufferingStatus(boolean isBuffering) {
+        publishOrdered(EVENT_BUFFERING_STATUS, isBuffering ? 1 : 0);
+    }
+
+    // publishDuration(): Publishes the max duration (in milliseconds) of the song.
+    public void publishDuration(int duration) {
+        publishCoalesced(EVENT_DURATION, duration);
+    }
+
+    // publishPlaybackAdvanced(): Publishes that playback has crossfaded into the next song.
+    public void publishPlaybackAdvanced() {
+        publishOrdered(EVENT_PLAYBACK_ADVANCED, 0);
+    }
+
+    // publishPlaybackCompleted(): Publishes that the song has reached the end of playback.
+    public void publishPlaybackCompleted() {
+        publishOrdered(EVENT_PLAYBACK_COMPLETED, 0);
+    }
+
+    // publishPlaybackStatus(): Publishes whether the song is currently playing.
+    public void publishPlaybackStatus(boolean isPlay) {
+        publishOrdered(EVENT_PLAYBACK_STATUS, isPlay ? 1 : 0);
+    }
+
+    // publishPosition(): Publishes the current position (in milliseconds) of the song.
+    public void publishPosition(int position) {
+        publishCoalesced(EVENT_POSITION, position);
+    }
+
+    // publishPrepareStopped(): Publishes that the song preparation has stopped.
+    public void publishPrepareStopped(boolean isStop) {
+        publishOrdered(EVENT_PREPARE_STOPPED, isStop ? 1 : 0);
+    }
+
+    // publishCoalesced(): Stores the latest value of the specified coalesced event, replacing any
+    // value that has yet to be dispatched.
+    private void publishCoalesced(int event, int value) {
+
+        // Events without any subscribers are dropped.
+        if ((subscribedMask & event) == 0) {
+            return;
+        }
+
+        synchronized (eventLock) {
+
+            switch (event) {
+
+                case EVENT_BUFFERING_PROGRESS:
+                    pendingBufferingProgress = value;
+                    break;
+
+                case EVENT_DURATION:
+                    pendingDuration = value;
+                    break;
+
+                default:
+                    pendingPosition = value;
+                    break;
+            }
+
+            pendingMask |= event;
+            scheduleDispatch();
+        }
+    }
+
+    // publishOrdered(): Adds the specified event to the ordered events pending dispatch.
+    private void publishOrdered(int event, int value) {
+
+        // Events without any subscribers are dropped.
+        if ((subscribedMask & event) == 0) {
+            return;
+        }
+
+        synchronized (eventLock) {
+
+            if (pendingCount == QUEUE_CAPACITY) {
+                Log.e(LOG_TAG, "publishOrdered(): Event queue is full, the event has been dropped.");
+                return;
+            }
+
+            int index = (pendingStart + pendingCount) % QUEUE_CAPACITY;
+            pendingEvents[index] = event;
+            pendingValues[index] = value;
+            pendingCount++;
+
+            scheduleDispatch();
+        }
+    }
+
+    /** DISPATCH FUNCTIONALITY _________________________________________________________________ **/
+
+    // scheduleDispatch(): Schedules a dispatch on the main thread, no sooner than one frame after
+    // the last dispatch. Must be called while holding the event lock.
+    private void scheduleDispatch() {
+
+        if (!isDispatchScheduled) {
+            isDispatchScheduled = true;
+            mainHandler.postAtTime(dispatchThread, Math.max(SystemClock.uptimeMillis(), lastDispatchTime + FRAME_INTERVAL));
+        }
+    }
+
+    // dispatchThread(): A threaded function which delivers the pending events to the subscribers.
+    // The ordered events are delivered first, followed by the latest duration, buffering progress
+    // and position values.
+    private Runnable dispatchThread = new Runnable() {
+
+        public void run() {
+
+            int eventCount;
+            int coalescedMask;
+            int bufferingProgress;
+            int duration;
+            int position;
+
+            // Copies the pending events, so that the subscribers are invoked without the lock held.
+            synchronized (eventLock) {
+
+                for (int i = 0; i < pendingCount; i++) {
+                    int index = (pendingStart + i) % QUEUE_CAPACITY;
+                    dispatchEvents[i] = pendingEvents[index];
+                    dispatchValues[i] = pendingValues[index];
+                }
+
+                eventCount = pendingCount;
+                coalescedMask = pendingMask;
+                bufferingProgress = pendingBufferingProgress;
+                duration = pendingDuration;
+                position = pendingPosition;
+
+                pendingStart = 0;
+                pendingCount = 0;
+                pendingMask = 0;
+                isDispatchScheduled = false;
+                lastDispatchTime = SystemClock.uptimeMillis();
+            }
+
+            for (int i = 0; i < eventCount; i++) {
+                dispatch(dispatchEvents[i], dispatchValues[i]);
+            }
+
+            if ((coalescedMask & EVENT_DURATION) != 0) {
+                dispatch(EVENT_DURATION, duration);
+            }
+
+            if ((coalescedMask & EVENT_BUFFERING_PROGRESS) != 0) {
+                dispatch(EVENT_BUFFERING_PROGRESS, bufferingProgress);
+            }
+
+            if ((coalescedMask & EVENT_POSITION) != 0) {
+                dispatch(EVENT_POSITION, position);
+            }
+        }
+    };
+
+    // dispatch(): Delivers the specified event to each subscriber of the event.
+    private void dispatch(int event, int value) {
+
+        Subscriber[] current = subscribers;
+
+        for (Subscriber subscriber : current) {
+
+            if ((subscriber.eventMask & event) == 0) {
+                continue;
+            }
+
+            OnPlaybackEventListener listener = subscriber.listener;
+
+            switch (event) {
+
+                case EVENT_BUFFERING_PROGRESS:
+                    listener.bufferingProgress(value);
+                    break;
+
+                case EVENT_BUFFERING_STATUS:
+                    listener.bufferingStatus(value != 0);
+                    break;
+
+                case EVENT_DURATION:
+                    listener.setDuration(value);
+                    break;
+
+                case EVENT_PLAYBACK_ADVANCED:
+                    listener.playbackAdvanced();
+                    break;
+
+                case EVENT_PLAYBACK_COMPLETED:
+                    listener.playbackCompleted();
+                    break;
+
+                case EVENT_PLAYBACK_STATUS:
+                    listener.playbackStatus(value != 0);
+                    break;
+
+                case EVENT_POSITION:
+                    listener.seekbarStatus(value);
+                    break;
+
+                case EVENT_PREPARE_STOPPED:
+                    listener.stopSongPrepare(value != 0);
+                    break;
+
+                default:
+                    break;
+            }
+        }
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [Subscriber] CLASS
+     * DESCRIPTION: This is a subclass that holds a subscribed listener and it's event mask.
+     * --------------------------------------------------------------------------------------------
+     */
+    private static class Subscriber {
+
+        private final OnPlaybackEventListener listener; // The subscribed listener.
+        private final int eventMask; // The events that the listener is subscribed to.
+
+        // Subscriber(): Constructor for the Subscriber class.
+        private Subscriber(OnPlaybackEventListener listener, int eventMask) {
+            this.listener = listener;
+            this.eventMask = eventMask;
+        }
+    }
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [OnPlaybackEventAdapter] CLASS
+     * DESCRIPTION: This is an OnPlaybackEventListener subclass with empty methods, for subscribers
+     * that are only interested in a few events.
+     * --------------------------------------------------------------------------------------------
+     */
+    public static class OnPlaybackEventAdapter implements OnPlaybackEventListener {
+
+        @Override
+        public void bufferingProgress(int percent) {}
+
+        @Override
+        public void bufferingStatus(Boolean isBuffering) {}
+
+        @Override
+        public void playbackAdvanced() {}
+
+        @Override
+        public void playbackCompleted() {}
+
+        @Override
+        public void playbackStatus(Boolean isPlay) {}
+
+        @Override
+        public void seekbarStatus(int position) {}
+
+        @Override
+        public void setDuration(int duration) {}
+
+        @Override
+        public void stopSongPrepare(Boolean isStop) {}
+    }
+}
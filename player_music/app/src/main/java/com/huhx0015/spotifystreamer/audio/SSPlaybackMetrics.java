@@ -0,0 +1,362 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import java.util.Arrays;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSPlaybackMetrics] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSPlaybackMetrics class records the playback quality of each song that is played,
+ *  from the moment the play button is tapped in SSPlayerFragment to the moment audio begins in
+ *  SSMusicEngine, as well as any rebuffering, stall time-outs and prepare failures. The
+ *  records are kept in a fixed-size ring buffer of preallocated objects and can be exported as
+ *  JSON for comparing startup performance across releases.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSPlaybackMetrics {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // RECORD VARIABLES
+    public static final int CAPACITY = 64; // Number of playback records kept in the ring buffer.
+    private final PlayRecord[] records = new PlayRecord[CAPACITY]; // The ring buffer of playback records.
+    private PlayRecord currentRecord; // The record of the song currently being played.
+    private int recordCount = 0; // Total number of records that have been committed.
+    private int writeIndex = 0; // Index of the next record to be written in the ring buffer.
+
+    // TAP VARIABLES
+    private static final long MAX_TAP_AGE = 2000; // Taps older than this (in milliseconds) are not taken as the start of a play.
+    private long pendingTapTime = 0; // The time (in milliseconds) at which play was last tapped.
+
+    // TIME VARIABLES
+    private final SSPlaybackClock.TimeSource timeSource; // The source of the elapsed time (in milliseconds).
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSPlaybackMetrics(): Constructor for SSPlaybackMetrics class.
+    private final static SSPlaybackMetrics ss_metrics = new SSPlaybackMetrics(SSPlaybackClock.SYSTEM_TIME);
+
+    // SSPlaybackMetrics(): Constructor for SSPlaybackMetrics class, which uses the specified time
+    // source.
+    public SSPlaybackMetrics(SSPlaybackClock.TimeSource source) {
+
+        this.timeSource = source;
+
+        // Preallocates the records, so that no objects are allocated while recording.
+        for (int i = 0; i < CAPACITY; i++) {
+            records[i] = new PlayRecord();
+        }
+    }
+
+    // getInstance(): Returns the ss_metrics instance.
+    public static SSPlaybackMetrics getInstance() { return ss_metrics; }
+
+    /** RECORDING FUNCTIONALITY ________________________________________________________________ **/
+
+    // markTap(): Records the time at which the user requested playback of a song.
+    public synchronized void markTap() {
+        pendingTapTime = timeSource.now();
+    }
+
+    // clearTap(): Discards the pending tap, once the tapped play command has been handled without
+    // preparing a song, such as when a paused song is resumed.
+    public synchronized void clearTap() {
+        pendingTapTime = 0;
+    }
+
+    // beginPlay(): Begins a new playback record for the specified song URL. Any record that is
+    // still open is committed first.
+    public synchronized void beginPlay(String songUrl, boolean isCrossfade) {
+
+        endPlay(); // Commits the previous record.
+
+        long now = timeSource.now();
+
+        currentRecord = records[writeIndex];
+        currentRecord.reset();
+        currentRecord.songUrl = songUrl;
+        currentRecord.isCrossfade = isCrossfade;
+        currentRecord.prepareStartTime = now;
+
+        // Measures from the tap if play was just tapped, otherwise from the start of preparation. A
+        // crossfade or a tap that was left over from an earlier command is not measured from the tap.
+        boolean isTapped = !isCrossfade && (pendingTapTime > 0) && (now - pendingTapTime <= MAX_TAP_AGE);
+        currentRecord.tapTime = isTapped ? pendingTapTime : now;
+        pendingTapTime = 0;
+    }
+
+    // markPrepared(): Records the time at which the song was prepared.
+    public synchronized void markPrepared() {
+
+        if ((currentRecord != null) && (currentRecord.preparedTime == 0)) {
+            currentRecord.preparedTime = timeSource.now();
+        }
+    }
+
+    // markFirstAudio(): Records the time at which playback of the song began.
+    public synchronized void markFirstAudio() {
+
+        if ((currentRecord != null) && (currentRecord.firstAudioTime == 0)) {
+            currentRecord.firstAudioTime = timeSource.now();
+        }
+    }
+
+    // markRebufferStart(): Records the start of a rebuffering stall during playback.
+    public synchronized void markRebufferStart() {
+
+        if ((currentRecord != null) && (currentRecord.rebufferStartTime == 0)) {
+            currentRecord.rebufferCount++;
+            currentRecord.rebufferStartTime = timeSource.now();
+        }
+    }
+
+    // markRebufferEnd(): Records the end of a rebuffering stall during playback.
+    public synchronized void markRebufferEnd() {
+
+        if ((currentRecord != null) && (currentRecord.rebufferStartTime > 0)) {
+            currentRecord.rebufferDuration += timeSource.now() - currentRecord.rebufferStartTime;
+            currentRecord.rebufferStartTime = 0;
+        }
+    }
+
+    // markPrepareFailure(): Records a failed preparation of the song, which was either a time-out
+    // or an error reported by the MediaPlayer object.
+    public synchronized void markPrepareFailure(boolean isTimeout) {
+
+        if (currentRecord != null) {
+
+            if (isTimeout) {
+                currentRecord.timeoutCount++;
+            }
+
+            else {
+                currentRecord.errorCount++;
+            }
+        }
+    }
+
+    // markRebufferTimeout(): Records a rebuffering stall during playback that did not recover
+    // before the stall deadline.
+    public synchronized void markRebufferTimeout() {
+
+        if (currentRecord != null) {
+            currentRecord.rebufferTimeoutCount++;
+        }
+    }
+
+    // markFailed(): Records that the song could not be played, and commits the record.
+    public synchronized void markFailed() {
+
+        if (currentRecord != null) {
+            currentRecord.isFailed = true;
+            endPlay();
+        }
+    }
+
+    // endPlay(): Commits the current record to the ring buffer.
+    public synchronized void endPlay() {
+
+        if (currentRecord == null) {
+            return;
+        }
+
+        markRebufferEnd(); // Closes any open rebuffering stall.
+
+        currentRecord = null;
+        writeIndex = (writeIndex + 1) % CAPACITY;
+        recordCount++;
+    }
+
+    /** EXPORT FUNCTIONALITY ___________________________________________________________________ **/
+
+    // toJson(): Exports the committed records and their aggregates as a JSON string. The version
+    // name is included so that the exports can be compared across releases.
+    public synchronized String toJson(String versionName) {
+
+        // The slot after the last committed record may be in use by the current record, so at
+        // most CAPACITY - 1 records are exported.
+        int size = Math.min(recordCount, CAPACITY - 1);
+        int start = (writeIndex - size + CAPACITY) % CAPACITY;
+
+        long[] firstAudioTimes = new long[size];
+        int firstAudioCount = 0;
+        int rebuffers = 0;
+        long rebufferDuration = 0;
+        int rebufferTimeouts = 0;
+        int errors = 0;
+        int timeouts = 0;
+        int failures = 0;
+
+        StringBuilder plays = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+
+            PlayRecord record = records[(start + i) % CAPACITY];
+
+            if (i > 0) {
+                plays.append(',');
+            }
+
+            record.appendJson(plays);
+
+            // Time-to-first-audio is only aggregated for songs that were started by a tap or an
+            // auto play, as crossfaded songs are already playing when they are swapped in.
+            if (!record.isCrossfade && (record.firstAudioTime > 0)) {
+                firstAudioTimes[firstAudioCount++] = record.firstAudioTime - record.tapTime;
+            }
+
+            rebuffers += record.rebufferCount;
+            rebufferDuration += record.rebufferDuration;
+            rebufferTimeouts += record.rebufferTimeoutCount;
+            errors += record.errorCount;
+            timeouts += record.timeoutCount;
+            failures += record.isFailed ? 1 : 0;
+        }
+
+        Arrays.sort(firstAudioTimes, 0, firstAudioCount);
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"version\":");
+        appendString(json, versionName);
+        json.append(",\"total_plays\":").append(recordCount);
+        json.append(",\"summary\":{");
+        json.append("\"plays\":").append(size);
+        json.append(",\"ttfa_p50_ms\":").append(percentile(firstAudioTimes, firstAudioCount, 50));
+        json.append(",\"ttfa_p90_ms\":").append(percentile(firstAudioTimes, firstAudioCount, 90));
+        json.append(",\"rebuffers\":").append(rebuffers);
+        json.append(",\"rebuffer_ms\":").append(rebufferDuration);
+        json.append(",\"rebuffer_timeouts\":").append(rebufferTimeouts);
+        json.append(",\"prepare_errors\":").append(errors);
+        json.append(",\"prepare_timeouts\":").append(timeouts);
+        json.append(",\"failures\":").append(failures);
+        json.append("},\"plays\":[").append(plays).append("]}");
+
+        return json.toString();
+    }
+
+    // percentile(): Returns the specified percentile of the first count values of the sorted
+    // array, or -1 if there are no values.
+    private static long percentile(long[] sorted, int count, int percent) {
+
+        if (count == 0) {
+            return -1;
+        }
+
+        int index = (int) Math.ceil(percent / 100.0 * count) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    // appendString(): Appends the specified string as a quoted and escaped JSON string, or null if
+    // the string is null.
+    private static void appendString(StringBuilder json, String value) {
+
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+
+        json.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+
+            char c = value.charAt(i);
+
+            switch (c) {
+
+                case '"':
+                    json.append("\\\"");
+                    break;
+
+                case '\\':
+                    json.append("\\\\");
+                    break;
+
+                case '\n':
+                    json.append("\\n");
+                    break;
+
+                case '\r':
+                    json.append("\\r");
+                    break;
+
+                case '\t':
+                    json.append("\\t");
+                    break;
+
+                default:
+
+                    // Escapes the remaining control characters as unicode escapes.
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    }
+
+                    else {
+                        json.append(c);
+                    }
+            }
+        }
+
+        json.append('"');
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [PlayRecord] CLASS
+     * DESCRIPTION: This is a subclass that holds the playback measurements of a single song. The
+     * objects are reused by the ring buffer.
+     * --------------------------------------------------------------------------------------------
+     */
+    private static class PlayRecord {
+
+        private String songUrl; // The URL of the song that was played.
+        private boolean isCrossfade; // Used to determine if the song was crossfaded in.
+        private boolean isFailed; // Used to determine if the song could not be played.
+        private long tapTime; // The time at which playback was requested.
+        private long prepareStartTime; // The time at which preparation began.
+        private long preparedTime; // The time at which the song was prepared.
+        private long firstAudioTime; // The time at which playback began.
+        private long rebufferStartTime; // The time at which the current stall began.
+        private long rebufferDuration; // Total time (in milliseconds) spent rebuffering.
+        private int rebufferCount; // Number of rebuffering stalls.
+        private int rebufferTimeoutCount; // Number of rebuffering stalls that timed out.
+        private int errorCount; // Number of prepare errors.
+        private int timeoutCount; // Number of prepare time-outs.
+
+        // reset(): Resets the record values, so that the record can be reused.
+        private void reset() {
+            songUrl = null;
+            isCrossfade = false;
+            isFailed = false;
+            tapTime = 0;
+            prepareStartTime = 0;
+            preparedTime = 0;
+            firstAudioTime = 0;
+            rebufferStartTime = 0;
+            rebufferDuration = 0;
+            rebufferCount = 0;
+            rebufferTimeoutCount = 0;
+            errorCount = 0;
+            timeoutCount = 0;
+        }
+
+        // appendJson(): Appends the record as a JSON object to the specified StringBuilder.
+        private void appendJson(StringBuilder json) {
+            json.append("{\"url\":");
+            appendString(json, songUrl);
+            json.append(",\"crossfade\":").append(isCrossfade);
+            json.append(",\"tap_to_prepare_start_ms\":").append(prepareStartTime - tapTime);
+            json.append(",\"tap_to_prepared_ms\":").append(preparedTime > 0 ? preparedTime - tapTime : -1);
+            json.append(",\"prepared_to_first_audio_ms\":").append(
+                    (firstAudioTime > 0) && (preparedTime > 0) ? firstAudioTime - preparedTime : -1);
+            json.append(",\"rebuffers\":").append(rebufferCount);
+            json.append(",\"rebuffer_ms\":").append(rebufferDuration);
+            json.append(",\"rebuffer_timeouts\":").append(rebufferTimeoutCount);
+            json.append(",\"prepare_errors\":").append(errorCount);
+            json.append(",\"prepare_timeouts\":").append(timeoutCount);
+            json.append(",\"failed\":").append(isFailed);
+            json.append('}');
+        }
+    }
+}
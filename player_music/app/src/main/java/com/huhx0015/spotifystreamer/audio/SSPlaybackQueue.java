@@ -0,0 +1,513 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSPlaybackQueue] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSPlaybackQueue class holds the queue of tracks played by the SSMusicService, so
+ *  that the queue can be navigated without the player interface being attached. The tracks are
+ *  kept in a doubly linked list in play order, which allows next, previous, insert and remove to be
+ *  performed in O(1). Each entry is also indexed by it's position in the original track list, so
+ *  that the player interface can jump to a track list position in O(1). In shuffle mode, the play
+ *  order is a precomputed permutation of the entries, so the next track is always known ahead of
+ *  time and can be prefetched, and previous returns through a bounded history of played tracks.
+ *  Tracks added to a live queue are given the next unused track list position, after the
+ *  positions of the track list that the queue was created from. This class is not thread safe and should only be accessed from the main thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSPlaybackQueue {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // QUEUE VARIABLES
+    private final ArrayList<Entry> listEntries = new ArrayList<>(); // Entries indexed by track list position.
+    private Entry currentEntry; // The entry of the current track.
+    private Entry headEntry; // The first entry in play order.
+    private Entry tailEntry; // The last entry in play order.
+    private int queueSize = 0; // Number of entries in the queue.
+
+    // HISTORY VARIABLES
+    public static final int HISTORY_SIZE = 50; // Maximum number of played tracks kept in the history.
+    private final Entry[] historyEntries = new Entry[HISTORY_SIZE]; // Ring buffer of played entries.
+    private int historyCount = 0; // Number of entries in the history.
+    private int historyIndex = 0; // Index of the next history entry to be written.
+
+    // SHUFFLE VARIABLES
+    private boolean isShuffled = false; // Used to determine if the queue is in shuffle mode.
+    private final ArrayList<Entry> shuffleEntries = new ArrayList<>(); // The shuffled play order.
+    private int shuffleIndex = -1; // Index of the current entry in the shuffled play order.
+    private final Random random; // Used for generating the shuffled play order.
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSPlaybackQueue(): Constructor for SSPlaybackQueue class.
+    public SSPlaybackQueue() {
+        this(new Random());
+    }
+
+    // SSPlaybackQueue(): Constructor for SSPlaybackQueue class, which uses the specified random
+    // number generator for generating the shuffled play order.
+    public SSPlaybackQueue(Random random) {
+        this.random = random;
+    }
+
+    /** QUEUE FUNCTIONALITY ____________________________________________________________________ **/
+
+    // setTracks(): Replaces the queue with the specified track list, and sets the current track to
+    // the specified track list position.
+    public void setTracks(List<SSSpotifyModel> tracks, int position) {
+
+        clear();
+
+        for (SSSpotifyModel track : tracks) {
+            append(track);
+        }
+
+        moveTo(position);
+    }
+
+    // clear(): Removes all tracks from the queue.
+    public void clear() {
+        listEntries.clear();
+        shuffleEntries.clear();
+        currentEntry = null;
+        headEntry = null;
+        tailEntry = null;
+        queueSize = 0;
+        shuffleIndex = -1;
+        clearHistory();
+    }
+
+    // append(): Adds the specified track to the end of the queue, and returns it's entry. In
+    // shuffle mode, the track is placed at a random position among the tracks yet to be played,
+    // and the tracks that have already been played are left in place.
+    public Entry append(SSSpotifyModel track) {
+
+        Entry entry = createEntry(track);
+        link(entry, tailEntry);
+
+        if (isShuffled) {
+            int upcoming = shuffleEntries.size() - shuffleIndex; // Includes the new entry.
+            addShuffleEntry(entry, shuffleIndex + 1 + random.nextInt(upcoming));
+        }
+
+        return entry;
+    }
+
+    // insertNext(): Inserts the specified track directly after the current track, so that it is
+    // played next, and returns it's entry. In shuffle mode, the track that was to be played next is
+    // moved to the end of the shuffled play order, so that the insert remains O(1).
+    public Entry insertNext(SSSpotifyModel track) {
+
+        Entry entry = createEntry(track);
+        link(entry, currentEntry != null ? currentEntry : tailEntry);
+
+        if (isShuffled) {
+            addShuffleEntry(entry, shuffleIndex + 1);
+        }
+
+        return entry;
+    }
+
+    // remove(): Removes the specified entry from the queue. If the current track is removed, the
+    // following track becomes the current track, or the previous track if there is no following
+    // track. The removed entry is left in the shuffled play order and the history, where it is
+    // skipped once reached.
+    public void remove(Entry entry) {
+
+        if ((entry == null) || entry.isRemoved) {
+            return;
+        }
+
+        entry.isRemoved = true;
+
+        if ((entry == currentEntry) && isShuffled) {
+            Entry nextEntry = nextShuffleEntry();
+            currentEntry = (nextEntry != null) ? nextEntry : previousShuffleEntry();
+            shuffleIndex = (currentEntry != null) ? currentEntry.shuffleIndex : -1;
+        }
+
+        else if (entry == currentEntry) {
+            currentEntry = (entry.nextEntry != null) ? entry.nextEntry : entry.previousEntry;
+        }
+
+        unlink(entry);
+        listEntries.set(entry.position, null);
+    }
+
+    // moveTo(): Sets the current track to the track at the specified track list position. Returns
+    // false if there is no track at the position.
+    public boolean moveTo(int position) {
+
+        if ((position < 0) || (position >= listEntries.size()) || (listEntries.get(position) == null)) {
+            return false;
+        }
+
+        Entry entry = listEntries.get(position);
+
+        if (entry == currentEntry) {
+            return true;
+        }
+
+        pushHistory(currentEntry);
+
+        // SHUFFLE: The entry is moved to the current index of the shuffled play order. If it had
+        // yet to be played, it is swapped in from the upcoming tracks, so that it is not played
+        // again later.
+        if (isShuffled) {
+
+            if (entry.shuffleIndex > shuffleIndex) {
+                swapShuffleEntries(entry.shuffleIndex, ++shuffleIndex);
+            }
+
+            else {
+                swapShuffleEntries(entry.shuffleIndex, shuffleIndex);
+            }
+        }
+
+        currentEntry = entry;
+        return true;
+    }
+
+    // next(): Moves to the next track in the queue and returns it, or returns null if the end of
+    // the queue has been reached.
+    public SSSpotifyModel next() {
+
+        Entry entry = peekNextEntry();
+
+        if (entry == null) {
+            return null;
+        }
+
+        pushHistory(currentEntry);
+
+        if (isShuffled) {
+            shuffleIndex = entry.shuffleIndex;
+        }
+
+        currentEntry = entry;
+        return currentEntry.track;
+    }
+
+    // previous(): Moves to the previous track in the queue and returns it, or returns null if the
+    // beginning of the queue has been reached.
+    // In shuffle mode, the most recently played track in the history is returned instead, and
+    // the current track is placed after it, so that next returns to the current track.
+    public SSSpotifyModel previous() {
+
+        if (isShuffled) {
+
+            Entry entry = popHistory();
+
+            if (entry == null) {
+                return null;
+            }
+
+            // PLAYED: The entry is moved to the index before the current entry.
+            if (entry.shuffleIndex < shuffleIndex) {
+                swapShuffleEntries(entry.shuffleIndex, --shuffleIndex);
+            }
+
+            // NO CURRENT: The entry is moved to the next index.
+            else if (shuffleIndex < 0) {
+                swapShuffleEntries(entry.shuffleIndex, ++shuffleIndex);
+            }
+
+            // UPCOMING: The entry is moved to the current index, and the current entry after it.
+            else {
+                int previousIndex = entry.shuffleIndex;
+                swapShuffleEntries(previousIndex, shuffleIndex);
+                swapShuffleEntries(previousIndex, shuffleIndex + 1);
+            }
+
+            currentEntry = entry;
+            return currentEntry.track;
+        }
+
+        if ((currentEntry == null) || (currentEntry.previousEntry == null)) {
+            return null;
+        }
+
+        currentEntry = currentEntry.previousEntry;
+        return currentEntry.track;
+    }
+
+    // peekNext(): Returns the next track in the queue without moving to it, or null if the end of
+    // the queue has been reached. This is the track that is prefetched for a crossfade.
+    public SSSpotifyModel peekNext() {
+        Entry entry = peekNextEntry();
+        return (entry == null) ? null : entry.track;
+    }
+
+    // getNextPosition(): Returns the track list position of the next track in the queue, or -1 if
+    // the end of the queue has been reached.
+    public int getNextPosition() {
+        Entry entry = peekNextEntry();
+        return (entry == null) ? -1 : entry.position;
+    }
+
+    // peekNextEntry(): Returns the next entry in play order, or null if the end of the queue has
+    // been reached.
+    private Entry peekNextEntry() {
+
+        if (isShuffled) {
+            return nextShuffleEntry();
+        }
+
+        return (currentEntry == null) ? null : currentEntry.nextEntry;
+    }
+
+    // getCurrent(): Returns the current track, or null if the queue is empty.
+    public SSSpotifyModel getCurrent() {
+        return (currentEntry == null) ? null : currentEntry.track;
+    }
+
+    // getCurrentPosition(): Returns the track list position of the current track, or -1 if the
+    // queue is empty.
+    public int getCurrentPosition() {
+        return (currentEntry == null) ? -1 : currentEntry.position;
+    }
+
+    // size(): Returns the number of tracks in the queue.
+    public int size() {
+        return queueSize;
+    }
+
+    /** SHUFFLE FUNCTIONALITY __________________________________________________________________ **/
+
+    // setShuffle(): Enables or disables shuffle mode. When enabled, a new shuffled play order is
+    // generated, starting with the current track. When disabled, playback continues in track list
+    // order from the current track. The history is kept in both cases.
+    public void setShuffle(boolean shuffle) {
+
+        if (shuffle == isShuffled) {
+            return;
+        }
+
+        isShuffled = shuffle;
+        shuffleEntries.clear();
+        shuffleIndex = -1;
+
+        if (shuffle) {
+
+            // Adds the current entry first, followed by the remaining entries.
+            if (currentEntry != null) {
+                addShuffleEntry(currentEntry, 0);
+                shuffleIndex = 0;
+            }
+
+            for (Entry entry : listEntries) {
+                if ((entry != null) && (entry != currentEntry)) {
+                    int upcoming = shuffleEntries.size() - shuffleIndex;
+                    addShuffleEntry(entry, shuffleIndex + 1 + random.nextInt(upcoming));
+                }
+            }
+        }
+    }
+
+    // isShuffled(): Determines if the queue is in shuffle mode.
+    public boolean isShuffled() {
+        return isShuffled;
+    }
+
+    // addShuffleEntry(): Adds the specified entry to the end of the shuffled play order and swaps
+    // it into the specified index. Adding each entry at a uniformly random index of the upcoming
+    // entries produces a uniformly random permutation.
+    private void addShuffleEntry(Entry entry, int index) {
+        entry.shuffleIndex = shuffleEntries.size();
+        shuffleEntries.add(entry);
+        swapShuffleEntries(entry.shuffleIndex, index);
+    }
+
+    // swapShuffleEntries(): Swaps the entries at the specified indices of the shuffled play order.
+    private void swapShuffleEntries(int first, int second) {
+
+        Entry firstEntry = shuffleEntries.get(first);
+        Entry secondEntry = shuffleEntries.get(second);
+
+        shuffleEntries.set(first, secondEntry);
+        shuffleEntries.set(second, firstEntry);
+        secondEntry.shuffleIndex = first;
+        firstEntry.shuffleIndex = second;
+    }
+
+    // nextShuffleEntry(): Returns the next entry in the shuffled play order that has not been
+    // removed, or null if the end of the shuffled play order has been reached.
+    private Entry nextShuffleEntry() {
+
+        for (int i = shuffleIndex + 1; i < shuffleEntries.size(); i++) {
+
+            Entry entry = shuffleEntries.get(i);
+
+            if (!entry.isRemoved) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    // previousShuffleEntry(): Returns the closest entry before the current index of the shuffled
+    // play order that has not been removed, or null if there is no such entry.
+    private Entry previousShuffleEntry() {
+
+        for (int i = shuffleIndex - 1; i >= 0; i--) {
+
+            Entry entry = shuffleEntries.get(i);
+
+            if (!entry.isRemoved) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    /** HISTORY FUNCTIONALITY __________________________________________________________________ **/
+
+    // pushHistory(): Adds the specified entry to the history. Once the history is full, the oldest
+    // entry is overwritten.
+    private void pushHistory(Entry entry) {
+
+        if (entry == null) {
+            return;
+        }
+
+        historyEntries[historyIndex] = entry;
+        historyIndex = (historyIndex + 1) % HISTORY_SIZE;
+        historyCount = Math.min(historyCount + 1, HISTORY_SIZE);
+    }
+
+    // popHistory(): Removes and returns the most recently played entry that has not been removed
+    // from the queue, or null if the history is empty.
+    private Entry popHistory() {
+
+        while (historyCount > 0) {
+
+            historyIndex = (historyIndex - 1 + HISTORY_SIZE) % HISTORY_SIZE;
+            historyCount--;
+
+            Entry entry = historyEntries[historyIndex];
+            historyEntries[historyIndex] = null;
+
+            if (!entry.isRemoved && (entry != currentEntry)) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    // clearHistory(): Removes all entries from the history.
+    private void clearHistory() {
+
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            historyEntries[i] = null;
+        }
+
+        historyCount = 0;
+        historyIndex = 0;
+    }
+
+    /** LINK FUNCTIONALITY _____________________________________________________________________ **/
+
+    // createEntry(): Creates a new entry for the specified track, indexed at the next track list
+    // position.
+    private Entry createEntry(SSSpotifyModel track) {
+        Entry entry = new Entry(track, listEntries.size());
+        listEntries.add(entry);
+        return entry;
+    }
+
+    // link(): Links the specified entry after the specified entry in play order. If the previous
+    // entry is null, the entry is linked at the beginning of the queue.
+    private void link(Entry entry, Entry previous) {
+
+        Entry next = (previous != null) ? previous.nextEntry : headEntry;
+
+        entry.previousEntry = previous;
+        entry.nextEntry = next;
+
+        if (previous != null) {
+            previous.nextEntry = entry;
+        }
+
+        else {
+            headEntry = entry;
+        }
+
+        if (next != null) {
+            next.previousEntry = entry;
+        }
+
+        else {
+            tailEntry = entry;
+        }
+
+        queueSize++;
+    }
+
+    // unlink(): Unlinks the specified entry from the play order.
+    private void unlink(Entry entry) {
+
+        if (entry.previousEntry != null) {
+            entry.previousEntry.nextEntry = entry.nextEntry;
+        }
+
+        else {
+            headEntry = entry.nextEntry;
+        }
+
+        if (entry.nextEntry != null) {
+            entry.nextEntry.previousEntry = entry.previousEntry;
+        }
+
+        else {
+            tailEntry = entry.previousEntry;
+        }
+
+        entry.previousEntry = null;
+        entry.nextEntry = null;
+        queueSize--;
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [Entry] CLASS
+     * DESCRIPTION: This is a subclass that holds a single track in the queue. Entries are returned
+     * when tracks are added, so that they can later be removed in O(1).
+     * --------------------------------------------------------------------------------------------
+     */
+    public static class Entry {
+
+        private final SSSpotifyModel track; // The track of this entry.
+        private final int position; // The track list position of this entry.
+        private Entry nextEntry; // The next entry in play order.
+        private Entry previousEntry; // The previous entry in play order.
+        private boolean isRemoved = false; // Used to determine if this entry has been removed.
+        private int shuffleIndex = -1; // Index of this entry in the shuffled play order.
+
+        // Entry(): Constructor for the Entry class.
+        private Entry(SSSpotifyModel track, int position) {
+            this.track = track;
+            this.position = position;
+        }
+
+        // getTrack(): Returns the track of this entry.
+        public SSSpotifyModel getTrack() {
+            return track;
+        }
+
+        // getPosition(): Returns the track list position of this entry.
+        public int getPosition() {
+            return position;
+        }
+    }
+}
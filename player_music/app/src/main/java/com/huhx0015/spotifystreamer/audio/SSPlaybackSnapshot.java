@@ -0,0 +1,296 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSPlaybackSnapshot] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSPlaybackSnapshot class persists a compact binary snapshot of the playback queue,
+ *  the current track and the song position, so that playback can be resumed after the process has
+ *  been killed. Updates only store the latest values in memory; the snapshot file is written behind
+ *  on a background thread once the updates have settled, so that no file I/O is done on the main
+ *  thread or the playback thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSPlaybackSnapshot {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // FILE VARIABLES
+    private File snapshotFile; // The file in which the snapshot is stored.
+    private static final String SNAPSHOT_FILE = "ss_playback_snapshot.bin"; // Name of the snapshot file.
+    private static final int SNAPSHOT_MAGIC = 0x53535053; // Identifies a snapshot file ("SSPS").
+    private static final int SNAPSHOT_VERSION = 1; // Version of the snapshot file format.
+
+    // LOGGING VARIABLES
+    private static final String LOG_TAG = SSPlaybackSnapshot.class.getSimpleName(); // Used for logging output to logcat.
+
+    // SNAPSHOT VARIABLES
+    private final Object snapshotLock = new Object(); // Guards the pending snapshot values.
+    private ArrayList<SSSpotifyModel> pendingTracks = new ArrayList<>(); // The tracks in the playback queue.
+    private int pendingTrackPosition = -1; // The track list position of the current track.
+    private int pendingSongPosition = 0; // The song position (in milliseconds) of the current track.
+    private boolean isDirty = false; // Used to determine if the snapshot has changed since it was last written.
+
+    // THREAD VARIABLES
+    private final Handler snapshotHandler; // Handler for the snapshot thread, on which the snapshot file is read and written.
+    private final Handler mainHandler = new Handler(Looper.getMainLooper()); // Handler for posting restored snapshots to the main thread.
+    private static final int WRITE_DELAY = 2000; // Number of milliseconds after the last update before the snapshot is written.
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSPlaybackSnapshot(): Constructor for SSPlaybackSnapshot class.
+    private final static SSPlaybackSnapshot ss_snapshot = new SSPlaybackSnapshot();
+
+    // SSPlaybackSnapshot(): Deconstructor for SSPlaybackSnapshot class. Starts the snapshot thread.
+    private SSPlaybackSnapshot() {
+        HandlerThread snapshotThread = new HandlerThread("SSSnapshotThread", Process.THREAD_PRIORITY_BACKGROUND);
+        snapshotThread.start();
+        snapshotHandler = new Handler(snapshotThread.getLooper());
+    }
+
+    // getInstance(): Returns the ss_snapshot instance.
+    public static SSPlaybackSnapshot getInstance() { return ss_snapshot; }
+
+    // initializeSnapshot(): Sets the file in which the snapshot is stored.
+    public void initializeSnapshot(Context context) {
+        snapshotFile = new File(context.getApplicationContext().getFilesDir(), SNAPSHOT_FILE);
+    }
+
+    /** UPDATE FUNCTIONALITY ___________________________________________________________________ **/
+
+    // updateQueue(): Updates the tracks in the playback queue and the current track. The track list
+    // is copied, so later changes to the specified list are not reflected in the snapshot.
+    public void updateQueue(ArrayList<SSSpotifyModel> tracks, int trackPosition) {
+
+        synchronized (snapshotLock) {
+            pendingTracks = new ArrayList<>(tracks);
+            pendingTrackPosition = trackPosition;
+            pendingSongPosition = 0;
+            scheduleWrite();
+        }
+    }
+
+    // updatePosition(): Updates the current track and the song position (in milliseconds).
+    public void updatePosition(int trackPosition, int songPosition) {
+
+        synchronized (snapshotLock) {
+
+            if ((trackPosition == pendingTrackPosition) && (songPosition == pendingSongPosition)) {
+                return;
+            }
+
+            pendingTrackPosition = trackPosition;
+            pendingSongPosition = songPosition;
+            scheduleWrite();
+        }
+    }
+
+    // flush(): Writes any pending changes to the snapshot file without waiting for the updates to
+    // settle, such as when the service is being shut down.
+    public void flush() {
+        snapshotHandler.removeCallbacks(writeThread);
+        snapshotHandler.post(writeThread);
+    }
+
+    // scheduleWrite(): Marks the snapshot as changed and (re)schedules the write, so that a burst
+    // of updates results in a single write. Must be called while holding the snapshot lock.
+    private void scheduleWrite() {
+        isDirty = true;
+        snapshotHandler.removeCallbacks(writeThread);
+        snapshotHandler.postDelayed(writeThread, WRITE_DELAY);
+    }
+
+    /** THREAD FUNCTIONALITY ___________________________________________________________________ **/
+
+    // writeThread(): A threaded function which writes the pending snapshot to the snapshot file.
+    private Runnable writeThread = new Runnable() {
+
+        public void run() {
+
+            ArrayList<SSSpotifyModel> tracks;
+            int trackPosition;
+            int songPosition;
+
+            synchronized (snapshotLock) {
+
+                if (!isDirty || (snapshotFile == null)) {
+                    return;
+                }
+
+                tracks = pendingTracks;
+                trackPosition = pendingTrackPosition;
+                songPosition = pendingSongPosition;
+                isDirty = false;
+            }
+
+            writeSnapshot(tracks, trackPosition, songPosition);
+        }
+    };
+
+    /** FILE FUNCTIONALITY _____________________________________________________________________ **/
+
+    // writeSnapshot(): Writes the specified snapshot values to a temporary file, which then
+    // replaces the snapshot file, so that an interrupted write never leaves a partial snapshot.
+    private void writeSnapshot(ArrayList<SSSpotifyModel> tracks, int trackPosition, int songPosition) {
+
+        File tempFile = new File(snapshotFile.getPath() + ".tmp");
+        DataOutputStream output = null;
+
+        try {
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            output.writeInt(SNAPSHOT_MAGIC);
+            output.writeInt(SNAPSHOT_VERSION);
+            output.writeInt(trackPosition);
+            output.writeInt(songPosition);
+            output.writeInt(tracks.size());
+
+            for (SSSpotifyModel track : tracks) {
+                writeString(output, track.getSongId());
+                writeString(output, track.getSongURL());
+                writeString(output, track.getArtist());
+                writeString(output, track.getAlbum());
+                writeString(output, track.getSong());
+                writeString(output, track.getAlbumImage());
+            }
+
+            output.close();
+            output = null;
+
+            if (!tempFile.renameTo(snapshotFile)) {
+                Log.e(LOG_TAG, "writeSnapshot(): The snapshot file could not be replaced.");
+            }
+        }
+
+        // IO exception handler.
+        catch (IOException e) {
+            Log.e(LOG_TAG, "ERROR: writeSnapshot(): I/O exception occurred: " + e.getMessage());
+        }
+
+        finally {
+            closeQuietly(output);
+        }
+    }
+
+    // restore(): Reads the snapshot file on the snapshot thread, and signals the specified listener
+    // on the main thread with the restored snapshot. Nothing is signalled if there is no snapshot,
+    // or if it could not be read.
+    public void restore(final OnSnapshotRestoredListener listener) {
+
+        snapshotHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+
+                if ((snapshotFile == null) || !snapshotFile.exists()) {
+                    return;
+                }
+
+                DataInputStream input = null;
+
+                try {
+                    input = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)));
+
+                    if ((input.readInt() != SNAPSHOT_MAGIC) || (input.readInt() != SNAPSHOT_VERSION)) {
+                        Log.d(LOG_TAG, "restore(): The snapshot file format is not supported.");
+                        return;
+                    }
+
+                    final int trackPosition = input.readInt();
+                    final int songPosition = input.readInt();
+                    int count = input.readInt();
+
+                    final ArrayList<SSSpotifyModel> tracks = new ArrayList<>(count);
+
+                    for (int i = 0; i < count; i++) {
+                        String id = readString(input);
+                        String url = readString(input);
+                        String artist = readString(input);
+                        String album = readString(input);
+                        String song = readString(input);
+                        String image = readString(input);
+                        tracks.add(new SSSpotifyModel(artist, album, song, id, url, image));
+                    }
+
+                    if ((trackPosition < 0) || (trackPosition >= tracks.size())) {
+                        return;
+                    }
+
+                    mainHandler.post(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            listener.onSnapshotRestored(tracks, trackPosition, songPosition);
+                        }
+                    });
+                }
+
+                // IO exception handler.
+                catch (IOException e) {
+                    Log.e(LOG_TAG, "ERROR: restore(): I/O exception occurred: " + e.getMessage());
+                }
+
+                finally {
+                    closeQuietly(input);
+                }
+            }
+        });
+    }
+
+    // writeString(): Writes the specified string, which may be null.
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+
+        output.writeBoolean(value != null);
+
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    // readString(): Reads a string written by writeString(), which may be null.
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    // closeQuietly(): Closes the specified stream, ignoring any errors.
+    private static void closeQuietly(Closeable stream) {
+
+        if (stream != null) {
+            try { stream.close(); }
+            catch (IOException e) {} // The stream has already been written or read.
+        }
+    }
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [OnSnapshotRestoredListener] INTERFACE
+     * DESCRIPTION: This is an interface subclass that is used to deliver a restored snapshot.
+     * --------------------------------------------------------------------------------------------
+     */
+    public interface OnSnapshotRestoredListener {
+
+        // onSnapshotRestored(): The method that is called on the main thread with the restored
+        // tracks, the track list position of the current track and the song position (in
+        // milliseconds).
+        void onSnapshotRestored(ArrayList<SSSpotifyModel> tracks, int trackPosition, int songPosition);
+    }
+}
@@ -0,0 +1,56 @@
+package com.huhx0015.spotifystreamer.audio;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSPlaybackState] ENUM
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSPlaybackState is an enum class that defines the playback states of the
+ *  SSMusicEngine class, as well as the transitions that are allowed between them.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public enum SSPlaybackState {
+
+    /** ENUM VALUES ____________________________________________________________________________ **/
+
+    IDLE, // No song has been loaded, or the MediaPlayer object has been released.
+    PREPARING, // A song is being prepared for playback.
+    PREPARED, // A song has been prepared and is held at it's position until it is played.
+    PLAYING, // A song is currently playing.
+    PAUSED, // A song has been paused and can be resumed at it's previous position.
+    STOPPED, // A song has been stopped or has reached the end of playback.
+    ERROR; // A song could not be prepared or played.
+
+    /** STATE METHODS __________________________________________________________________________ **/
+
+    // canTransitionTo(): Determines if a transition from this state to the specified state is
+    // allowed. Any state may be released back to IDLE or begin preparing a new song.
+    public boolean canTransitionTo(SSPlaybackState next) {
+
+        if ((next == IDLE) || (next == PREPARING)) {
+            return true;
+        }
+
+        switch (this) {
+
+            // PREPARING: The song either begins playback, is held, is cancelled, or fails.
+            case PREPARING:
+                return (next == PREPARED) || (next == PLAYING) || (next == STOPPED) || (next == ERROR);
+
+            // PREPARED: The held song either begins playback, is stopped, or fails.
+            case PREPARED:
+                return (next == PLAYING) || (next == STOPPED) || (next == ERROR);
+
+            // PLAYING: The song can be paused, stopped, or fail during playback.
+            case PLAYING:
+                return (next == PAUSED) || (next == STOPPED) || (next == ERROR);
+
+            // PAUSED: The song can be resumed, stopped, or fail while paused.
+            case PAUSED:
+                return (next == PLAYING) || (next == STOPPED) || (next == ERROR);
+
+            // IDLE | STOPPED | ERROR: Only a new song can be prepared.
+            default:
+                return false;
+        }
+    }
+}
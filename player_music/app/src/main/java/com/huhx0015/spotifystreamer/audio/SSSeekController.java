@@ -0,0 +1,137 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSSeekController] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSSeekController class coalesces the seek requests from the player interface.
+ *  While the seekbar is being dragged, the position is only previewed in the interface and a single
+ *  seek is issued once the drag ends. Repeated forward and rewind taps are merged into a single
+ *  seek, which is issued once the taps have stopped for a short delay. Seekbar changes that are
+ *  not part of a drag, such as keyboard, D-pad or accessibility adjustments, are coalesced in the
+ *  same way as the taps.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSSeekController {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // LISTENER VARIABLES
+    private final OnSeekCommitListener seekListener; // Listener that is signalled when a seek is issued.
+
+    // SEEK VARIABLES
+    private boolean isDragging = false; // Used to determine if the seekbar is currently being dragged.
+    private int pendingPosition = -1; // The position (in milliseconds) of the seek to be issued, or -1 if none.
+    private static final int TAP_COALESCE_DELAY = 300; // Number of milliseconds after the last tap before the seek is issued.
+
+    // THREAD VARIABLES
+    private final Handler seekHandler = new Handler(Looper.getMainLooper()); // Handler for the seek commit thread.
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSSeekController(): Constructor for SSSeekController class.
+    public SSSeekController(OnSeekCommitListener listener) {
+        this.seekListener = listener;
+    }
+
+    /** THREAD FUNCTIONALITY ___________________________________________________________________ **/
+
+    // seekCommitThread(): A threaded function which issues the pending seek.
+    private Runnable seekCommitThread = new Runnable() {
+
+        public void run() {
+            commit();
+        }
+    };
+
+    /** SEEK FUNCTIONALITY _____________________________________________________________________ **/
+
+    // startDrag(): Signals that the seekbar has started being dragged. Any pending tap seek is
+    // replaced by the drag.
+    public void startDrag() {
+        seekHandler.removeCallbacks(seekCommitThread);
+        isDragging = true;
+    }
+
+    // dragTo(): Updates the pending seek position while the seekbar is being dragged. No seek is
+    // issued until the drag has ended.
+    public void dragTo(int position) {
+        pendingPosition = position;
+    }
+
+    // stopDrag(): Signals that the seekbar has stopped being dragged, and issues the final seek.
+    public void stopDrag() {
+        isDragging = false;
+        commit();
+    }
+
+    // stepBy(): Moves the pending seek position by the specified offset (in milliseconds) and
+    // returns the new position for previewing. Consecutive taps are measured from the pending
+    // position, and only the final position is issued once the taps have stopped.
+    public int stepBy(int offset, int currentPosition, int maxPosition) {
+
+        int base = (pendingPosition >= 0) ? pendingPosition : currentPosition;
+        stepTo(Math.max(0, Math.min(maxPosition, base + offset)));
+
+        return pendingPosition;
+    }
+
+    // stepTo(): Sets the pending seek position outside of a drag, such as from a keyboard, D-pad
+    // or accessibility adjustment of the seekbar. The seek is issued once the adjustments have
+    // stopped for a short delay.
+    public void stepTo(int position) {
+
+        pendingPosition = position;
+
+        seekHandler.removeCallbacks(seekCommitThread);
+        seekHandler.postDelayed(seekCommitThread, TAP_COALESCE_DELAY);
+    }
+
+    // isDragging(): Determines if the seekbar is currently being dragged.
+    public boolean isDragging() {
+        return isDragging;
+    }
+
+    // isSeeking(): Determines if a seek is currently being dragged or is waiting to be issued.
+    // Playback position updates should not be displayed while this is true.
+    public boolean isSeeking() {
+        return isDragging || (pendingPosition >= 0);
+    }
+
+    // cancel(): Discards any pending seek, such as when the track has been changed.
+    public void cancel() {
+        seekHandler.removeCallbacks(seekCommitThread);
+        isDragging = false;
+        pendingPosition = -1;
+    }
+
+    // commit(): Issues the pending seek, if there is one.
+    private void commit() {
+
+        seekHandler.removeCallbacks(seekCommitThread);
+
+        if (pendingPosition >= 0) {
+            int position = pendingPosition;
+            pendingPosition = -1;
+            seekListener.onSeekCommit(position);
+        }
+    }
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [OnSeekCommitListener] INTERFACE
+     * DESCRIPTION: This is an interface subclass that is used to issue a coalesced seek.
+     * --------------------------------------------------------------------------------------------
+     */
+    public interface OnSeekCommitListener {
+
+        // onSeekCommit(): The method that is called when a seek to the specified position (in
+        // milliseconds) should be issued.
+        void onSeekCommit(int position);
+    }
+}
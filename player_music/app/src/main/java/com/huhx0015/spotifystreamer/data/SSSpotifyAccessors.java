@@ -140,8 +140,11 @@ public class SSSpotifyAccessors {
                 //Log.d(LOG_TAG, "Artist " + i + " Artist Name: " + currentArtistName);
                 //Log.d(LOG_TAG, "Artist " + i + " Artist Image URL: " + currentArtistImage);
 
-                // Adds the current artist into the ArrayList object.
-                artistListResult.add(new SSSpotifyModel(currentArtistName, null, null, null, null, currentArtistImage));
+                // Adds the current artist into the ArrayList object, along with the artist's
+                // Spotify ID, which is unique even if artists share the same name.
+                SSSpotifyModel artistResult = new SSSpotifyModel(currentArtistName, null, null, null, null, currentArtistImage);
+                artistResult.setArtistId(currentArtist.id);
+                artistListResult.add(artistResult);
             }
 
             // NullPointerException handler.
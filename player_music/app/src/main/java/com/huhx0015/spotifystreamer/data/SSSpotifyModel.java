@@ -16,6 +16,7 @@ public class SSSpotifyModel implements Parcelable {
 
     private String album_image; // Stores the image URL of the album.
     private String artist; // Stores the name of the artist.
+    private String artistId; // Stores the Spotify ID of the artist, for artist results.
     private String album; // Stores the name of the album.
     private String song; // Stores the name of the song.
     private String songId; // Stores the id of the song.
@@ -43,6 +44,7 @@ public class SSSpotifyModel implements Parcelable {
         song = in.readString();
         songId = in.readString();
         songURL = in.readString();
+        artistId = in.readString();
     }
 
     // Creator(): An interface that must be implemented and provided as a public CREATOR field that
@@ -79,6 +81,7 @@ public class SSSpotifyModel implements Parcelable {
         dest.writeString(song);
         dest.writeString(songId);
         dest.writeString(songURL);
+        dest.writeString(artistId);
     }
 
     /** GET / SET METHODS ______________________________________________________________________ **/
@@ -91,6 +94,9 @@ public class SSSpotifyModel implements Parcelable {
         return artist;
     }
 
+    // getArtistId(): Returns the Spotify ID of the artist.
+    public String getArtistId() { return artistId; }
+
     // getAlbum(): Returns the album.
     public String getAlbum() {
         return album;
@@ -117,6 +123,9 @@ public class SSSpotifyModel implements Parcelable {
     // setArtist(): Sets the artist name for the class.
     public void setArtist(String artist) { this.artist = artist; }
 
+    // setArtistId(): Sets the Spotify ID of the artist for the class.
+    public void setArtistId(String id) { this.artistId = id; }
+
     // setAlbum(): Sets the album name for the class.
     public void setAlbum(String album) {
         this.album = album;
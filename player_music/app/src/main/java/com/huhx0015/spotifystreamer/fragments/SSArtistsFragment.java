@@ -22,6 +22,9 @@ import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
 import com.huhx0015.spotifystreamer.interfaces.OnSpotifySelectedListener;
 import com.huhx0015.spotifystreamer.network.SSConnectivity;
 import com.huhx0015.spotifystreamer.ui.adapters.SSResultsAdapter;
+import com.huhx0015.spotifystreamer.ui.adapters.SSResultsPrefetcher;
+import com.huhx0015.spotifystreamer.ui.adapters.SSResultsViewPool;
+import com.huhx0015.spotifystreamer.ui.views.SSScrollJankMonitor;
 import java.util.ArrayList;
 import butterknife.Bind;
 import butterknife.ButterKnife;
@@ -61,9 +64,18 @@ public class SSArtistsFragment extends Fragment {
     // LIST VARIABLES
     private ArrayList<SSSpotifyModel> artistListResult = new ArrayList<>(); // Stores the artist list result that is to be used for the adapter.
 
+    // JANK VARIABLES
+    private SSScrollJankMonitor jankMonitor; // Measures the scroll jank of the result list.
+
+    // IMAGE VARIABLES
+    private SSResultsPrefetcher prefetcher; // Prefetches the album images of the result list while it is scrolled.
+
     // LOGGING VARIABLES
     private static final String LOG_TAG = SSArtistsFragment.class.getSimpleName();
 
+    // SYSTEM VARIABLES
+    private final int api_level = android.os.Build.VERSION.SDK_INT; // Used to determine the device's Android API version.
+
     // VIEW INJECTION VARIABLES
     @Bind(R.id.ss_artist_search_search_input) EditText searchInput;
     @Bind(R.id.ss_artist_search_progress_indicator) ProgressBar progressIndicator;
@@ -146,6 +158,11 @@ public class SSArtistsFragment extends Fragment {
             }
         }
 
+        // Resumes any image requests that were paused by a fling that was still in progress.
+        if (prefetcher != null) {
+            prefetcher.resumeImages();
+        }
+
         ButterKnife.unbind(this); // Sets all injected views to null.
     }
 
@@ -296,18 +313,71 @@ public class SSArtistsFragment extends Fragment {
 
     // setListAdapter(): Sets the recycler list adapter based on the artistList.
     private void setListAdapter(ArrayList<SSSpotifyModel> artistList){
+
         SSResultsAdapter adapter = new SSResultsAdapter(artistList, true, false, currentActivity);
-        resultsList.setAdapter(adapter);
+
+        // The adapter is swapped if one has already been set, so that the existing result cards are
+        // recycled into the shared view pool instead of being discarded.
+        if (resultsList.getAdapter() != null) {
+            resultsList.swapAdapter(adapter, true);
+        }
+
+        else {
+            resultsList.setAdapter(adapter);
+        }
+
+        // Inflates result cards into the shared view pool while the main thread is idle.
+        SSResultsViewPool viewPool = getResultsViewPool();
+
+        if (viewPool != null) {
+            viewPool.preInflate(resultsList);
+        }
     }
 
-    // setUpRecyclerView(): Sets up the RecyclerView object.
+    // setUpRecyclerView(): Sets up the RecyclerView object. The result cards are shared with the
+    // other result list through the shared view pool.
     private void setUpRecyclerView() {
+
         LinearLayoutManager layoutManager = new LinearLayoutManager(currentActivity);
         resultsList.setLayoutManager(layoutManager);
+        resultsList.setHasFixedSize(true); // The list size does not depend on it's contents.
+
+        SSResultsViewPool viewPool = getResultsViewPool();
+
+        if ((viewPool != null) && (resultsList.getRecycledViewPool() != viewPool)) {
+            resultsList.setRecycledViewPool(viewPool);
+        }
+
+        // Prefetches the album images of the next rows while the result list is scrolled, and
+        // pauses the image requests while it is flung.
+        if (prefetcher == null) {
+            prefetcher = new SSResultsPrefetcher(currentActivity);
+        }
+
+        resultsList.removeOnScrollListener(prefetcher);
+        resultsList.addOnScrollListener(prefetcher);
+
+        // Android API Level 16+: Measures the scroll jank of the result list.
+        if (api_level >= 16) {
+
+            if (jankMonitor == null) {
+                jankMonitor = new SSScrollJankMonitor(LOG_TAG);
+            }
+
+            resultsList.removeOnScrollListener(jankMonitor);
+            resultsList.addOnScrollListener(jankMonitor);
+        }
     }
 
     /** INTERFACE METHODS ______________________________________________________________________ **/
 
+    // getResultsViewPool(): Retrieves the view pool that is shared by the result lists from the
+    // attached activity.
+    private SSResultsViewPool getResultsViewPool() {
+        try { return ((OnSpotifySelectedListener) currentActivity).getResultsViewPool(); }
+        catch (ClassCastException cce) { return null; } // Catch for class cast exception errors.
+    }
+
     // updateInputName(): Updates the artist input name value for the attached activity.
     private void updateInputName(String name) {
         try { ((OnSpotifySelectedListener) currentActivity).updateArtistInput(name); }
@@ -5,8 +5,12 @@ import android.app.Activity;
 import android.content.SharedPreferences;
 import android.graphics.Bitmap;
 import android.graphics.Color;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.v4.app.DialogFragment;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -22,15 +26,22 @@ import android.widget.SeekBar;
 import android.widget.TextView;
 import com.huhx0015.spotifystreamer.R;
 import com.huhx0015.spotifystreamer.activities.SSMainActivity;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackEventBus;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackMetrics;
+import com.huhx0015.spotifystreamer.audio.SSSeekController;
 import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
 import com.huhx0015.spotifystreamer.interfaces.OnMusicPlayerListener;
 import com.huhx0015.spotifystreamer.interfaces.OnMusicServiceListener;
 import com.huhx0015.spotifystreamer.interfaces.OnSnackbarDisplayListener;
 import com.huhx0015.spotifystreamer.interfaces.OnTrackInfoUpdateListener;
 import com.huhx0015.spotifystreamer.preferences.SSPreferences;
+import com.huhx0015.spotifystreamer.ui.adapters.SSResultsAdapter;
 import com.huhx0015.spotifystreamer.ui.graphics.SSBlurBuilder;
+import com.huhx0015.spotifystreamer.ui.graphics.SSGradientBuilder;
+import com.huhx0015.spotifystreamer.ui.graphics.SSIconAtlas;
 import com.huhx0015.spotifystreamer.ui.notifications.SSNotificationPlayer;
 import com.huhx0015.spotifystreamer.ui.toast.SSSnackbar;
+import com.squareup.picasso.NetworkPolicy;
 import com.squareup.picasso.Picasso;
 import com.squareup.picasso.Target;
 import java.util.ArrayList;
@@ -57,8 +68,38 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
     private Boolean isPlaying = false; // Indicates that a song is currently playing in the background.
     private Boolean isPreparing = false; // Used to determine if a song is currently being prepared for playback.
 
+    // SEEK VARIABLES
+    private static final int SEEK_STEP = 6000; // Number of milliseconds the forward and rewind buttons seek by.
+
+    // seekController(): Coalesces the seekbar drags and forward/rewind taps into single seeks.
+    private final SSSeekController seekController = new SSSeekController(new SSSeekController.OnSeekCommitListener() {
+
+        @Override
+        public void onSeekCommit(int position) {
+            setPosition(position); // Sets the new position of the song.
+        }
+    });
+
+    // SKIP VARIABLES
+    private Boolean isSkipPending = false; // Used to determine if a skipped track is waiting to be played.
+    private static final int SKIP_DEBOUNCE_DELAY = 350; // Number of milliseconds after the last skip before the track is played.
+    private final Handler skipHandler = new Handler(Looper.getMainLooper()); // Handler for the skip play thread.
+
     // BITMAP VARIABLES
     private Bitmap albumBitmap; // Stores the Bitmap for the album image.
+    private Boolean isAlbumImageLoaded = false; // Used to determine if the full size album image has been loaded.
+    private String backgroundAlbumURL; // The album image URL the background has been requested for.
+    private Target albumTarget; // Strong reference to the album image target, as Picasso only holds it weakly.
+    private Target thumbnailTarget; // Strong reference to the album thumbnail target.
+
+    // ICON VARIABLES: Created once per view from the SSIconAtlas, so that the control toggles only
+    // swap drawables.
+    private Drawable autoPlayOnIcon; // Auto play button icon when auto play is enabled.
+    private Drawable autoPlayOffIcon; // Auto play button icon when auto play is disabled.
+    private Drawable pauseIcon; // Play/pause button icon while a song is playing.
+    private Drawable playIcon; // Play/pause button icon while a song is paused or stopped.
+    private Drawable repeatOnIcon; // Repeat button icon when repeat is enabled.
+    private Drawable repeatOffIcon; // Repeat button icon when repeat is disabled.
 
     // FRAGMENT VARIABLES
     private String artistName = ""; // Stores the name of the artist.
@@ -71,11 +112,13 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
     // LAYOUT VARIABLES
     private Boolean isDestroyed = false; // Used to determine if the fragment is being destroyed or not.
     private Boolean isTablet = false; // Used to determine if the current device is a mobile or tablet device.
-    private float curDensity; // References the density value of the current device.
+    private int bufferedPercent = 0; // The percentage of the current song that has been buffered.
+    private int displayedSecond = -1; // The song position (in seconds) currently displayed in the minimum duration TextView.
 
     // LIST VARIABLES
     private ArrayList<SSSpotifyModel> trackList = new ArrayList<>(); // References the track list.
     private int selectedPosition = 0; // References the selected position in the track list.
+    private Boolean isQueueChanged = false; // Used to determine if the track list has yet to be set in the SSMusicService playback queue.
 
     // LOGGING VARIABLES
     private static final String LOG_TAG = SSPlayerFragment.class.getSimpleName();
@@ -87,7 +130,9 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
     private SharedPreferences SS_prefs; // SharedPreferences object for the application.
     private static final String SS_OPTIONS = "ss_options"; // Used to reference the name of the preference XML file.
     private Boolean autoPlayOn = false; // Used to determine if auto play is enabled or not.
+    private int crossfadeSeconds = 0; // Number of seconds over which auto played songs are crossfaded (0 to disable).
     private Boolean isLoop = false; // Used to determine if the song will be looped infinitely.
+    private Boolean isShuffleOn = false; // Used to determine if the tracklist is played in shuffled order.
     private Boolean notificationsOn = true; // Used to determine if notification display is enabled or not.
 
     // VIEW INJECTION VARIABLES
@@ -122,6 +167,7 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
     public void initializeFragment(ArrayList<SSSpotifyModel> list, int position) {
         this.trackList = list;
         this.selectedPosition = position;
+        this.isQueueChanged = true; // The track list is set in the playback queue once attached.
         this.artistName = list.get(position).getArtist();
         this.songId = list.get(position).getSongId();
         this.songName = list.get(position).getSong();
@@ -141,6 +187,10 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
         Log.d(LOG_TAG, "FRAGMENT LIFECYCLE (onAttach): onAttach() invoked.");
 
         this.currentActivity = (SSMainActivity) activity; // Sets the currentActivity to attached activity object.
+
+        // Subscribes this fragment to all playback events.
+        SSPlaybackEventBus.getInstance().subscribe(this, SSPlaybackEventBus.EVENT_ALL);
+
         attachPlayerFragment(); // Attaches this fragment to the music service.
     }
 
@@ -189,6 +239,22 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
         return ss_fragment_view;
     }
 
+    // onResume(): This function runs when the fragment is resumed from an onPause state. The
+    // SSMusicService is signalled to begin delivering seekbar updates.
+    @Override
+    public void onResume() {
+        super.onResume();
+        setPlayerVisible(true);
+    }
+
+    // onPause(): This function is called whenever the fragment is suspended. The SSMusicService is
+    // signalled to stop delivering seekbar updates while the player is not visible.
+    @Override
+    public void onPause() {
+        super.onPause();
+        setPlayerVisible(false);
+    }
+
     // onDestroyView(): This function runs when the screen is no longer visible and the view is
     // destroyed.
     @Override
@@ -201,19 +267,33 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
         ButterKnife.unbind(this); // Sets all injected views to null.
     }
 
+    // onDetach(): This function is called when the fragment is detached from the activity. This
+    // fragment is unsubscribed from the playback events.
+    @Override
+    public void onDetach() {
+        super.onDetach();
+
+        Log.d(LOG_TAG, "FRAGMENT LIFECYCLE (onDetach): onDetach() invoked.");
+
+        SSPlaybackEventBus.getInstance().unsubscribe(this);
+    }
+
     /** LAYOUT METHODS _________________________________________________________________________ **/
 
     // setUpLayout(): Sets up the layout for the fragment.
     private void setUpLayout() {
 
-        // Retrieves the device's density attributes.
-        curDensity = getResources().getDisplayMetrics().density;
-
         setUpButtons(); // Sets up the button listeners for the fragment.
         setUpSeekbar(); // Sets up the seekbar listener for the player bar.
         setUpImage(); // Sets up the images for the ImageView objects for the fragment.
         setUpText(); // Sets up the text for the TextView objects for the fragment.
 
+        // Sets the track list as the SSMusicService playback queue, if it has changed.
+        if (isQueueChanged) {
+            setPlaybackQueue(trackList, selectedPosition);
+            isQueueChanged = false;
+        }
+
         // Retrieves the current song status and max duration of the song from
         // SSApplication/SSMusicService/SSMusicEngine.
         updatePlayer();
@@ -254,11 +334,11 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
             @Override
             public void onClick(View v) {
 
-                // Retrieves the current seekbar progress and sets the new seekbar position value.
+                // Previews the new seekbar position. Rapid taps are merged into a single seek.
                 if (!isPreparing) {
-                    int newPosition = playerBar.getProgress() + 6;
+                    int newPosition = seekController.stepBy(SEEK_STEP, playerBar.getProgress(), playerBar.getMax());
                     playerBar.setProgress(newPosition); // Sets the new seekbar position.
-                    setPosition(newPosition); // Sets the new position of the song.
+                    updateMinDurationText(newPosition); // Updates the minimum duration TextView object.
                 }
             }
         });
@@ -269,10 +349,9 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
             @Override
             public void onClick(View v) {
 
-                // Sets the song to the next track in the list.
-                if (!isPreparing) {
-                    playNextSong(true, false);
-                }
+                // Sets the song to the next track in the list. Rapid presses are coalesced, so only
+                // the final track is prepared.
+                playNextSong(true, false);
             }
         });
 
@@ -310,10 +389,9 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
             @Override
             public void onClick(View v) {
 
-                // Sets the song to the previous track in the list.
-                if (!isPreparing) {
-                    playNextSong(false, false);
-                }
+                // Sets the song to the previous track in the list. Rapid presses are coalesced, so
+                // only the final track is prepared.
+                playNextSong(false, false);
             }
         });
 
@@ -345,16 +423,10 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
 
                 if (!isPreparing) {
 
-                    // Retrieves the current seekbar progress and sets the new seekbar position value.
-                    int newPosition = playerBar.getProgress() - 6;
-
-                    // If the new position is less than 0, the value is set at 0.
-                    if (newPosition < 0) {
-                        newPosition = 0;
-                    }
-
+                    // Previews the new seekbar position. Rapid taps are merged into a single seek.
+                    int newPosition = seekController.stepBy(-SEEK_STEP, playerBar.getProgress(), playerBar.getMax());
                     playerBar.setProgress(newPosition); // Sets the new seekbar position.
-                    setPosition(newPosition); // Sets the new position of the song.
+                    updateMinDurationText(newPosition); // Updates the minimum duration TextView object.
                 }
             }
         });
@@ -363,29 +435,27 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
     // setUpImage(): Sets up the images for the ImageView objects in the fragment.
     private void setUpImage() {
 
+        SSIconAtlas iconAtlas = SSIconAtlas.getInstance();
+
+        // Creates the icons for the buttons that change with the playback status.
+        autoPlayOnIcon = iconAtlas.getIcon(currentActivity, R.drawable.ss_forward_on, 36);
+        autoPlayOffIcon = iconAtlas.getIcon(currentActivity, R.drawable.ss_forward_off, 36);
+        pauseIcon = iconAtlas.getIcon(currentActivity, android.R.drawable.ic_media_pause, 64);
+        playIcon = iconAtlas.getIcon(currentActivity, android.R.drawable.ic_media_play, 64);
+        repeatOnIcon = iconAtlas.getIcon(currentActivity, R.drawable.ss_repeat_on, 36);
+        repeatOffIcon = iconAtlas.getIcon(currentActivity, R.drawable.ss_repeat_off, 36);
+
         // FORWARD BUTTON:
-        Picasso.with(currentActivity)
-                .load(android.R.drawable.ic_media_ff)
-                .resize((int) (56 * curDensity), (int) (56 * curDensity))
-                .into(forwardButton);
+        forwardButton.setImageDrawable(iconAtlas.getIcon(currentActivity, android.R.drawable.ic_media_ff, 56));
 
         // NEXT BUTTON:
-        Picasso.with(currentActivity)
-                .load(android.R.drawable.ic_media_next)
-                .resize((int) (48 * curDensity), (int) (48 * curDensity))
-                .into(nextButton);
+        nextButton.setImageDrawable(iconAtlas.getIcon(currentActivity, android.R.drawable.ic_media_next, 48));
 
         // PREVIOUS BUTTON:
-        Picasso.with(currentActivity)
-                .load(android.R.drawable.ic_media_previous)
-                .resize((int) (48 * curDensity), (int) (48 * curDensity))
-                .into(previousButton);
+        previousButton.setImageDrawable(iconAtlas.getIcon(currentActivity, android.R.drawable.ic_media_previous, 48));
 
         // REWIND BUTTON:
-        Picasso.with(currentActivity)
-                .load(android.R.drawable.ic_media_rew)
-                .resize((int) (56 * curDensity), (int) (56 * curDensity))
-                .into(rewindButton);
+        rewindButton.setImageDrawable(iconAtlas.getIcon(currentActivity, android.R.drawable.ic_media_rew, 56));
 
         updateAlbumImage(albumImageURL); // ALBUM IMAGE
         updateAutoPlayButton(autoPlayOn); // AUTOPLAY BUTTON
@@ -396,7 +466,7 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
     // setUpSeekbar(): Sets up a listener for the Seekbar object.
     private void setUpSeekbar() {
 
-        playerBar.setMax(30); // Sets the maximum duration to 30 seconds by default.
+        playerBar.setMax(30000); // Sets the maximum duration to 30 seconds by default.
 
         playerBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
 
@@ -404,28 +474,33 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
             @Override
             public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
 
-                // If the progress change is from user input, the position of the song is changed.
+                // If the progress change is from user input, the new position is previewed. The
+                // song position is only changed once the drag has ended, or once adjustments
+                // that are not part of a drag, such as from the keyboard or D-pad, have stopped.
                 if (fromUser) {
+                    updateMinDurationText(progress); // Updates the minimum duration TextView object.
 
-                    // Updates the minimum duration TextView object.
-                    if (progress < 10) {
-                        minDurationText.setText("0:0" + progress);
-                    } else {
-                        minDurationText.setText("0:" + progress);
+                    if (seekController.isDragging()) {
+                        seekController.dragTo(progress);
                     }
 
-                    setPosition(progress); // Sets the new position of the song.
+                    else {
+                        seekController.stepTo(progress);
+                    }
                 }
             }
 
             // onStartTrackingTouch(): Called when a touch event on the Seekbar object has started.
             @Override
             public void onStartTrackingTouch(SeekBar seekBar) {
+                seekController.startDrag();
             }
 
-            // onStopTrackingTouch: Called when a touch event on the Seekbar object has ended.
+            // onStopTrackingTouch: Called when a touch event on the Seekbar object has ended. The
+            // final seekbar position is issued as a single seek.
             @Override
             public void onStopTrackingTouch(SeekBar seekBar) {
+                seekController.stopDrag();
             }
         });
     }
@@ -442,37 +517,36 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
         songNameText.setShadowLayer(8, 2, 2, Color.BLACK); // Sets the shadow layer effect.
     }
 
-    // updateAlbumImage(): Updates the album ImageView object with the specified image URL.
-    private void updateAlbumImage(String albumUrl) {
+    // updateAlbumImage(): Updates the album ImageView object with the specified image URL. The
+    // album thumbnail from the result lists is shown as a placeholder while the full size image is
+    // loading, and the blurred background is computed from the thumbnail, which is far cheaper.
+    private void updateAlbumImage(final String albumUrl) {
+
+        isAlbumImageLoaded = false;
+        backgroundAlbumURL = null;
 
         // ALBUM COVER: Loads the image from the image URL into the albumImage ImageView object and
         // stores a reference to the loaded bitmap.
-        Target target = new Target() {
+        albumTarget = new Target() {
 
             // onBitmapLoaded(): Runs when the bitmap is loaded.
             @SuppressLint("NewApi")
             @Override
             public void onBitmapLoaded(Bitmap bitmap, Picasso.LoadedFrom from) {
 
+                // Ignores the album image of a previous track.
+                if (albumUrl == null || !albumUrl.equals(albumImageURL)) {
+                    return;
+                }
+
+                isAlbumImageLoaded = true;
                 albumBitmap = bitmap; // Stores the reference to the album bitmap.
 
                 // Sets the album image and the blurred background image as long as this fragment
                 // view is not destroyed.
                 if (!isDestroyed) {
-
                     albumImage.setImageBitmap(bitmap); // Sets the album image bitmap.
-
-                    // Android API Level 16+: Sets a highly blurred version of the album image as
-                    // the background for the fragment layout.
-                    if (api_level >= 16) {
-                        playerContainer.setBackground(SSBlurBuilder.createBlurDrawable(currentActivity, bitmap));
-                    }
-
-                    // Android API Level 1-15: Sets a highly blurred version of the album image as
-                    // the background for the fragment layout.
-                    else {
-                        playerContainer.setBackgroundDrawable(SSBlurBuilder.createBlurDrawable(currentActivity, bitmap));
-                    }
+                    updateBackground(albumUrl, bitmap); // Updates the background, unless it has been created from the thumbnail.
                 }
             }
 
@@ -496,10 +570,138 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
             }
         };
 
-        // Loads the album image from the URL into the target.
+        // Loads the album image from the URL into the target. The full size image is requested
+        // first, so that a full size image in the memory cache is shown without the placeholder.
         Picasso.with(currentActivity)
                 .load(albumUrl)
-                .into(target);
+                .into(albumTarget);
+
+        if (albumUrl == null || albumUrl.isEmpty() || isAlbumImageLoaded) {
+            return;
+        }
+
+        // ALBUM THUMBNAIL: Loads the album thumbnail of the result lists from the memory or disk
+        // cache, without going to the network. The thumbnail is upscaled by the ImageView and
+        // lightly blurred to hide the pixelation, until the full size image has been loaded.
+        thumbnailTarget = new Target() {
+
+            // onBitmapLoaded(): Runs when the thumbnail bitmap is loaded.
+            @Override
+            public void onBitmapLoaded(Bitmap bitmap, Picasso.LoadedFrom from) {
+
+                if (isDestroyed || isAlbumImageLoaded || !albumUrl.equals(albumImageURL)) {
+                    return;
+                }
+
+                albumImage.setImageBitmap(SSBlurBuilder.getInstance().blurThumbnail(bitmap));
+                updateBackground(albumUrl, bitmap); // Creates the background from the thumbnail.
+            }
+
+            // onBitmapFailed(): Runs when the thumbnail is not cached.
+            @Override
+            public void onBitmapFailed(Drawable errorDrawable) {}
+
+            // onPrepareLoad(): Runs prior to loading the thumbnail bitmap.
+            @Override
+            public void onPrepareLoad(Drawable placeHolderDrawable) {}
+        };
+
+        SSResultsAdapter.createThumbnailRequest(currentActivity, albumUrl)
+                .networkPolicy(NetworkPolicy.OFFLINE)
+                .into(thumbnailTarget);
+    }
+
+    // updateBackground(): Creates the background from the specified album bitmap, unless the
+    // background of this album has already been requested from the thumbnail. The background is
+    // a blurred version of the album image, or a gradient of it's dominant colors if the low cost
+    // gradient mode has been chosen. Both are cached per album, so the full size image does not
+    // need to be processed again.
+    private void updateBackground(String albumUrl, Bitmap bitmap) {
+
+        if (albumUrl != null && albumUrl.equals(backgroundAlbumURL)) {
+            return;
+        }
+
+        backgroundAlbumURL = albumUrl;
+
+        if (SSGradientBuilder.getInstance().isGradientMode(currentActivity)) {
+            SSGradientBuilder.getInstance().createGradient(albumUrl, bitmap, gradientListener);
+        }
+
+        else {
+            SSBlurBuilder.getInstance().blurAlbumImage(currentActivity, albumUrl, bitmap, blurListener);
+        }
+    }
+
+    // blurListener(): Sets a highly blurred version of the album image as the background for the
+    // fragment layout, once it has been blurred. Blurred images of a previous album are ignored.
+    private SSBlurBuilder.OnBlurListener blurListener = new SSBlurBuilder.OnBlurListener() {
+
+        @Override
+        public void onBlurCompleted(String albumUrl, Bitmap blurredBitmap) {
+
+            if (isDestroyed || (albumUrl != null && !albumUrl.equals(albumImageURL))) {
+                return;
+            }
+
+            setPlayerBackground(new BitmapDrawable(getResources(), blurredBitmap));
+        }
+    };
+
+    // gradientListener(): Sets a gradient of the dominant colors of the album image as the
+    // background for the fragment layout. Gradients of a previous album are ignored.
+    private SSGradientBuilder.OnGradientListener gradientListener = new SSGradientBuilder.OnGradientListener() {
+
+        @Override
+        public void onGradientCompleted(String albumUrl, GradientDrawable gradientDrawable) {
+
+            if (isDestroyed || (albumUrl != null && !albumUrl.equals(albumImageURL))) {
+                return;
+            }
+
+            setPlayerBackground(gradientDrawable);
+        }
+    };
+
+    // setPlayerBackground(): Sets the specified drawable as the background for the fragment layout.
+    @SuppressLint("NewApi")
+    private void setPlayerBackground(Drawable backgroundDrawable) {
+
+        // Android API Level 16+: Sets the background.
+        if (api_level >= 16) {
+            playerContainer.setBackground(backgroundDrawable);
+        }
+
+        // Android API Level 1-15: Sets the background.
+        else {
+            playerContainer.setBackgroundDrawable(backgroundDrawable);
+        }
+    }
+
+    // updateMinDurationText(): Updates the minimum duration TextView object with the specified song
+    // position (in milliseconds). The text is only updated when the displayed second changes.
+    private void updateMinDurationText(int position) {
+
+        int second = position / 1000;
+
+        if (second != displayedSecond) {
+            displayedSecond = second;
+            minDurationText.setText(formatDuration(position));
+        }
+    }
+
+    // formatDuration(): Formats the specified song position (in milliseconds) as a "M:SS" string.
+    private static String formatDuration(int position) {
+
+        int seconds = position / 1000;
+        int minutes = seconds / 60;
+        seconds = seconds % 60;
+
+        if (seconds < 10) {
+            return minutes + ":0" + seconds;
+        }
+
+        return minutes + ":" + seconds;
     }
 
     // updateAutoPlayButton(): Updates the graphics of the auto play button.
@@ -510,20 +712,12 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
 
             // AUTO PLAY ENABLED:
             if (isAutoPlay) {
-
-                Picasso.with(currentActivity)
-                        .load(R.drawable.ss_forward_on)
-                        .resize((int) (36 * curDensity), (int) (36 * curDensity))
-                        .into(autoPlayButton);
+                autoPlayButton.setImageDrawable(autoPlayOnIcon);
             }
 
             // AUTO PLAY DISABLED:
             else {
-
-                Picasso.with(currentActivity)
-                        .load(R.drawable.ss_forward_off)
-                        .resize((int) (36 * curDensity), (int) (36 * curDensity))
-                        .into(autoPlayButton);
+                autoPlayButton.setImageDrawable(autoPlayOffIcon);
             }
         }
     }
@@ -536,20 +730,12 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
 
             // REPEAT ENABLED:
             if (isRepeat) {
-
-                Picasso.with(currentActivity)
-                        .load(R.drawable.ss_repeat_on)
-                        .resize((int) (36 * curDensity), (int) (36 * curDensity))
-                        .into(repeatButton);
+                repeatButton.setImageDrawable(repeatOnIcon);
             }
 
             // REPEAT DISABLED:
             else {
-
-                Picasso.with(currentActivity)
-                        .load(R.drawable.ss_repeat_off)
-                        .resize((int) (36 * curDensity), (int) (36 * curDensity))
-                        .into(repeatButton);
+                repeatButton.setImageDrawable(repeatOffIcon);
             }
         }
     }
@@ -562,20 +748,12 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
 
             // PLAYING:
             if (isPlay) {
-
-                Picasso.with(currentActivity)
-                        .load(android.R.drawable.ic_media_pause)
-                        .resize((int) (64 * curDensity), (int) (64 * curDensity))
-                        .into(playPauseButton);
+                playPauseButton.setImageDrawable(pauseIcon);
             }
 
             // STOP / PAUSED:
             else {
-
-                Picasso.with(currentActivity)
-                        .load(android.R.drawable.ic_media_play)
-                        .resize((int) (64 * curDensity), (int) (64 * curDensity))
-                        .into(playPauseButton);
+                playPauseButton.setImageDrawable(playIcon);
             }
         }
     }
@@ -590,6 +768,7 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
             autoPlayOn = false;
             updateAutoPlayButton(false); // Updates the auto play button ImageView.
             SSPreferences.setAutoPlay(false, SS_prefs); // Updates the SharedPreferences.
+            queueNextTrack(); // Clears any next track that was queued for a crossfade.
 
             // Displays a Toast of the updated settings.
             if (showMessage) {
@@ -604,6 +783,7 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
             SSPreferences.setAutoPlay(true, SS_prefs); // Updates the SharedPreferences.
 
             repeatToggle(false, false); // Disables repeat playback settings.
+            queueNextTrack(); // Queues the next track for a crossfade.
 
             // Displays a Toast of the updated settings.
             if (showMessage) {
@@ -634,6 +814,7 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
             SSPreferences.setRepeat(true, SS_prefs); // Updates the SharedPreferences.
 
             autoPlayToggle(false, false); // Disables auto playback settings.
+            queueNextTrack(); // Clears any next track that was queued for a crossfade.
 
             // Displays a Toast of the updated settings.
             if (showMessage) {
@@ -645,6 +826,12 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
     // initializeSongPlay(): Prepares the selected track for music playback.
     private void initializeSongPlay() {
 
+        // Cancels any skipped track that is waiting to be played, as this track replaces it.
+        skipHandler.removeCallbacks(skipPlayThread);
+        isSkipPending = false;
+
+        SSPlaybackMetrics.getInstance().markTap(); // Records the time at which playback was requested.
+
         loadPreferences(); // Loads values from SharedPreferences.
 
         // Signals the activity to signal the SSMusicService to begin streaming playback of
@@ -674,18 +861,25 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
             else {
                 displaySnackbarMessage(snackMessage);
             }
-
-            // Starts the song timer thread. This will display a time out error Toast message if the
-            // song is not ready in a given amount of time.
-            startStopSongTimer(true);
         }
 
         isPaused = false; // Indicates that the song is not paused.
         isPreparing = true; // Indicates that the song is currently being prepared for playback.
     }
 
-    // updateTrack(): Updates the song track details based on the set position.
-    private Boolean updateTrack(int position) {
+    // skipPlayThread(): A threaded function which plays the final track once the skip presses
+    // have stopped for SKIP_DEBOUNCE_DELAY milliseconds.
+    private Runnable skipPlayThread = new Runnable() {
+
+        public void run() {
+            isSkipPending = false;
+            initializeSongPlay(); // Prepares and plays the final skipped track.
+        }
+    };
+
+    // updateTrack(): Updates the song track details based on the set position. If isReset is
+    // true, the song position is reset to the beginning of the song.
+    private Boolean updateTrack(int position, Boolean isReset) {
 
         // Checks to see if the position has not exceeded the size of the trackList array or is a
         // non-negative value.
@@ -704,15 +898,22 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
 
             if (!isDestroyed) {
                 setUpText(); // Updates the artist and song name TextView objects.
-                minDurationText.setText("0:00"); // Resets the minimum duration TextView object.
+                updateMinDurationText(0); // Resets the minimum duration TextView object.
                 playerBar.setProgress(0); // Resets the seekbar.
             }
 
-            setPosition(0); // Resets the song track position.
+            seekController.cancel(); // Discards any pending seek for the previous track.
+
+            // Resets the song track position.
+            if (isReset) {
+                setPosition(0);
+            }
 
             // Sets the current track name for the SSMainActivity activity.
             updateCurrentTrack(songName, streamURL, selectedPosition);
 
+            setQueuePosition(selectedPosition); // Moves the SSMusicService playback queue to this track.
+
             return true; // Indicates that the track has changed.
         }
 
@@ -735,6 +936,32 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
         }
     }
 
+    // queueNextTrack(): Queues the next track in the tracklist to be crossfaded into once the
+    // current song nears it's end. The queued track is cleared if auto play or crossfade has been
+    // disabled, if repeat is enabled, or if the end of the tracklist has been reached.
+    private void queueNextTrack() {
+
+        String nextUrl = null;
+
+        if (autoPlayOn && !isLoop && (crossfadeSeconds > 0)) {
+
+            int nextPosition = getNextPosition();
+
+            if ((nextPosition >= 0) && (nextPosition < trackList.size())) {
+                nextUrl = trackList.get(nextPosition).getSongURL();
+            }
+        }
+
+        setNextTrack(nextUrl, crossfadeSeconds * 1000);
+    }
+
+    // getNextPosition(): Returns the track list position of the next track to be played. In shuffle
+    // mode, this is the next track in the shuffled play order of the SSMusicService playback queue,
+    // which is known ahead of time so that it can be prefetched for a crossfade.
+    private int getNextPosition() {
+        return isShuffleOn ? getNextQueuePosition() : selectedPosition + 1;
+    }
+
     /** PREFERENCE METHODS _____________________________________________________________________ **/
 
     // loadPreferences(): Loads the SharedPreference values from the stored SharedPreferences object.
@@ -746,15 +973,110 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
         // Retrieves the current auto play setting.
         autoPlayOn = SSPreferences.getAutoPlay(SS_prefs);
 
+        // Retrieves the current crossfade setting.
+        crossfadeSeconds = SSPreferences.getCrossfade(SS_prefs);
+
         // Retrieves the repeat setting.
         isLoop = SSPreferences.getRepeat(SS_prefs);
 
+        // Retrieves the shuffle setting.
+        isShuffleOn = SSPreferences.getShuffle(SS_prefs);
+
         // Retrieves the current notification player setting.
         notificationsOn = SSPreferences.getNotifications(SS_prefs);
     }
 
     /** INTERFACE METHODS ______________________________________________________________________ **/
 
+    // bufferingProgress(): An interface method invoked by the SSMusicEngine to display the buffered
+    // percentage of the song as the secondary progress of the player seekbar.
+    @Override
+    public void bufferingProgress(int percent) {
+
+        bufferedPercent = percent; // Stores the buffered percentage for any duration changes.
+
+        if (!isDestroyed) {
+            playerBar.setSecondaryProgress(playerBar.getMax() * percent / 100);
+        }
+    }
+
+    // bufferingStatus(): An interface method invoked by the SSMusicEngine when the song has stalled
+    // due to buffering, or has resumed after buffering.
+    @Override
+    public void bufferingStatus(Boolean isBuffering) {
+
+        // Displays the progress indicator container while the song is stalled.
+        if (!isDestroyed && !isPreparing) {
+
+            if (isBuffering) {
+                progressLayer.setVisibility(View.VISIBLE);
+            }
+
+            else {
+                progressLayer.setVisibility(View.INVISIBLE);
+            }
+        }
+    }
+
+    // playbackAdvanced(): An interface method invoked by the SSMusicEngine when playback has
+    // crossfaded into the next song in the tracklist. The track details are updated without
+    // resetting the song position, as the next song is already playing.
+    @Override
+    public void playbackAdvanced() {
+
+        if (updateTrack(getNextPosition(), false)) {
+
+            if (!isDestroyed) {
+                updateActionBar(songName); // Updates the ActionBar title.
+            }
+
+            // Updates the notification player with the new track.
+            updateNotification(streamURL, notificationsOn, albumBitmap, artistName, songName);
+
+            queueNextTrack(); // Queues the following track for a crossfade.
+        }
+    }
+
+    // playbackCompleted(): An interface method invoked by the SSMusicEngine when the song has
+    // reached the end of playback.
+    @Override
+    public void playbackCompleted() {
+
+        isPlaying = false; // Indicates that the song is no longer being played.
+        updatePlayPauseButton(isPlaying); // Updates the player control buttons.
+
+        // If the song has stopped and is not paused, the seek bar and the current position text is
+        // reset.
+        if (!isPaused && !isPreparing) {
+
+            pauseTrack(true); // Indicates that the song has stopped playback.
+            SSNotificationPlayer.removeNotifications(currentActivity); // Removes any active notifications.
+
+            if (!isDestroyed) {
+                playerBar.setProgress(0); // Resets the player seek bar.
+                updateMinDurationText(0); // Resets the minimum duration TextView object.
+            }
+
+            // REPEAT ENABLED: If the repeat playback feature has been enabled, the current song
+            // will be repeated.
+            if (isLoop) {
+                initializeSongPlay(); // Plays the current song.
+            }
+
+            // AUTO PLAY ENABLED: If the auto play feature has been enabled, the next song in the
+            // tracklist will automatically be played.
+            else if (autoPlayOn) {
+
+                // Checks to see if the end of the tracklist has been reached first.
+                int nextPosition = getNextPosition();
+                if ((nextPosition >= 0) && (nextPosition < trackList.size())) {
+                    playNextSong(true, false); // Sets the next song.
+                    playCurrentSong(); // Plays the current song.
+                }
+            }
+        }
+    }
+
     // playbackStatus(): An interface method invoked by the SSMusicEngine on the current playback
     // status of the song.
     @Override
@@ -768,13 +1090,14 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
         // PLAYING:
         if (isPlay) {
 
-            startStopSongTimer(false); // Turns off the song timer.
             isPreparing = false; // Indicates that the song is no longer being prepared.
 
             // Hides the progress indicator container as long as the fragment is not destroyed.
             if (!isDestroyed) {
                 progressLayer.setVisibility(View.INVISIBLE);
             }
+
+            queueNextTrack(); // Queues the next track for a crossfade.
         }
     }
 
@@ -801,8 +1124,23 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
 
         int newPosition = selectedPosition;
 
+        // SHUFFLE: The next or previous track is retrieved from the shuffled play order of the
+        // SSMusicService playback queue.
+        if (isShuffleOn) {
+
+            newPosition = skipQueue(isNext);
+
+            // Displays a Snackbar message informing the user that the end of the shuffled
+            // tracklist has been reached.
+            if (newPosition < 0) {
+                displaySnackbarMessage(isNext ? "Reached the end of the shuffled tracklist." :
+                        "Reached the beginning of the shuffle history.");
+                return;
+            }
+        }
+
         // NEXT TRACK:
-        if (isNext) {
+        else if (isNext) {
             newPosition++;
         }
 
@@ -811,13 +1149,29 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
             newPosition--;
         }
 
-        // Sets the song to the next track in the list.
-        Boolean isUpdate = updateTrack(newPosition);
+        // The current song is stopped on the first skip, which also cleanly cancels any song that
+        // is still being prepared.
+        Boolean wasActive = isPlaying || isPreparing || isSkipPending;
+        if (wasActive && !isSkipPending && (newPosition >= 0) && (newPosition < trackList.size())) {
+            pauseTrack(true); // Stops the current song.
+            isPreparing = false;
+        }
 
-        // If the previous track was playing when the next button was pressed, the new track
-        // is automatically played.
-        if (isUpdate && isPlaying) {
-            initializeSongPlay();
+        // Sets the song to the next track in the list. The track details are updated immediately.
+        Boolean isUpdate = updateTrack(newPosition, true);
+
+        // If the previous track was playing or being prepared when the next button was pressed, the
+        // new track is played once the skip presses have stopped, so that only the final track is
+        // prepared.
+        if (isUpdate && wasActive) {
+
+            if (!isDestroyed) {
+                updateActionBar(songName); // Updates the ActionBar title.
+            }
+
+            isSkipPending = true;
+            skipHandler.removeCallbacks(skipPlayThread);
+            skipHandler.postDelayed(skipPlayThread, SKIP_DEBOUNCE_DELAY);
         }
 
         // If the song is changed from the notification player while the song is not playing, the
@@ -827,80 +1181,39 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
         }
     }
 
-    // seekbarStatus(): An interface method invoked by the SSMusicEngine to update the player
-    // seekbar position.
+    // queuePosition(): An interface method invoked by the SSMusicService when this fragment is
+    // attached, with the track list position of the current track in the playback queue. The
+    // queue may have been navigated from the notification player while this fragment was detached.
     @Override
-    public void seekbarStatus(int position) {
-
-        if (!isDestroyed && !isPreparing) {
-
-            // Updates the seekbar as long as the song is playing.
-            if (position != -1) {
-
-                Log.d(LOG_TAG, "seekbarStatus(): Setting the seekbar position: " + position);
-
-                playerBar.setProgress(position); // Sets the current position for the player seekbar.
-
-                // Prepares the formatting of the text to set for the minimum duration TextView.
-                String curDuration;
-                if (position < 10) {
-                    curDuration = "0:0" + position;
-                }
-
-                else {
-                    curDuration = "0:" + position;
-                }
+    public void queuePosition(int position) {
 
-                // Sets the current position into the minimum duration TextView object.
-                minDurationText.setText(curDuration);
-            }
+        // Ignores the position if a new track list has yet to be set in the playback queue.
+        if (!isQueueChanged && (position >= 0) && (position != selectedPosition)) {
+            updateTrack(position, false);
+        }
+    }
 
-            // Updates the player control button states to reflect that the song is no longer playing.
-            else {
+    // seekbarStatus(): An interface method invoked by the SSMusicService to update the player
+    // seekbar position (in milliseconds).
+    @Override
+    public void seekbarStatus(int position) {
 
-                isPlaying = false; // Indicates that the song is no longer being played.
-                updatePlayPauseButton(isPlaying); // Updates the player control buttons.
-
-                // If the song has stopped and is not paused, the seek bar and the current position
-                // text is reset.
-                if (!isPaused) {
-                    pauseTrack(true); // Indicates that the song has stopped playback.
-                    playerBar.setProgress(0); // Resets the player seek bar.
-                    minDurationText.setText("0:00"); // Resets the minimum duration TextView object.
-                    SSNotificationPlayer.removeNotifications(currentActivity); // Removes any active notifications.
-
-                    if (!isPreparing) {
-
-                        // REPEAT ENABLED: If the repeat playback feature has been enabled, the
-                        // current song will be repeated.
-                        if (isLoop) {
-                            initializeSongPlay(); // Plays the current song.
-                        }
-
-                        // AUTO PLAY ENABLED: If the auto play feature has been enabled, the next
-                        // song in the tracklist will automatically be played.
-                        else if (autoPlayOn) {
-
-                            // Checks to see if the end of the tracklist has been reached first.
-                            if ( (selectedPosition + 1) < trackList.size()) {
-                                playNextSong(true, false); // Sets the next song.
-                                playCurrentSong(); // Plays the current song.
-                            }
-                        }
-                    }
-                }
-            }
+        // Playback position updates are not displayed while a seek is being previewed.
+        if (!isDestroyed && !isPreparing && !seekController.isSeeking()) {
+            playerBar.setProgress(position); // Sets the current position for the player seekbar.
+            updateMinDurationText(position); // Sets the current position into the minimum duration TextView object.
         }
     }
 
     // setDuration(): An interface method invoked by the SSMusicEngine to set the player seekbar
-    // max duration.
+    // max duration (in milliseconds).
     @Override
     public void setDuration(int duration) {
 
         if (!isDestroyed) {
             playerBar.setMax(duration); // Sets the maximum duration of the player seekbar.
-            maxDurationText.setText("0:" + duration);
+            playerBar.setSecondaryProgress(duration * bufferedPercent / 100); // Rescales the buffered progress.
+            maxDurationText.setText(formatDuration(duration));
             Log.d(LOG_TAG, "setDuration(): Maximum duration of the seekbar set.");
         }
     }
@@ -962,6 +1275,48 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
         catch (ClassCastException cce) {} // Catch for class cast exception errors.
     }
 
+    // setNextTrack(): Signals the attached class to invoke the SSMusicService to set the next
+    // track to crossfade into.
+    private void setNextTrack(String url, int crossfade) {
+        try { ((OnMusicServiceListener) currentActivity.getApplication()).setNextTrack(url, crossfade); }
+        catch (ClassCastException cce) {} // Catch for class cast exception errors.
+    }
+
+    // getNextQueuePosition(): Retrieves the track list position of the next track in the
+    // SSMusicService playback queue from the attached class.
+    private int getNextQueuePosition() {
+        try { return ((OnMusicServiceListener) currentActivity.getApplication()).getNextQueuePosition(); }
+        catch (ClassCastException cce) { return -1; } // Catch for class cast exception errors.
+    }
+
+    // skipQueue(): Signals the attached class to move the SSMusicService playback queue to the next
+    // or previous track, and returns it's track list position.
+    private int skipQueue(Boolean isNext) {
+        try { return ((OnMusicServiceListener) currentActivity.getApplication()).skipQueue(isNext); }
+        catch (ClassCastException cce) { return -1; } // Catch for class cast exception errors.
+    }
+
+    // setPlaybackQueue(): Signals the attached class to set the track list as the SSMusicService
+    // playback queue.
+    private void setPlaybackQueue(ArrayList<SSSpotifyModel> list, int position) {
+        try { ((OnMusicServiceListener) currentActivity.getApplication()).setPlaybackQueue(list, position); }
+        catch (ClassCastException cce) {} // Catch for class cast exception errors.
+    }
+
+    // setQueuePosition(): Signals the attached class to move the SSMusicService playback queue to
+    // the specified track list position.
+    private void setQueuePosition(int position) {
+        try { ((OnMusicServiceListener) currentActivity.getApplication()).setQueuePosition(position); }
+        catch (ClassCastException cce) {} // Catch for class cast exception errors.
+    }
+
+    // setPlayerVisible(): Signals the attached class to invoke the SSMusicService to start/stop
+    // seekbar updates, depending on whether this fragment is currently visible.
+    private void setPlayerVisible(Boolean isVisible) {
+        try { ((OnMusicServiceListener) currentActivity.getApplication()).setPlayerVisible(isVisible); }
+        catch (ClassCastException cce) {} // Catch for class cast exception errors.
+    }
+
     // setPosition(): Signals the attached class to invoke the SSMusicService to update the song
     // position.
     private void setPosition(int position) {
@@ -969,13 +1324,6 @@ public class SSPlayerFragment extends DialogFragment implements OnMusicPlayerLis
         catch (ClassCastException cce) {} // Catch for class cast exception errors.
     }
 
-    // startStopSongTimer(): Signals the attached class to start/stop the song timer that is used
-    // to display a time out error if the song is not ready for playback by a certain amount of time.
-    private void startStopSongTimer(Boolean isStart) {
-        try { ((OnMusicServiceListener) currentActivity.getApplication()).startStopSongTimer(isStart); }
-        catch (ClassCastException cce) {} // Catch for class cast exception errors.
-    }
-
     // updateActionBar(): Signals the attached activity to update the ActionBar title.
     private void updateActionBar(String name) {
         try { ((OnTrackInfoUpdateListener) currentActivity).updateActionBar(name); }
@@ -81,13 +81,28 @@ public class SSSettingsFragment extends PreferenceFragment implements SharedPref
 
         // Assigns the references to the preference objects.
         ListPreference countryListPref = (ListPreference) findPreference("ss_country_code");
+        ListPreference crossfadeListPref = (ListPreference) findPreference("ss_crossfade_list");
         CheckBoxPreference notificationsPref = (CheckBoxPreference) findPreference("ss_notifications");
+        CheckBoxPreference shufflePref = (CheckBoxPreference) findPreference("ss_shuffle");
+        CheckBoxPreference warmUpPref = (CheckBoxPreference) findPreference("ss_warm_up");
 
         // COUNTRY CODE: Updates the country code settings.
         String currentCode = countryListPref.getValue();
         countryListPref.setTitle("Current Country Code: " + currentCode);
         SSPreferences.setCountryCode(currentCode, SS_prefs); // Sets the new value in SharedPreferences.
 
+        // CROSSFADE: Updates the crossfade settings.
+        crossfadeListPref.setTitle("Crossfade: " + crossfadeListPref.getEntry());
+        SSPreferences.setCrossfade(Integer.parseInt(crossfadeListPref.getValue()), SS_prefs); // Sets the new value in SharedPreferences.
+
+        // SHUFFLE: Updates the shuffle settings.
+        shufflePref.setTitle("Shuffle Tracklist: " + (shufflePref.isChecked() ? "ON" : "OFF"));
+        SSPreferences.setShuffle(shufflePref.isChecked(), SS_prefs); // Sets the new value in SharedPreferences.
+
+        // WARM UP: Updates the player warm up settings.
+        warmUpPref.setTitle("Warm Up Player On Launch: " + (warmUpPref.isChecked() ? "ON" : "OFF"));
+        SSPreferences.setWarmUp(warmUpPref.isChecked(), SS_prefs); // Sets the new value in SharedPreferences.
+
         // NOTIFICATION PLAYER: Updates the notification settings.
         // ON:
         if (notificationsPref.isChecked()) {
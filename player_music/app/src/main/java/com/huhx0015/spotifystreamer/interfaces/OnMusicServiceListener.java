@@ -2,6 +2,8 @@ package com.huhx0015.spotifystreamer.interfaces;
 
 import android.graphics.Bitmap;
 import android.support.v4.app.Fragment;
+import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
+import java.util.ArrayList;
 
 /**
  * -------------------------------------------------------------------------------------------------
@@ -19,6 +21,10 @@ public interface OnMusicServiceListener {
     // fragment to the SSMusicService class.
     void attachFragment(Fragment fragment);
 
+    // getNextQueuePosition(): Interface method that returns the track list position of the next
+    // track in the SSMusicService playback queue, or -1 if there is none.
+    int getNextQueuePosition();
+
     // pauseTrack(): Interface method that signals the attached class to pause the playback of a
     // Spotify track in the SSMusicService class.
     void pauseTrack(Boolean isStop);
@@ -32,17 +38,40 @@ public interface OnMusicServiceListener {
     // the SSMusicService altogether.
     void removeAudioService();
 
-    // setPosition(): Interface method that signals the attached class to skip to the position of
-    // a Spotify track in the SSMusicService class.
+    // resumeTrack(): Interface method that signals the attached class to play the current track in
+    // the playback queue, such as a track restored from the playback snapshot. Returns false if
+    // there is no track to resume.
+    Boolean resumeTrack();
+
+    // setNextTrack(): Interface method that signals the attached class to set the next Spotify
+    // track to crossfade into, over the specified crossfade duration (in milliseconds).
+    void setNextTrack(String url, int crossfade);
+
+    // setPlaybackQueue(): Interface method that signals the attached class to replace the
+    // SSMusicService playback queue with the specified track list, starting at the specified
+    // track list position.
+    void setPlaybackQueue(ArrayList<SSSpotifyModel> list, int position);
+
+    // setPlayerVisible(): Interface method that signals the attached class whether the player
+    // interface is currently visible, so that seekbar updates are only delivered while visible.
+    void setPlayerVisible(Boolean isVisible);
+
+    // setPosition(): Interface method that signals the attached class to skip to the position (in
+    // milliseconds) of a Spotify track in the SSMusicService class.
     void setPosition(int position);
 
+    // setQueuePosition(): Interface method that signals the attached class to move the
+    // SSMusicService playback queue to the specified track list position.
+    void setQueuePosition(int position);
+
     // setUpAudioService(): Interface method that signals the attached class to setup the
     // SSMusicService service for playing audio from the SSMusicEngine class in the background.
     void setUpAudioService();
 
-    // startStopSongtimer(): Interface method that signals the attached class to start/stop the song
-    // timer thread, which will display a timeout message if the song is not ready by a given time.
-    void startStopSongTimer(Boolean isStart);
+    // skipQueue(): Interface method that signals the attached class to move the SSMusicService
+    // playback queue to the next or previous track, and returns it's track list position, or -1 if
+    // there is none.
+    int skipQueue(Boolean isNext);
 
     // updateNotification(): Interface method that signals the attached class to update the
     // notification player when the next/previous button is pressed from SSPlayerFragment.
@@ -0,0 +1,46 @@
+package com.huhx0015.spotifystreamer.interfaces;
+
+/**
+ * -------------------------------------------------------------------------------------------------
+ * [OnPlaybackEventListener] INTERFACE
+ * PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ * DESCRIPTION: This is an interface class that is implemented by the subscribers of the
+ * SSPlaybackEventBus class. The methods are invoked on the main thread, at most once per frame for
+ * the position, duration and buffering progress updates.
+ * -------------------------------------------------------------------------------------------------
+ */
+
+public interface OnPlaybackEventListener {
+
+    // bufferingProgress(): Interface method that is used to signal the percentage of the Spotify
+    // streaming song that has been buffered.
+    void bufferingProgress(int percent);
+
+    // bufferingStatus(): Interface method that is used to signal whether the Spotify streaming song
+    // has stalled due to buffering.
+    void bufferingStatus(Boolean isBuffering);
+
+    // playbackAdvanced(): Interface method that is used to signal that playback has crossfaded into
+    // the next song in the tracklist.
+    void playbackAdvanced();
+
+    // playbackCompleted(): Interface method that is used to signal that the current song has
+    // reached the end of playback.
+    void playbackCompleted();
+
+    // playbackStatus(): Interface method that is used to determine the current song playback status
+    // (whether it is currently playing in the background or not).
+    void playbackStatus(Boolean isPlay);
+
+    // seekbarStatus(): Interface method that is used to signal the current playback position (in
+    // milliseconds) of the Spotify streaming song.
+    void seekbarStatus(int position);
+
+    // setDuration(): Interface method that is used to determine the max song duration (in
+    // milliseconds) of the Spotify streaming song.
+    void setDuration(int duration);
+
+    // stopSongPrepare(): Interface method that is used to signal that the song preparation has
+    // stopped.
+    void stopSongPrepare(Boolean isStop);
+}
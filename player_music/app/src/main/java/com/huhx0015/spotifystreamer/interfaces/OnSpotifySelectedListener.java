@@ -1,6 +1,7 @@
 package com.huhx0015.spotifystreamer.interfaces;
 
 import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
+import com.huhx0015.spotifystreamer.ui.adapters.SSResultsViewPool;
 import java.util.ArrayList;
 
 /**
@@ -25,4 +26,8 @@ public interface OnSpotifySelectedListener {
     // displayPlayerFragment(): Interface method which signals the attached activity to switch the
     // fragment view between SSTracksFragment and the SSPlayerFragment.
     void displayPlayerFragment(Boolean isShow, String fragToRemove, ArrayList<SSSpotifyModel> list, int position, Boolean isReset);
+
+    // getResultsViewPool(): Interface method which returns the view pool that is shared by the
+    // result lists of the SSArtistsFragment and SSTracksFragment.
+    SSResultsViewPool getResultsViewPool();
 }
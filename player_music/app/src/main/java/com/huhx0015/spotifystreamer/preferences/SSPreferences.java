@@ -56,16 +56,37 @@ public class SSPreferences {
         return preferences.getString("ss_country_code", "US"); // Retrieves the country code setting.
     }
 
+    // getCrossfade(): Retrieves the "ss_crossfade" value (in seconds) from preferences.
+    public static int getCrossfade(SharedPreferences preferences) {
+        return preferences.getInt("ss_crossfade", 0); // Retrieves the ss_crossfade value.
+    }
+
     // getNotifications(): Retrieves the "ss_notifications" value from preferences.
     public static Boolean getNotifications(SharedPreferences preferences) {
         return preferences.getBoolean("ss_notifications", true); // Retrieves the ss_notifications value.
     }
 
+    // getPrepareTimeout(): Retrieves the "ss_prepare_timeout" value (in milliseconds) from
+    // preferences.
+    public static int getPrepareTimeout(SharedPreferences preferences) {
+        return preferences.getInt("ss_prepare_timeout", 10000); // Retrieves the ss_prepare_timeout value.
+    }
+
     // getRepeat(): Retrieves the "ss_repeat" value from preferences.
     public static Boolean getRepeat(SharedPreferences preferences) {
         return preferences.getBoolean("ss_repeat", false); // Retrieves the ss_repeat value.
     }
 
+    // getShuffle(): Retrieves the "ss_shuffle" value from preferences.
+    public static Boolean getShuffle(SharedPreferences preferences) {
+        return preferences.getBoolean("ss_shuffle", false); // Retrieves the ss_shuffle value.
+    }
+
+    // getWarmUp(): Retrieves the "ss_warm_up" value from preferences.
+    public static Boolean getWarmUp(SharedPreferences preferences) {
+        return preferences.getBoolean("ss_warm_up", true); // Retrieves the ss_warm_up value.
+    }
+
     /** SET PREFERENCES FUNCTIONALITY __________________________________________________________ **/
 
     // setAutoPlay(): Sets the "ss_auto_play" value to preferences.
@@ -88,6 +109,16 @@ public class SSPreferences {
         prefEdit.apply(); // Applies the changes to SharedPreferences.
     }
 
+    // setCrossfade(): Sets the "ss_crossfade" value (in seconds) to preferences.
+    public static void setCrossfade(int seconds, SharedPreferences preferences) {
+
+        // Prepares the SharedPreferences object for editing.
+        SharedPreferences.Editor prefEdit = preferences.edit();
+
+        prefEdit.putInt("ss_crossfade", seconds); // Sets the crossfade setting.
+        prefEdit.apply(); // Applies the changes to SharedPreferences.
+    }
+
     // setNotifications(): Sets the "ss_notifications" value to preferences.
     public static void setNotifications(Boolean isNotificationsOn, SharedPreferences preferences) {
 
@@ -98,6 +129,16 @@ public class SSPreferences {
         prefEdit.apply(); // Applies the changes to SharedPreferences.
     }
 
+    // setPrepareTimeout(): Sets the "ss_prepare_timeout" value (in milliseconds) to preferences.
+    public static void setPrepareTimeout(int timeout, SharedPreferences preferences) {
+
+        // Prepares the SharedPreferences object for editing.
+        SharedPreferences.Editor prefEdit = preferences.edit();
+
+        prefEdit.putInt("ss_prepare_timeout", timeout); // Sets the prepare timeout setting.
+        prefEdit.apply(); // Applies the changes to SharedPreferences.
+    }
+
     // setRepeat(): Sets the "ss_repeat" value to preferences.
     public static void setRepeat(Boolean isRepeat, SharedPreferences preferences) {
 
@@ -107,4 +148,24 @@ public class SSPreferences {
         prefEdit.putBoolean("ss_repeat", isRepeat); // Sets the repeat setting.
         prefEdit.apply(); // Applies the changes to SharedPreferences.
     }
+
+    // setShuffle(): Sets the "ss_shuffle" value to preferences.
+    public static void setShuffle(Boolean isShuffle, SharedPreferences preferences) {
+
+        // Prepares the SharedPreferences object for editing.
+        SharedPreferences.Editor prefEdit = preferences.edit();
+
+        prefEdit.putBoolean("ss_shuffle", isShuffle); // Sets the shuffle setting.
+        prefEdit.apply(); // Applies the changes to SharedPreferences.
+    }
+
+    // setWarmUp(): Sets the "ss_warm_up" value to preferences.
+    public static void setWarmUp(Boolean isWarmUp, SharedPreferences preferences) {
+
+        // Prepares the SharedPreferences object for editing.
+        SharedPreferences.Editor prefEdit = preferences.edit();
+
+        prefEdit.putBoolean("ss_warm_up", isWarmUp); // Sets the warm up setting.
+        prefEdit.apply(); // Applies the changes to SharedPreferences.
+    }
 }
\ No newline at end of file
@@ -4,21 +4,35 @@ import android.annotation.TargetApi;
 import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.graphics.Bitmap;
 import android.media.MediaMetadata;
 import android.media.session.MediaController;
 import android.media.session.MediaSession;
-import android.media.session.MediaSessionManager;
+import android.media.session.PlaybackState;
 import android.os.Binder;
 import android.os.Build;
 import android.os.Handler;
 import android.os.IBinder;
 import android.support.v4.app.Fragment;
 import android.util.Log;
+import com.huhx0015.spotifystreamer.BuildConfig;
 import com.huhx0015.spotifystreamer.audio.SSMusicEngine;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackClock;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackController;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackEngine;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackEventBus;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackMetrics;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackQueue;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackSnapshot;
+import com.huhx0015.spotifystreamer.audio.SSPlaybackState;
+import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
 import com.huhx0015.spotifystreamer.interfaces.OnMusicPlayerListener;
+import com.huhx0015.spotifystreamer.interfaces.OnPlaybackEventListener;
+import com.huhx0015.spotifystreamer.preferences.SSPreferences;
 import com.huhx0015.spotifystreamer.ui.notifications.SSNotificationPlayer;
 import com.huhx0015.spotifystreamer.ui.toast.SSToast;
+import java.util.ArrayList;
 
 /** -----------------------------------------------------------------------------------------------
  *  [SSMusicService] CLASS
@@ -32,7 +46,10 @@ public class SSMusicService extends Service {
     /** CLASS VARIABLES ________________________________________________________________________ **/
 
     // AUDIO VARIABLES
-    private SSMusicEngine ss_music; // SSMusicEngine class object that is used for music functionality.
+    private final SSPlaybackEngine playbackEngine = SSMusicEngine.getInstance(); // Playback engine that is used for music functionality.
+
+    // EVENT VARIABLES
+    private final SSPlaybackEventBus eventBus = SSPlaybackEventBus.getInstance(); // Delivers the playback events to the subscribers.
 
     // FRAGMENT VARIABLES
     private Fragment playerFragment; // References the player fragment attached to this service.
@@ -49,8 +66,28 @@ public class SSMusicService extends Service {
     public static final String ACTION_STOP = "action_stop";
 
     // MEDIA SESSION VARIABLES:
-    private MediaController streamerMediaController;
-    private MediaSessionManager streamerMediaSessionManager;
+    private MediaController streamerMediaController; // Used for relaying notification actions to the MediaSession.
+    private MediaSession streamerMediaSession; // The MediaSession used for the lifetime of this service.
+    private PlaybackState.Builder playbackStateBuilder; // Reused for each MediaSession playback state update.
+    private Bitmap sessionAlbumImage; // The album image currently set in the MediaSession metadata.
+    private String sessionArtist; // The artist name currently set in the MediaSession metadata.
+    private String sessionSongUrl; // The URL of the song played by the MediaSession play action.
+    private String sessionTrack; // The track name currently set in the MediaSession metadata.
+    private long sessionDuration = -1; // The song duration (in milliseconds) currently set in the MediaSession metadata.
+    private static final long SESSION_ACTIONS = PlaybackState.ACTION_PLAY | PlaybackState.ACTION_PAUSE |
+            PlaybackState.ACTION_STOP | PlaybackState.ACTION_SKIP_TO_NEXT |
+            PlaybackState.ACTION_SKIP_TO_PREVIOUS | PlaybackState.ACTION_SEEK_TO; // Actions supported by the MediaSession.
+
+    // QUEUE VARIABLES
+    private final SSPlaybackQueue playbackQueue = new SSPlaybackQueue(); // The queue of tracks to be played.
+    private final SSPlaybackController playbackController = new SSPlaybackController(playbackEngine, playbackQueue); // Keeps the playback engine and the playback queue in step.
+
+    // SNAPSHOT VARIABLES
+    private final SSPlaybackSnapshot playbackSnapshot = SSPlaybackSnapshot.getInstance(); // Persists the playback state for resuming after the process is killed.
+    private static final int SNAPSHOT_INTERVAL = 10000; // Number of milliseconds between song position snapshots during playback.
+
+    // SHARED PREFERENCE VARIABLES
+    private static final String SS_OPTIONS = "ss_options"; // Used to reference the name of the preference XML file.
 
     // SERVICE VARIABLES
     private final IBinder audioBind = new SSMusicBinder(); // IBinder object that is used to bind this service to an activity.
@@ -59,7 +96,11 @@ public class SSMusicService extends Service {
     private final int api_level = android.os.Build.VERSION.SDK_INT; // Used to determine the device's Android API version.
 
     // THREAD VARIABLES
+    private Boolean isPlayerVisible = false; // Used to determine if the player interface is currently visible.
+    private Boolean isSeekbarRunning = false; // Used to determine if the seekbar update thread is currently running.
     private Handler seekHandler = new Handler(); // Handler for the seekbar update thread.
+    private int lastSeekbarPosition = -1; // The last song position (in milliseconds) relayed to the SSPlayerFragment.
+    private static final int FRAME_INTERVAL = 16; // Number of milliseconds between seekbar updates (~60 fps).
 
     /** SERVICE LIFECYCLE METHODS ______________________________________________________________ **/
 
@@ -72,7 +113,73 @@ public class SSMusicService extends Service {
         Log.d(LOG_TAG, "SERVICE LIFECYCLE (onCreate): onCreate() invoked.");
 
         // AUDIO CLASS INITIALIZATION:
-        ss_music.getInstance().initializeAudio(getApplicationContext());
+        playbackEngine.initializeAudio(getApplicationContext());
+
+        // Warms up the media framework, so that the first song is prepared sooner.
+        if (SSPreferences.getWarmUp(SSPreferences.initializePreferences(SS_OPTIONS, this))) {
+            playbackEngine.warmUp();
+        }
+
+        // SNAPSHOT INITIALIZATION: The last playback snapshot is read in the background, and is
+        // only restored if no track has been queued by then.
+        playbackSnapshot.initializeSnapshot(this);
+        playbackSnapshot.restore(new SSPlaybackSnapshot.OnSnapshotRestoredListener() {
+
+            @Override
+            public void onSnapshotRestored(ArrayList<SSSpotifyModel> tracks, int trackPosition, int songPosition) {
+
+                if (playbackQueue.size() == 0) {
+                    restoreSnapshot(tracks, trackPosition, songPosition);
+                }
+            }
+        });
+
+        // Follows the playback engine from one track to the next while no player interface is
+        // attached.
+        eventBus.subscribe(playbackEventListener, SSPlaybackEventBus.EVENT_PLAYBACK_ADVANCED |
+                SSPlaybackEventBus.EVENT_PLAYBACK_COMPLETED);
+
+        // Starts/stops the seekbar update thread whenever the playback clock starts or stops, so
+        // that no updates are run while the song is paused, stopped or being prepared. The clock is
+        // anchored on the SSMusicEngine playback thread, so the change is posted to the main thread.
+        playbackEngine.setOnClockStateListener(new SSPlaybackClock.OnClockStateListener() {
+
+            @Override
+            public void onClockStateChanged(final boolean isRunning) {
+
+                seekHandler.post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        startStopThreads(isRunning);
+                        startStopSnapshots(isRunning);
+
+                        // Updates the lock screen position and playback state.
+                        if (api_level >= 21) {
+                            updateMediaPlaybackState(playbackEngine.getSongPosition());
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    // onDestroy(): The system calls this method when the service is no longer used and is being
+    // destroyed.
+    @Override
+    public void onDestroy() {
+        playbackEngine.setOnClockStateListener(null);
+        eventBus.unsubscribe(playbackEventListener);
+        startStopThreads(false); // Stops the seekbar update thread.
+        seekHandler.removeCallbacks(snapshotThread); // Stops the snapshot thread.
+        playbackSnapshot.flush(); // Writes any pending playback snapshot.
+
+        // Releases the MediaSession used for the notification and lock screen media controls.
+        if (api_level >= 21) {
+            releaseMediaSession();
+        }
+
+        super.onDestroy();
     }
 
     /** SERVICE EXTENSION METHODS ______________________________________________________________ **/
@@ -81,8 +188,8 @@ public class SSMusicService extends Service {
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
 
-        // Processes the incoming intent as long as the streamerMediaSessionManager is not null.
-        if (streamerMediaSessionManager != null) {
+        // Processes the incoming intent as long as the MediaSession has been created.
+        if (streamerMediaController != null) {
             processIntent(intent);
         }
 
@@ -99,110 +206,221 @@ public class SSMusicService extends Service {
     @Override
     public boolean onUnbind(Intent intent){
 
-        // If a song is currently playing in the background, the song playback is stopped.
-        if (ss_music.getInstance().isSongPlaying()) {
-            ss_music.getInstance().stopSong(); // Stops the playback of the song.
-        }
+        // Saves the song position before the song is stopped, so that it can be resumed later.
+        saveSnapshotPosition();
+        playbackSnapshot.flush();
+
+        // Stops any song playing or being prepared in the background. The playback engine ignores
+        // the command if there is no song to stop.
+        playbackEngine.stopSong();
 
         // Releases all audio-related instances if the service is unbound.
-        ss_music.getInstance().releaseMedia();
+        playbackEngine.releaseMedia();
+
+        // Logs the playback quality records of this session.
+        Log.i(LOG_TAG, "PLAYBACK METRICS: " + exportPlaybackMetrics());
 
         return false;
     }
 
     /** MUSIC ENGINE METHODS ___________________________________________________________________ **/
 
-    // attachPlayerFragment(): Attaches the SSPlayerFragment to the SSMusicEngine class.
+    // attachPlayerFragment(): Attaches the SSPlayerFragment to this service. Playback events are
+    // delivered to the SSPlayerFragment through the SSPlaybackEventBus.
     public void attachPlayerFragment(Fragment fragment) {
 
         Log.d(LOG_TAG, "attachPlayerFragment(): Attaching the SSPlayerFragment to the service.");
 
         this.playerFragment = fragment; // Sets the SSPlayerFragment to this class.
 
-        // Attaches the SSPlayerFragment to the SSMusicEngine instance.
-        if (ss_music.getInstance() != null) {
-            ss_music.getInstance().attachFragment(fragment);
+        // Updates the SSPlayerFragment with the current track, as the playback queue may have been
+        // navigated while no player interface was attached.
+        if (playbackQueue.size() > 0) {
+            queuePosition(playbackQueue.getCurrentPosition());
         }
     }
 
-    // pauseTrack(): Accesses the SSMusicEngine instance to pause the streaming song track.
+    // pauseTrack(): Accesses the playback engine to pause the streaming song track.
     public void pauseTrack(Boolean isStop) {
 
-        // Pauses the song if a song is currently playing in the background.
-        if (ss_music.getInstance().isSongPlaying()) {
-
-            // STOP:
-            if (isStop) {
-                ss_music.getInstance().stopSong();
-                Log.d(LOG_TAG, "pauseTrack(): Song was stopped.");
-            }
-
-            // PAUSE:
-            else {
-                ss_music.getInstance().pauseSong();
-                Log.d(LOG_TAG, "pauseTrack(): Song was paused.");
-            }
-        }
+        Log.d(LOG_TAG, "pauseTrack(): " + (isStop ? "Stop" : "Pause") + " requested.");
+        playbackController.pauseSong(isStop);
 
         playbackStatus(false); // Updates the SSPlayerFragment on the current playback status.
         startStopThreads(false); // Stops the seekbar update thread.
     }
 
-    // playTrack(): Accesses the SSMusicEngine instance to play the streaming song track.
+    // playTrack(): Accesses the playback engine to play the streaming song track.
     public void playTrack(String songUrl, Boolean loop, Bitmap albumImage, Boolean notiOn,
                           String albumArtist, String albumTrack) {
 
-        // Initiates music playback in SSMusicEngine.
-        ss_music.getInstance().playSongUrl(songUrl, loop);
+        // Initiates music playback in the playback engine, with the prepare deadline of the current
+        // preference settings.
+        updatePlaybackSettings();
+        playbackController.playSong(songUrl, loop);
 
         // ANDROID API 21+: If notification playback has been enabled, the notification media player
         // is built and displayed for devices running ANDROID API 21 (LOLLIPOP) and above.
         if (notiOn && api_level >= 21) {
-            initializeMediaSession(songUrl, albumImage, albumArtist, albumTrack);
+            updateMediaSession(songUrl, albumImage, albumArtist, albumTrack);
         }
+    }
+
+    // exportPlaybackMetrics(): Returns the playback quality records as a JSON string, tagged with
+    // the application version name.
+    public String exportPlaybackMetrics() {
+        return SSPlaybackMetrics.getInstance().toJson(BuildConfig.VERSION_NAME);
+    }
 
-        startStopThreads(true); // Begins the seekbar update thread.
+    // isPreparing(): Accesses the playback engine to determine if a song is currently being
+    // prepared for playback.
+    public Boolean isPreparing() {
+        return playbackEngine.isPreparing();
     }
 
-    // releaseMedia(): Accesses the SSMusicEngine instance to release all resources used by the
-    // MediaPlayer object.
+    // releaseMedia(): Accesses the playback engine to release all resources used by the
+    // MediaPlayer object. The song position is saved first, so that it can be resumed later.
     public void releaseMedia() {
-        ss_music.getInstance().releaseMedia();
+        saveSnapshotPosition();
+        playbackEngine.releaseMedia();
+    }
+
+    // setNextTrack(): Accesses the playback engine to set the next track to crossfade into.
+    public void setNextTrack(String songUrl, int crossfade) {
+        playbackEngine.setNextSong(songUrl, crossfade);
+    }
+
+    // setPlaybackQueue(): Replaces the playback queue with the specified track list, starting at
+    // the specified track list position.
+    public void setPlaybackQueue(ArrayList<SSSpotifyModel> list, int position) {
+        updatePlaybackSettings(); // Generates the shuffled play order as the tracks are added.
+        playbackQueue.setTracks(list, position);
+        playbackSnapshot.updateQueue(list, position);
+    }
+
+    // getNextQueuePosition(): Returns the track list position of the next track in the playback
+    // queue, or -1 if the end of the queue has been reached.
+    public int getNextQueuePosition() {
+        updatePlaybackSettings();
+        return playbackQueue.getNextPosition();
+    }
+
+    // skipQueue(): Moves the playback queue to the next or previous track, and returns it's track
+    // list position, or -1 if the end of the queue has been reached.
+    public int skipQueue(Boolean isNext) {
+
+        updatePlaybackSettings();
+
+        SSSpotifyModel track = isNext ? playbackQueue.next() : playbackQueue.previous();
+
+        if (track == null) {
+            return -1;
+        }
+
+        updateSnapshot(0);
+        return playbackQueue.getCurrentPosition();
+    }
+
+    // updatePlaybackSettings(): Updates the playback controller with the current preference
+    // settings. The shuffled play order is only generated when the setting has changed.
+    private void updatePlaybackSettings() {
+
+        SharedPreferences preferences = SSPreferences.initializePreferences(SS_OPTIONS, this);
+
+        playbackController.updateSettings(SSPreferences.getAutoPlay(preferences), SSPreferences.getRepeat(preferences),
+                SSPreferences.getShuffle(preferences), SSPreferences.getCrossfade(preferences) * 1000,
+                SSPreferences.getPrepareTimeout(preferences));
+    }
+
+    // setQueuePosition(): Moves the playback queue to the specified track list position.
+    public void setQueuePosition(int position) {
+        playbackQueue.moveTo(position);
+        updateSnapshot(0);
+    }
+
+    // resumeTrack(): Plays the current track in the playback queue, such as a track that has been
+    // restored from the playback snapshot. Returns false if the playback queue is empty.
+    public Boolean resumeTrack() {
+
+        updatePlaybackSettings();
+
+        SSSpotifyModel track = playbackController.playCurrentTrack();
+
+        if (track == null) {
+            return false;
+        }
+
+        if (SSPreferences.getNotifications(SSPreferences.initializePreferences(SS_OPTIONS, this)) && (api_level >= 21)) {
+            updateMediaSession(track.getSongURL(), sessionAlbumImage, track.getArtist(), track.getSong());
+        }
+
+        return true;
     }
 
-    // setPosition(): Accesses the SSMusicEngine instance to update the song position.
+    // setPlayerVisible(): Updates the visibility state of the player interface. The seekbar update
+    // thread only runs while the player interface is visible and the song is playing.
+    public void setPlayerVisible(Boolean isVisible) {
+        this.isPlayerVisible = isVisible;
+        startStopThreads(playbackEngine.isSongPlaying());
+    }
+
+    // setPosition(): Accesses the playback engine to update the song position.
     public void setPosition(int position){
-        ss_music.getInstance().setSongPosition(position);
+        playbackEngine.setSongPosition(position);
+
+        // Updates the lock screen position, as the seek does not start or stop the playback clock.
+        if (api_level >= 21) {
+            updateMediaPlaybackState(position);
+        }
     }
 
-    // updatePlayer(): Signals the SSMusicEngine instance to update the attached player fragment of
+    // updatePlayer(): Signals the playback engine to update the attached player fragment of
     // the current song status, as well as the song's max duration.
     public void updatePlayer() {
-        ss_music.getInstance().updatePlayer();
+        playbackEngine.updatePlayer();
+        seekbarStatus(playbackEngine.getSongPosition()); // Relays the current song position.
     }
 
     /** MEDIA PLAYER NOTIFICATION METHODS ______________________________________________________ **/
 
-    // intializeMediaSession(): Builds a new MediaSession for displaying a notification that users
-    // can interact with and be able to control audio playback.
+    // updateMediaSession(): Updates the MediaSession with the current track and displays the
+    // notification player that users can interact with to control audio playback. A single
+    // MediaSession is kept for the lifetime of this service, and the metadata is only rebuilt if
+    // the track details have changed.
     @TargetApi(Build.VERSION_CODES.LOLLIPOP)
-    public void initializeMediaSession(final String songUrl, final Bitmap albumImage,
-                                       final String albumArtist, final String albumTrack) {
+    public void updateMediaSession(String songUrl, Bitmap albumImage, String albumArtist, String albumTrack) {
 
-        // Creates a new MediaSession.
-        MediaSession streamerMediaSession = new MediaSession(getApplicationContext(), "SPOTIFY STREAMER");
-        streamerMediaSessionManager = (MediaSessionManager) getSystemService(Context.MEDIA_SESSION_SERVICE);
-        streamerMediaController = new MediaController(getApplicationContext(), streamerMediaSession.getSessionToken());
+        initializeMediaSession(); // Creates the MediaSession, if it has not already been created.
 
-        // Updates the current metadata for the track currently playing.
-        streamerMediaSession.setMetadata(new MediaMetadata.Builder()
-                .putBitmap(MediaMetadata.METADATA_KEY_ALBUM_ART, albumImage)
-                .putString(MediaMetadata.METADATA_KEY_ARTIST, albumArtist)
-                .putString(MediaMetadata.METADATA_KEY_ALBUM, albumTrack)
-                .putString(MediaMetadata.METADATA_KEY_TITLE, "Spotify Streamer")
-                .build());
+        sessionSongUrl = songUrl; // Sets the song that is played by the MediaSession play action.
 
-        streamerMediaSession.setActive(true); // Indicates that media commands can be received.
+        // Updates the metadata only if the displayed track details have changed.
+        if ((albumImage != sessionAlbumImage) || !isEqual(albumArtist, sessionArtist) || !isEqual(albumTrack, sessionTrack)) {
+            sessionAlbumImage = albumImage;
+            sessionArtist = albumArtist;
+            sessionTrack = albumTrack;
+            sessionDuration = -1; // The duration is set once the new song has been prepared.
+            updateMediaMetadata();
+        }
+
+        // Creates the notification with the media player controls.
+        SSNotificationPlayer.createNotificationPlayer(streamerMediaSession, albumImage, albumArtist, albumTrack, this);
+    }
+
+    // initializeMediaSession(): Creates the MediaSession that is used for receiving the
+    // notification and lock screen media controls. This is only done once for the lifetime of
+    // this service.
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void initializeMediaSession() {
+
+        if (streamerMediaSession != null) {
+            return;
+        }
+
+        // Creates a new MediaSession.
+        streamerMediaSession = new MediaSession(getApplicationContext(), "SPOTIFY STREAMER");
+        streamerMediaController = new MediaController(getApplicationContext(), streamerMediaSession.getSessionToken());
+        playbackStateBuilder = new PlaybackState.Builder().setActions(SESSION_ACTIONS);
 
         // Attaches a new Callback to receive the MediaSession updates.
         streamerMediaSession.setCallback(new MediaSession.Callback() {
@@ -213,13 +431,13 @@ public class SSMusicService extends Service {
                 super.onPlay();
 
                 // Displays a Toast message, notifying the user that the song is already playing.
-                if (ss_music.getInstance().isSongPlaying()) {
-                    SSToast.toastyPopUp(albumTrack + " by " + albumArtist + " currently playing.", getApplicationContext());
+                if (playbackEngine.isSongPlaying()) {
+                    SSToast.toastyPopUp(sessionTrack + " by " + sessionArtist + " currently playing.", getApplicationContext());
                 }
 
                 // Plays the song track.
-                else {
-                    playTrack(songUrl, false, albumImage, true, albumArtist, albumTrack);
+                else if (sessionSongUrl != null) {
+                    playTrack(sessionSongUrl, false, sessionAlbumImage, true, sessionArtist, sessionTrack);
                 }
             }
 
@@ -244,6 +462,13 @@ public class SSMusicService extends Service {
                 playNextSong(false); // Signals SSPlayerFragment to play the previous song in the tracklist.
             }
 
+            // SEEK: Runs when the song position has been changed from the lock screen.
+            @Override
+            public void onSeekTo(long position) {
+                super.onSeekTo(position);
+                setPosition((int) position); // Sets the new position of the song.
+            }
+
             // STOP: Runs when the stop action has been initiated.
             @Override
             public void onStop() {
@@ -255,8 +480,145 @@ public class SSMusicService extends Service {
         // Enables the ability to receive transport controls via the MediaSession Callback.
         streamerMediaSession.setFlags(MediaSession.FLAG_HANDLES_TRANSPORT_CONTROLS);
 
-        // Creates the notification with the media player controls.
-        SSNotificationPlayer.createNotificationPlayer(streamerMediaSession, albumImage, albumArtist, albumTrack, this);
+        streamerMediaSession.setActive(true); // Indicates that media commands can be received.
+    }
+
+    // updateMediaMetadata(): Updates the MediaSession metadata with the current track details and
+    // song duration.
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void updateMediaMetadata() {
+
+        MediaMetadata.Builder metadataBuilder = new MediaMetadata.Builder()
+                .putBitmap(MediaMetadata.METADATA_KEY_ALBUM_ART, sessionAlbumImage)
+                .putString(MediaMetadata.METADATA_KEY_ARTIST, sessionArtist)
+                .putString(MediaMetadata.METADATA_KEY_ALBUM, sessionTrack)
+                .putString(MediaMetadata.METADATA_KEY_TITLE, "Spotify Streamer");
+
+        // The duration is needed for scrubbing from the lock screen.
+        if (sessionDuration > 0) {
+            metadataBuilder.putLong(MediaMetadata.METADATA_KEY_DURATION, sessionDuration);
+        }
+
+        streamerMediaSession.setMetadata(metadataBuilder.build());
+    }
+
+    // updateMediaPlaybackState(): Updates the MediaSession playback state with the specified song
+    // position (in milliseconds). This is only called when the playback clock starts, stops or is
+    // moved by a seek, as the system extrapolates the position in between updates.
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void updateMediaPlaybackState(int position) {
+
+        if (streamerMediaSession == null) {
+            return;
+        }
+
+        // Sets the song duration once the song has been prepared.
+        int duration = playbackEngine.getSongDuration();
+        if ((duration > 0) && (duration != sessionDuration)) {
+            sessionDuration = duration;
+            updateMediaMetadata();
+        }
+
+        int state = playbackEngine.isSongPlaying() ? PlaybackState.STATE_PLAYING : PlaybackState.STATE_PAUSED;
+
+        streamerMediaSession.setPlaybackState(playbackStateBuilder
+                .setState(state, position, (state == PlaybackState.STATE_PLAYING) ? 1f : 0f)
+                .build());
+    }
+
+    // releaseMediaSession(): Releases the MediaSession once this service is destroyed.
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void releaseMediaSession() {
+
+        if (streamerMediaSession != null) {
+            streamerMediaSession.setActive(false);
+            streamerMediaSession.release();
+            streamerMediaSession = null;
+            streamerMediaController = null;
+        }
+    }
+
+    // isEqual(): Determines if the two specified strings are equal. Either string may be null.
+    private static boolean isEqual(String first, String second) {
+        return (first == null) ? (second == null) : first.equals(second);
+    }
+
+    // playQueueTrack(): Moves the playback queue to the next or previous track. This is used when
+    // no player interface is attached. If a song is currently playing or being prepared, the new
+    // track is played, otherwise only the notification player is updated.
+    private void playQueueTrack(Boolean isNext) {
+
+        updatePlaybackSettings();
+
+        SSSpotifyModel track = playbackController.skipTrack(isNext);
+
+        // Displays a Toast informing the user that the end of the queue has been reached.
+        if (track == null) {
+            SSToast.toastyPopUp(isNext ? "Reached the end of the tracklist." :
+                    "Reached the beginning of the tracklist.", getApplicationContext());
+            return;
+        }
+
+        updateQueueTrack(track);
+    }
+
+    // updateQueueTrack(): Updates the playback snapshot and the notification player once the
+    // playback queue has moved to the specified track. The album image is loaded by the player
+    // interface, so no image is displayed until the player interface is attached again.
+    private void updateQueueTrack(SSSpotifyModel track) {
+
+        updateSnapshot(0);
+
+        if (SSPreferences.getNotifications(SSPreferences.initializePreferences(SS_OPTIONS, this)) && (api_level >= 21)) {
+            updateMediaSession(track.getSongURL(), null, track.getArtist(), track.getSong());
+        }
+    }
+
+    /** SNAPSHOT METHODS _______________________________________________________________________ **/
+
+    // restoreSnapshot(): Restores the playback queue from the playback snapshot, and prepares the
+    // current track in the background so that it can be resumed with a single tap.
+    private void restoreSnapshot(ArrayList<SSSpotifyModel> tracks, int trackPosition, int songPosition) {
+
+        Log.d(LOG_TAG, "restoreSnapshot(): Restoring " + tracks.size() + " tracks at position " + trackPosition + ".");
+
+        setPlaybackQueue(tracks, trackPosition);
+        playbackSnapshot.updatePosition(playbackQueue.getCurrentPosition(), songPosition);
+
+        // Prepares the song and holds it at the snapshot position.
+        SSSpotifyModel track = playbackController.prepareCurrentTrack(songPosition);
+
+        if (track == null) {
+            return;
+        }
+
+        // Displays the restored track in the notification player, so that it can be resumed from
+        // there as well.
+        if (SSPreferences.getNotifications(SSPreferences.initializePreferences(SS_OPTIONS, this)) && (api_level >= 21)) {
+            updateMediaSession(track.getSongURL(), null, track.getArtist(), track.getSong());
+            updateMediaPlaybackState(songPosition);
+        }
+    }
+
+    // updateSnapshot(): Updates the playback snapshot with the current track and the specified song
+    // position (in milliseconds). The snapshot file is written in the background.
+    private void updateSnapshot(int songPosition) {
+
+        if (playbackQueue.size() > 0) {
+            playbackSnapshot.updatePosition(playbackQueue.getCurrentPosition(), songPosition);
+        }
+    }
+
+    // saveSnapshotPosition(): Saves the current song position to the playback snapshot, as long as
+    // the song can be resumed. The position is left unchanged once the song has been stopped or
+    // released, so that stopping the service does not discard the position to resume from.
+    private void saveSnapshotPosition() {
+
+        SSPlaybackState state = playbackEngine.getPlaybackState();
+
+        if ((state == SSPlaybackState.PLAYING) || (state == SSPlaybackState.PAUSED)) {
+            updateSnapshot(playbackEngine.getSongPosition());
+        }
     }
 
     // processIntent(): If this service is invoked by external audio controls in the notification
@@ -306,26 +668,107 @@ public class SSMusicService extends Service {
 
     /** THREAD METHODS _________________________________________________________________________ **/
 
-    // startStopThreads(): Starts/stops the seekbar thread.
+    // startStopThreads(): Starts/stops the seekbar thread. The thread is only started if the player
+    // interface is currently visible.
     public void startStopThreads(Boolean isStart) {
 
-        if (isStart) {
-            seekHandler.postDelayed(seekbarThread, 1000); // Begins the seekbar update thread.
+        seekHandler.removeCallbacks(seekbarThread); // Removes any pending seekbar updates.
+
+        if (isStart && isPlayerVisible) {
+            isSeekbarRunning = true;
+            seekHandler.post(seekbarThread); // Begins the seekbar update thread.
         }
 
         else {
-            seekHandler.removeCallbacks(seekbarThread); // Stops the seekbar update thread.
+            isSeekbarRunning = false; // Stops the seekbar update thread.
+        }
+    }
+
+    // startStopSnapshots(): Starts/stops the snapshot thread, which periodically saves the song
+    // position while the song is playing. The position is also saved whenever playback stops.
+    private void startStopSnapshots(Boolean isStart) {
+
+        seekHandler.removeCallbacks(snapshotThread); // Removes any pending snapshot updates.
+        saveSnapshotPosition();
+
+        if (isStart) {
+            seekHandler.postDelayed(snapshotThread, SNAPSHOT_INTERVAL);
         }
     }
 
+    // snapshotThread(): A threaded function which saves the song position to the playback snapshot
+    // while the song is playing.
+    private Runnable snapshotThread = new Runnable() {
+
+        public void run() {
+            saveSnapshotPosition();
+            seekHandler.postDelayed(this, SNAPSHOT_INTERVAL);
+        }
+    };
+
     // seekbarThread(): A threaded function which updates the player seekbar in the
-    // SSPlayerFragment.
+    // SSPlayerFragment at frame rate. The song position is interpolated by the playback clock, so
+    // the MediaPlayer object is not queried on each update.
     private Runnable seekbarThread = new Runnable() {
 
         public void run() {
-            int currentPosition = ss_music.getInstance().getSongPosition();
-            seekbarStatus(currentPosition); // Relays the song position value to SSPlayerFragment.
-            seekHandler.postDelayed(this, 1000);
+
+            if (isSeekbarRunning) {
+
+                int currentPosition = playbackEngine.getSongPosition();
+
+                // Relays the song position value to SSPlayerFragment only if it has changed.
+                if (currentPosition != lastSeekbarPosition) {
+                    seekbarStatus(currentPosition);
+                }
+
+                seekHandler.postDelayed(this, FRAME_INTERVAL);
+            }
+        }
+    };
+
+    // playbackEventListener(): Follows the playback engine from one track to the next while no
+    // SSPlayerFragment is attached, as the SSPlayerFragment does this itself when attached. The
+    // playback queue is moved to the new track and the following track is queued for a crossfade.
+    private OnPlaybackEventListener playbackEventListener = new SSPlaybackEventBus.OnPlaybackEventAdapter() {
+
+        // ADVANCED: Runs when playback has crossfaded into the next track.
+        @Override
+        public void playbackAdvanced() {
+
+            if (isPlayerAttached()) {
+                return;
+            }
+
+            updatePlaybackSettings();
+
+            SSSpotifyModel track = playbackController.advanceTrack();
+
+            if (track != null) {
+                updateQueueTrack(track);
+            }
+        }
+
+        // COMPLETED: Runs when the track has reached the end of playback without a crossfade.
+        @Override
+        public void playbackCompleted() {
+
+            if (isPlayerAttached()) {
+                return;
+            }
+
+            updatePlaybackSettings();
+
+            SSSpotifyModel track = playbackController.completeTrack();
+
+            if (track != null) {
+                updateQueueTrack(track);
+            }
+
+            // Removes the notification player once playback has ended, as the SSPlayerFragment does.
+            else {
+                SSNotificationPlayer.removeNotifications(SSMusicService.this);
+            }
         }
     };
 
@@ -349,48 +792,44 @@ public class SSMusicService extends Service {
 
     /** INTERFACE METHODS ______________________________________________________________________ **/
 
-    // seekbarStatus(): Signals the SSPlayerFragment on the current song position for updating the
-    // player seekbar.
+    // seekbarStatus(): Publishes the current song position for updating the player seekbar.
     private void seekbarStatus(int position) {
-
-        if (playerFragment != null) {
-            try { ((OnMusicPlayerListener) playerFragment).seekbarStatus(position); }
-            catch (ClassCastException cce) {} // Catch for class cast exception errors.
-        }
-
-        else {
-            Log.d(LOG_TAG, "seekbarStatus(): SSPlayerFragment was null.");
-        }
+        lastSeekbarPosition = position; // Stores the last relayed song position.
+        eventBus.publishPosition(position);
     }
 
-    // playbackStatus(): Signals the SSPlayerFragment on the current playback status of the
-    // streaming Spotify song.
+    // playbackStatus(): Publishes the current playback status of the streaming Spotify song.
     private void playbackStatus(Boolean isPlay) {
+        eventBus.publishPlaybackStatus(isPlay);
+    }
 
-        if (playerFragment != null) {
-
-            Log.d(LOG_TAG, "playbackStatus(): Attempting to update the SSPlayerFragment of the song playback status.");
+    // playNextSong(): Signals the SSPlayerFragment to play the previous or next song in the
+    // tracklist. If no SSPlayerFragment is attached, the playback queue is navigated directly.
+    private void playNextSong(Boolean isNext) {
 
-            try { ((OnMusicPlayerListener) playerFragment).playbackStatus(isPlay); }
+        if (isPlayerAttached()) {
+            try { ((OnMusicPlayerListener) playerFragment).playNextSong(isNext, true); }
             catch (ClassCastException cce) {} // Catch for class cast exception errors.
         }
 
         else {
-            Log.d(LOG_TAG, "playbackStatus(): SSPlayerFragment was null.");
+            Log.d(LOG_TAG, "playNextSong(): SSPlayerFragment was not attached, navigating the playback queue.");
+            playQueueTrack(isNext);
         }
     }
 
-    // playNextSong(): Signals the SSPlayerFragment to play the previous or next song in the
-    // tracklist.
-    private void playNextSong(Boolean isNext) {
+    // isPlayerAttached(): Determines if a SSPlayerFragment is currently attached to this service.
+    private Boolean isPlayerAttached() {
+        return (playerFragment != null) && playerFragment.isAdded();
+    }
+
+    // queuePosition(): Signals the SSPlayerFragment of the track list position of the current
+    // track in the playback queue.
+    private void queuePosition(int position) {
 
         if (playerFragment != null) {
-            try { ((OnMusicPlayerListener) playerFragment).playNextSong(isNext, true); }
+            try { ((OnMusicPlayerListener) playerFragment).queuePosition(position); }
             catch (ClassCastException cce) {} // Catch for class cast exception errors.
         }
-
-        else {
-            Log.d(LOG_TAG, "playNextSong(): SSPlayerFragment was null.");
-        }
     }
 }
\ No newline at end of file
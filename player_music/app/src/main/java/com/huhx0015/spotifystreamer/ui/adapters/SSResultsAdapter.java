@@ -1,7 +1,8 @@
 package com.huhx0015.spotifystreamer.ui.adapters;
 
 import android.app.Activity;
-import android.graphics.Color;
+import android.content.Context;
+import android.graphics.Bitmap;
 import android.support.v7.widget.CardView;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
@@ -13,6 +14,7 @@ import com.huhx0015.spotifystreamer.R;
 import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
 import com.huhx0015.spotifystreamer.interfaces.OnSpotifySelectedListener;
 import com.squareup.picasso.Picasso;
+import com.squareup.picasso.RequestCreator;
 import java.util.ArrayList;
 
 /** -----------------------------------------------------------------------------------------------
@@ -30,8 +32,13 @@ public class SSResultsAdapter extends RecyclerView.Adapter<SSResultsAdapter.SSRe
     // ACTIVITY VARIABLES
     private Activity currentActivity; // References the attached activity.
 
+    // IMAGE VARIABLES
+    private final Object imageTag = new Object(); // Tags the image requests of this list, so that they can be paused together.
+    private static final int THUMBNAIL_SIZE = 64; // Size of the album image thumbnails (in dp), matching the result card layout.
+
     // LAYOUT VARIABLES:
     private Boolean isClickable = true; // Used to determine if the items are clickable or not.
+    public static final int RESULT_VIEW_TYPE = 0; // View type of the result cards, which are shared between the result lists.
 
     // LIST VARIABLES
     private Boolean isTrack = false; // Used to determine if the current list is a list of tracks.
@@ -48,10 +55,40 @@ public class SSResultsAdapter extends RecyclerView.Adapter<SSResultsAdapter.SSRe
         this.isClickable = clickable;
         this.isTrack = tracks;
         this.listResult = list;
+
+        setHasStableIds(true); // Allows the RecyclerView to keep the bound cards when the list changes.
     }
 
     /** EXTENSION METHODS ______________________________________________________________________ **/
 
+    // itemClickListener(): Defines an action to take when an item in the list is clicked. It is
+    // set on each view holder when it is bound, as the view holders are shared with other lists.
+    private SSResultViewHolder.OnResultViewHolderClick itemClickListener = new SSResultViewHolder.OnResultViewHolderClick() {
+
+        // onItemClick(): Defines an action to take when the item in the list is clicked.
+        @Override
+        public void onItemClick(View caller, int position) {
+
+            // The item has been removed from the list since it was clicked.
+            if ((position == RecyclerView.NO_POSITION) || (position >= listResult.size())) {
+                return;
+            }
+
+            // SSTracksFragment: Signals the attached activity to switch the fragment to the
+            // SSPlayerFragment.
+            if (isTrack) {
+                displayPlayer(listResult, position);
+            }
+
+            // SSArtistsFragment: Signals the attached activity to switch the fragment to
+            // SSTracksFragment, as well as passing the artist image URL back to the parent
+            // activity.
+            else {
+                displayTopTracks(listResult.get(position).getArtist(), listResult.get(position).getAlbumImage());
+            }
+        }
+    };
+
     // onCreateViewHolder: This method is called when the custom ViewHolder needs to be initialized.
     // The layout of each item of the RecyclerView is inflated using LayoutInflater, passing the
     // output to the constructor of the custom ViewHolder.
@@ -60,63 +97,31 @@ public class SSResultsAdapter extends RecyclerView.Adapter<SSResultsAdapter.SSRe
 
         // Inflates the layout given the XML layout file for the item view.
         View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.ss_song_result_card, parent, false);
-
-        // Sets the action if the RecyclerView item property is set to be clickable.
-        if (isClickable) {
-
-            // Sets the view holder for the item view. This is needed to handle the individual item
-            // clicks.
-            final SSResultViewHolder viewHolder = new SSResultViewHolder(view, isTrack, new SSResultViewHolder.OnResultViewHolderClick() {
-
-                // onItemClick(): Defines an action to take when the item in the list is clicked.
-                @Override
-                public void onItemClick(View caller, int position) {
-
-                    // SSTracksFragment: Signals the attached activity to switch the fragment to the
-                    // SSPlayerFragment.
-                    if (isTrack) {
-                        displayPlayer(listResult, position);
-                    }
-
-                    // SSArtistsFragment: Signals the attached activity to switch the fragment to
-                    // SSTracksFragment, as well as passing the artist image URL back to the parent
-                    // activity.
-                    else {
-                        displayTopTracks(listResult.get(position).getArtist(), listResult.get(position).getAlbumImage());
-                    }
-                }
-            });
-
-            return viewHolder;
-        }
-
-        return new SSResultViewHolder(view, isTrack, null);
+        return new SSResultViewHolder(view);
     }
 
     // onBindViewHolder(): Overrides the onBindViewHolder to specify the contents of each item of
-    // the RecyclerView. This method is similar to the getView method of a ListView's adapter.
+    // the RecyclerView. This method is similar to the getView method of a ListView's adapter. The
+    // text shadows are set in the layout, so only the text and the image are bound here.
     @Override
     public void onBindViewHolder(SSResultViewHolder holder, int position) {
 
-        // Sets the song, album, and artist name into the TextView objects.
-        holder.songName.setText(listResult.get(position).getSong());
-        holder.albumName.setText(listResult.get(position).getAlbum());
-        holder.artistName.setText(listResult.get(position).getArtist());
+        SSSpotifyModel result = listResult.get(position);
+
+        // Sets the listener for the item view, if the RecyclerView items are set to be clickable.
+        holder.resultItemListener = isClickable ? itemClickListener : null;
 
-        // Sets the shadow layer effect for the TextView objects.
-        holder.songName.setShadowLayer(4, 2, 2, Color.BLACK);
-        holder.artistName.setShadowLayer(4, 2, 2, Color.DKGRAY);
-        holder.albumName.setShadowLayer(2, 2, 2, Color.GRAY);
+        // Sets the song, album, and artist name into the TextView objects.
+        holder.songName.setText(result.getSong());
+        holder.albumName.setText(result.getAlbum());
+        holder.artistName.setText(result.getArtist());
 
         // Retrieves the image URL at the referenced position.
-        String albumImage = listResult.get(position).getAlbumImage();
+        String albumImage = result.getAlbumImage();
 
         // Loads the referenced image into the ImageView object.
         if (albumImage != null) {
-
-            Picasso.with(currentActivity)
-                    .load(albumImage)
-                    .into(holder.albumImage);
+            createThumbnailRequest(currentActivity, albumImage).tag(imageTag).into(holder.albumImage);
         }
 
         // If no referenced image exists, the application icon is set instead.
@@ -128,18 +133,95 @@ public class SSResultsAdapter extends RecyclerView.Adapter<SSResultsAdapter.SSRe
         }
     }
 
+    // onViewRecycled(): Cancels the image request of a recycled item, so that images are no
+    // longer loaded for rows that have scrolled out of view.
+    @Override
+    public void onViewRecycled(SSResultViewHolder holder) {
+        super.onViewRecycled(holder);
+        Picasso.with(currentActivity).cancelRequest(holder.albumImage);
+    }
+
     // getItemCount(): Returns the number of items present in the data.
     @Override
     public int getItemCount() {
         return listResult.size();
     }
 
+    // getItemId(): Returns a stable ID for the item at the specified position. The ID is a 64-bit
+    // hash of the song ID, or of the Spotify artist ID for artist results, which have no song ID.
+    // Artist names are not used, as different artists may share the same name and image. If a
+    // result has neither ID, the position is used, which is unique within the list.
+    @Override
+    public long getItemId(int position) {
+
+        SSSpotifyModel result = listResult.get(position);
+        String key = result.getSongId() != null ? result.getSongId() : result.getArtistId();
+
+        if (key == null) {
+            return position;
+        }
+
+        // Computes the FNV-1a hash of the key.
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    // getItemViewType(): Returns the view type of the item at the specified position. Every item
+    // uses the result card, which is shared with the other result lists.
+    @Override
+    public int getItemViewType(int position) {
+        return RESULT_VIEW_TYPE;
+    }
+
     // onAttachedToRecyclerView(): Overrides the onAttachedToRecyclerView method.
     @Override
     public void onAttachedToRecyclerView(RecyclerView recyclerView) {
         super.onAttachedToRecyclerView(recyclerView);
     }
 
+    /** IMAGE METHODS __________________________________________________________________________ **/
+
+    // createThumbnailRequest(): Creates the image request for the specified album image thumbnail.
+    // Thumbnails are resized to the thumbnail size and decoded as RGB_565, which halves their
+    // memory use, as the album images have no transparency. Prefetched thumbnails and the player
+    // placeholder use the same request, so that they find the thumbnails in the memory cache.
+    public static RequestCreator createThumbnailRequest(Context context, String albumImage) {
+
+        int thumbnailSize = (int) (THUMBNAIL_SIZE * context.getResources().getDisplayMetrics().density);
+
+        return Picasso.with(context)
+                .load(albumImage)
+                .resize(thumbnailSize, thumbnailSize)
+                .centerCrop()
+                .config(Bitmap.Config.RGB_565);
+    }
+
+    // getImageTag(): Returns the tag of the image requests of this list.
+    public Object getImageTag() {
+        return imageTag;
+    }
+
+    // prefetchImage(): Loads the album image thumbnail at the specified position into the memory
+    // cache, ahead of the row being bound.
+    public void prefetchImage(int position) {
+
+        if ((position < 0) || (position >= listResult.size())) {
+            return;
+        }
+
+        String albumImage = listResult.get(position).getAlbumImage();
+
+        if (albumImage != null) {
+            createThumbnailRequest(currentActivity, albumImage).tag(imageTag).fetch();
+        }
+    }
+
     /** INTERFACE METHODS ______________________________________________________________________ **/
 
     // displayPlayer(): Signals attached activity to display the SSPlayerFragment view.
@@ -174,15 +256,12 @@ public class SSResultsAdapter extends RecyclerView.Adapter<SSResultsAdapter.SSRe
         TextView artistName;
         TextView albumName;
 
-        // LIST VARIABLES
-        Boolean isTrack = false; // Used to determine if this is view holder is for an artist or track list.
-
         // LISTENER VARIABLES
-        public OnResultViewHolderClick resultItemListener; // Interface on-click listener variable.
+        public OnResultViewHolderClick resultItemListener; // Interface on-click listener variable, set by the adapter the view holder is bound to.
 
         /** SUBCLASS METHODS ___________________________________________________________________ **/
 
-        SSResultViewHolder(View itemView, Boolean tracks, OnResultViewHolderClick listener) {
+        SSResultViewHolder(View itemView) {
 
             super(itemView);
 
@@ -193,19 +272,18 @@ public class SSResultsAdapter extends RecyclerView.Adapter<SSResultsAdapter.SSRe
             artistName = (TextView) itemView.findViewById(R.id.ss_artist_name_text);
             albumName = (TextView) itemView.findViewById(R.id.ss_album_name_text);
 
-            isTrack = tracks; // Sets the list type for the view holder.
-
-            // Sets the listener for the item view.
-            if (listener != null) {
-                resultItemListener = listener; // Sets the OnResultViewHolderClick listener.
-                itemView.setOnClickListener(this);
-            }
+            itemView.setOnClickListener(this); // Sets the listener for the item view.
         }
 
         // onClick(): Defines an action to take when an item is clicked.
         @Override
         public void onClick(View v) {
 
+            // Ignores the click if the bound list is not clickable.
+            if (resultItemListener == null) {
+                return;
+            }
+
             int itemPos = getAdapterPosition(); // Retrieves the clicked item position.
             resultItemListener.onItemClick(v, itemPos); // Sets the item listener.
         }
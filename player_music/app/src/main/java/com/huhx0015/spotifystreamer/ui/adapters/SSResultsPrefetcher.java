@@ -0,0 +1,137 @@
+package com.huhx0015.spotifystreamer.ui.adapters;
+
+import android.content.Context;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import com.squareup.picasso.Picasso;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSResultsPrefetcher] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSResultsPrefetcher is a RecyclerView scroll listener for the result lists. It
+ *  prefetches the album image thumbnails of the next rows in the scroll direction, so that they are
+ *  in the memory cache by the time the rows are bound. The image requests of the list are paused
+ *  while the list is flung quickly, and resumed once it slows down or comes to rest.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSResultsPrefetcher extends RecyclerView.OnScrollListener {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CONTEXT VARIABLES
+    private final Context context; // The application context, used to access the image loader.
+
+    // FLING VARIABLES
+    private static final int FLING_SPEED = 48; // Scroll distance per frame (in dp) above which image requests are paused.
+    private final int flingSpeed; // Scroll distance per frame (in pixels) above which image requests are paused.
+    private Object pausedTag; // The tag of the image requests that are currently paused.
+
+    // PREFETCH VARIABLES
+    private static final int PREFETCH_COUNT = 6; // Number of rows ahead of the visible rows to prefetch.
+    private RecyclerView.Adapter prefetchAdapter; // The adapter the prefetched range applies to.
+    private int prefetchStart = -1; // First position of the prefetched range.
+    private int prefetchEnd = -1; // Last position of the prefetched range.
+
+    /** INITIALIZATION METHODS _________________________________________________________________ **/
+
+    // SSResultsPrefetcher(): Constructor method for SSResultsPrefetcher.
+    public SSResultsPrefetcher(Context con) {
+        this.context = con.getApplicationContext();
+        this.flingSpeed = (int) (FLING_SPEED * context.getResources().getDisplayMetrics().density);
+    }
+
+    /** EXTENSION METHODS ______________________________________________________________________ **/
+
+    // onScrollStateChanged(): Resumes the paused image requests once the list has come to rest or
+    // is being dragged.
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+
+        if (newState != RecyclerView.SCROLL_STATE_SETTLING) {
+            resumeImages();
+        }
+    }
+
+    // onScrolled(): Pauses the image requests of the list while it is flung quickly, and otherwise
+    // prefetches the thumbnails of the next rows in the scroll direction.
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+
+        if (!(recyclerView.getAdapter() instanceof SSResultsAdapter) ||
+                !(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+
+        SSResultsAdapter adapter = (SSResultsAdapter) recyclerView.getAdapter();
+
+        // Pauses the image requests while the list is flung quickly.
+        if ((recyclerView.getScrollState() == RecyclerView.SCROLL_STATE_SETTLING) && (Math.abs(dy) > flingSpeed)) {
+            pauseImages(adapter.getImageTag());
+            return;
+        }
+
+        resumeImages();
+
+        if (dy == 0) {
+            return;
+        }
+
+        // Resets the prefetched range if the adapter has been replaced.
+        if (prefetchAdapter != adapter) {
+            prefetchAdapter = adapter;
+            prefetchStart = -1;
+            prefetchEnd = -1;
+        }
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+
+        // Determines the rows ahead of the visible rows in the scroll direction.
+        int start;
+        int end;
+
+        if (dy > 0) {
+            start = layoutManager.findLastVisibleItemPosition() + 1;
+            end = Math.min(start + PREFETCH_COUNT, adapter.getItemCount()) - 1;
+        }
+
+        else {
+            end = layoutManager.findFirstVisibleItemPosition() - 1;
+            start = Math.max(end - PREFETCH_COUNT + 1, 0);
+        }
+
+        // Prefetches the rows that are not in the previously prefetched range.
+        for (int position = start; position <= end; position++) {
+
+            if ((position < prefetchStart) || (position > prefetchEnd)) {
+                adapter.prefetchImage(position);
+            }
+        }
+
+        if (start <= end) {
+            prefetchStart = start;
+            prefetchEnd = end;
+        }
+    }
+
+    /** IMAGE METHODS __________________________________________________________________________ **/
+
+    // pauseImages(): Pauses the image requests with the specified tag.
+    private void pauseImages(Object tag) {
+
+        if (pausedTag != tag) {
+            resumeImages();
+            Picasso.with(context).pauseTag(tag);
+            pausedTag = tag;
+        }
+    }
+
+    // resumeImages(): Resumes the image requests that have been paused.
+    public void resumeImages() {
+
+        if (pausedTag != null) {
+            Picasso.with(context).resumeTag(pausedTag);
+            pausedTag = null;
+        }
+    }
+}
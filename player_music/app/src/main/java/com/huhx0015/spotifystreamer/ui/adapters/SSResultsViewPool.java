@@ -0,0 +1,68 @@
+package com.huhx0015.spotifystreamer.ui.adapters;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.v7.widget.RecyclerView;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSResultsViewPool] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSResultsViewPool is a RecycledViewPool that is shared by the artist and track
+ *  result lists, so that the result cards inflated by one list are reused by the other. A number of
+ *  cards are inflated ahead of time while the main thread is idle, so that they are not inflated
+ *  while the list is being scrolled.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSResultsViewPool extends RecyclerView.RecycledViewPool {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // POOL VARIABLES
+    private static final int MAX_RECYCLED_VIEWS = 16; // Maximum number of result cards kept in the pool.
+    private static final int PRE_INFLATE_COUNT = 8; // Number of result cards that are inflated ahead of time.
+    private Boolean isPreInflating = false; // Used to determine if result cards are currently being inflated ahead of time.
+    private int preInflatedCount = 0; // Number of result cards that have been inflated ahead of time.
+
+    /** INITIALIZATION METHODS _________________________________________________________________ **/
+
+    // SSResultsViewPool(): Constructor method for SSResultsViewPool.
+    public SSResultsViewPool() {
+        setMaxRecycledViews(SSResultsAdapter.RESULT_VIEW_TYPE, MAX_RECYCLED_VIEWS);
+    }
+
+    /** POOL METHODS ___________________________________________________________________________ **/
+
+    // preInflate(): Inflates result cards for the specified list into the pool, one card each time
+    // the main thread becomes idle, until PRE_INFLATE_COUNT cards have been inflated. Nothing is
+    // done once the cards have been inflated for either list.
+    public void preInflate(final RecyclerView list) {
+
+        if (isPreInflating || (preInflatedCount >= PRE_INFLATE_COUNT)) {
+            return;
+        }
+
+        isPreInflating = true;
+
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+
+            @Override
+            public boolean queueIdle() {
+
+                RecyclerView.Adapter adapter = list.getAdapter();
+
+                // Stops if the list has been detached from it's adapter.
+                if (adapter == null) {
+                    isPreInflating = false;
+                    return false;
+                }
+
+                putRecycledView(adapter.createViewHolder(list, SSResultsAdapter.RESULT_VIEW_TYPE));
+                preInflatedCount++;
+
+                isPreInflating = preInflatedCount < PRE_INFLATE_COUNT;
+                return isPreInflating; // Keeps the idle handler until every card has been inflated.
+            }
+        });
+    }
+}
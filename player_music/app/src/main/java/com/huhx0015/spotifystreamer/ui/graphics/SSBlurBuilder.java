@@ -2,18 +2,38 @@ package com.huhx0015.spotifystreamer.ui.graphics;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.drawable.BitmapDrawable;
-import android.graphics.drawable.Drawable;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.support.v4.util.LruCache;
 import android.support.v8.renderscript.Allocation;
 import android.support.v8.renderscript.Element;
+import android.support.v8.renderscript.RSRuntimeException;
 import android.support.v8.renderscript.RenderScript;
 import android.support.v8.renderscript.ScriptIntrinsicBlur;
+import android.util.Log;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /** -----------------------------------------------------------------------------------------------
  *  [SSBlurBuilder] CLASS
  *  DESCRIPTION: SSBlurBuilder class is a class that contains methods generate blur-like effects on
  *  existing bitmap images. This code is adapted from Norman Peitek at:
  *  https://futurestud.io/blog/how-to-blur-images-efficiently-with-androids-renderscript/
+ *  The RenderScript context, the blur script and the allocations are kept for the lifetime of the
+ *  application, and the blur is run on a background thread. Blurred images are cached per album
+ *  image URL in memory and on disk, so that each album is only blurred once. SSFastBlur is used on
+ *  devices on which RenderScript is not available.
  *  -----------------------------------------------------------------------------------------------
  */
 
@@ -24,32 +44,298 @@ public class SSBlurBuilder {
     // BLUR VARIABLES
     private static final float BITMAP_SCALE = 0.5f;
     private static final float BLUR_RADIUS = 25.0f;
+    private static final int FAST_BLUR_RADIUS = 10; // SSFastBlur radius that matches the BLUR_RADIUS RenderScript blur.
+    private static final int THUMBNAIL_BLUR_RADIUS = 2; // SSBoxBlur radius used to soften upscaled thumbnails.
+    private int[] fastBlurPixels; // Pixel buffer for SSFastBlur, reused while the scaled image size is unchanged.
+    private int[] thumbnailLine; // Line buffer for blurring thumbnails on the main thread.
+    private boolean isRenderScriptUnavailable = false; // Set if RenderScript failed, after which SSFastBlur is used.
+
+    // CACHE VARIABLES
+    private File cacheDir; // The directory in which the blurred images are cached on disk.
+    private static final String CACHE_DIR = "ss_blur"; // Name of the disk cache directory.
+    private static final int CACHE_QUALITY = 90; // JPEG quality of the blurred images cached on disk.
+    private final LruCache<String, Bitmap> memoryCache; // Caches the blurred images by album image URL.
+
+    // LOGGING VARIABLES
+    private static final String LOG_TAG = SSBlurBuilder.class.getSimpleName(); // Used for logging output to logcat.
+
+    // RENDERSCRIPT VARIABLES: Only accessed on the blur thread.
+    private Allocation inAllocation; // Input allocation, reused while the scaled image size is unchanged.
+    private Allocation outAllocation; // Output allocation, reused while the scaled image size is unchanged.
+    private Bitmap scaledBitmap; // Scaled copy of the input image, backing the input allocation.
+    private RenderScript renderScript; // The RenderScript context.
+    private ScriptIntrinsicBlur intrinsicBlur; // The blur script.
+    private final Paint scalePaint = new Paint(Paint.FILTER_BITMAP_FLAG); // Paint used to scale the input image.
+    private final Rect scaleRect = new Rect(); // Destination bounds of the scaled input image.
+
+    // THREAD VARIABLES
+    private final Handler blurHandler; // Handler for the blur thread, on which images are blurred and cached.
+    private final Handler mainHandler = new Handler(Looper.getMainLooper()); // Handler for posting blurred images to the main thread.
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSBlurBuilder(): Constructor for SSBlurBuilder class.
+    private final static SSBlurBuilder ss_blur = new SSBlurBuilder();
+
+    // SSBlurBuilder(): Deconstructor for SSBlurBuilder class. Starts the blur thread and sets up
+    // the memory cache, which is sized at 1/32 of the available heap.
+    private SSBlurBuilder() {
+
+        HandlerThread blurThread = new HandlerThread("SSBlurThread", Process.THREAD_PRIORITY_BACKGROUND);
+        blurThread.start();
+        blurHandler = new Handler(blurThread.getLooper());
+
+        int cacheSize = (int) (Runtime.getRuntime().maxMemory() / 1024 / 32);
+        memoryCache = new LruCache<String, Bitmap>(cacheSize) {
+
+            // sizeOf(): Returns the size of the cached blurred image (in kilobytes).
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return (bitmap.getRowBytes() * bitmap.getHeight()) / 1024;
+            }
+        };
+    }
+
+    // getInstance(): Returns the ss_blur instance.
+    public static SSBlurBuilder getInstance() { return ss_blur; }
 
     /** BLUR METHODS ___________________________________________________________________________ **/
 
-    // createBlurDrawable(): Creates a blurred version of the input bitmap image.
-    public static Drawable createBlurDrawable(Context context, Bitmap bitmapImage) {
+    // blurAlbumImage(): Creates a blurred version of the album image, and signals the specified
+    // listener on the main thread with the blurred image. The blurred image is taken from the
+    // memory cache without leaving the main thread if it is available; otherwise the disk cache is
+    // checked and the image is blurred on the blur thread.
+    public void blurAlbumImage(Context context, final String albumUrl, final Bitmap bitmapImage,
+                               final OnBlurListener listener) {
+
+        final Bitmap cachedBitmap = albumUrl != null ? memoryCache.get(albumUrl) : null;
+
+        if (cachedBitmap != null) {
+            listener.onBlurCompleted(albumUrl, cachedBitmap);
+            return;
+        }
+
+        final Context appContext = context.getApplicationContext();
+
+        blurHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+
+                Bitmap blurredBitmap = albumUrl != null ? readCachedBlur(appContext, albumUrl) : null;
+
+                // Blurs the album image if it has not been cached on disk.
+                if (blurredBitmap == null) {
+                    blurredBitmap = createBlurBitmap(appContext, bitmapImage);
+
+                    if (albumUrl != null) {
+                        writeCachedBlur(albumUrl, blurredBitmap);
+                    }
+                }
+
+                if (albumUrl != null) {
+                    memoryCache.put(albumUrl, blurredBitmap);
+                }
+
+                final Bitmap resultBitmap = blurredBitmap;
+                mainHandler.post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        listener.onBlurCompleted(albumUrl, resultBitmap);
+                    }
+                });
+            }
+        });
+    }
+
+    // createBlurBitmap(): Creates a blurred version of the input bitmap image. The RenderScript
+    // context and the blur script are created on first use, and the scaled bitmap and allocations
+    // are only recreated when the scaled image size changes. Must be called on the blur thread.
+    private Bitmap createBlurBitmap(Context context, Bitmap bitmapImage) {
 
         // Generates the bitmap scaled values.
-        int width = Math.round(bitmapImage.getWidth() * BITMAP_SCALE);
-        int height = Math.round(bitmapImage.getHeight() * BITMAP_SCALE);
-
-        // Initializes the original and the blurred bitmap objects.
-        Bitmap originalBitmap = Bitmap.createScaledBitmap(bitmapImage, width, height, false);
-        Bitmap blurredBitmap = Bitmap.createBitmap(originalBitmap);
-
-        // Generates a blurred bitmap object based on the original bitmap image and the BLUR_RADIUS
-        // value.
-        RenderScript script = RenderScript.create(context);
-        ScriptIntrinsicBlur intrinsicBlur = ScriptIntrinsicBlur.create(script, Element.U8_4(script));
-        Allocation tempIn = Allocation.createFromBitmap(script, originalBitmap);
-        Allocation tempOut = Allocation.createFromBitmap(script, blurredBitmap);
-        intrinsicBlur.setRadius(BLUR_RADIUS);
-        intrinsicBlur.setInput(tempIn);
-        intrinsicBlur.forEach(tempOut);
-        tempOut.copyTo(blurredBitmap);
-
-        // Converts the blurred bitmap to a drawable image.
-        return new BitmapDrawable(context.getResources(), blurredBitmap);
-    }
-}
\ No newline at end of file
+        int width = Math.max(1, Math.round(bitmapImage.getWidth() * BITMAP_SCALE));
+        int height = Math.max(1, Math.round(bitmapImage.getHeight() * BITMAP_SCALE));
+
+        // Recreates the scaled bitmap if the scaled image size has changed.
+        if ((scaledBitmap == null) || (scaledBitmap.getWidth() != width) || (scaledBitmap.getHeight() != height)) {
+
+            if (inAllocation != null) {
+                inAllocation.destroy();
+                outAllocation.destroy();
+                inAllocation = null;
+                outAllocation = null;
+            }
+
+            scaledBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            scaleRect.set(0, 0, width, height);
+        }
+
+        // Draws the input image into the reused scaled bitmap.
+        new Canvas(scaledBitmap).drawBitmap(bitmapImage, null, scaleRect, scalePaint);
+
+        // A new bitmap is created for the output, as the blurred image is cached.
+        Bitmap blurredBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+
+        if (!isRenderScriptUnavailable) {
+
+            try {
+
+                if (renderScript == null) {
+                    renderScript = RenderScript.create(context);
+                    intrinsicBlur = ScriptIntrinsicBlur.create(renderScript, Element.U8_4(renderScript));
+                    intrinsicBlur.setRadius(BLUR_RADIUS);
+                }
+
+                if (inAllocation == null) {
+                    inAllocation = Allocation.createFromBitmap(renderScript, scaledBitmap);
+                    outAllocation = Allocation.createTyped(renderScript, inAllocation.getType());
+                }
+
+                // Generates a blurred bitmap object based on the scaled bitmap image and the
+                // BLUR_RADIUS value.
+                inAllocation.copyFrom(scaledBitmap);
+                intrinsicBlur.setInput(inAllocation);
+                intrinsicBlur.forEach(outAllocation);
+                outAllocation.copyTo(blurredBitmap);
+
+                return blurredBitmap;
+            }
+
+            // RenderScript exception handler. The SSFastBlur is used from now on.
+            catch (RSRuntimeException e) {
+                Log.e(LOG_TAG, "ERROR: createBlurBitmap(): RenderScript is unavailable: " + e.getMessage());
+                isRenderScriptUnavailable = true;
+            }
+        }
+
+        // Blurs the scaled bitmap pixels with the SSFastBlur, if RenderScript is not available.
+        int pixelCount = width * height;
+
+        if ((fastBlurPixels == null) || (fastBlurPixels.length < pixelCount)) {
+            fastBlurPixels = new int[pixelCount];
+        }
+
+        scaledBitmap.getPixels(fastBlurPixels, 0, width, 0, 0, width, height);
+        SSFastBlur.getInstance().blur(fastBlurPixels, width, height, FAST_BLUR_RADIUS);
+        blurredBitmap.setPixels(fastBlurPixels, 0, width, 0, 0, width, height);
+
+        return blurredBitmap;
+    }
+
+    // blurThumbnail(): Returns a lightly blurred copy of the specified thumbnail, which hides the
+    // pixelation of the thumbnail when it is upscaled as a placeholder. Thumbnails are small
+    // enough to be blurred on the calling thread with SSBoxBlur, which avoids waiting on a blur in
+    // progress on the blur thread, and does not start the SSFastBlur workers on devices on which
+    // RenderScript is available. Must be called on the main thread.
+    public Bitmap blurThumbnail(Bitmap thumbnail) {
+
+        int width = thumbnail.getWidth();
+        int height = thumbnail.getHeight();
+        int[] pixels = new int[width * height];
+
+        // The line buffer is only reallocated when a larger thumbnail is blurred.
+        if ((thumbnailLine == null) || (thumbnailLine.length < Math.max(width, height))) {
+            thumbnailLine = new int[Math.max(width, height)];
+        }
+
+        thumbnail.getPixels(pixels, 0, width, 0, 0, width, height);
+        SSBoxBlur.blur(pixels, width, height, THUMBNAIL_BLUR_RADIUS, thumbnailLine);
+
+        return Bitmap.createBitmap(pixels, width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    /** CACHE METHODS __________________________________________________________________________ **/
+
+    // readCachedBlur(): Reads the blurred image for the specified album image URL from the disk
+    // cache. Returns null if it has not been cached. Must be called on the blur thread.
+    private Bitmap readCachedBlur(Context context, String albumUrl) {
+
+        if (cacheDir == null) {
+            cacheDir = new File(context.getCacheDir(), CACHE_DIR);
+
+            if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+                Log.e(LOG_TAG, "ERROR: readCachedBlur(): The cache directory could not be created.");
+            }
+        }
+
+        File cacheFile = new File(cacheDir, getCacheName(albumUrl));
+
+        if (!cacheFile.exists()) {
+            return null;
+        }
+
+        return BitmapFactory.decodeFile(cacheFile.getPath());
+    }
+
+    // writeCachedBlur(): Writes the blurred image for the specified album image URL to the disk
+    // cache. The image is written to a temporary file first, so that an interrupted write never
+    // leaves a partial image. Must be called on the blur thread.
+    private void writeCachedBlur(String albumUrl, Bitmap blurredBitmap) {
+
+        File cacheFile = new File(cacheDir, getCacheName(albumUrl));
+        File tempFile = new File(cacheDir, getCacheName(albumUrl) + ".tmp");
+        OutputStream output = null;
+
+        try {
+            output = new BufferedOutputStream(new FileOutputStream(tempFile));
+            blurredBitmap.compress(Bitmap.CompressFormat.JPEG, CACHE_QUALITY, output);
+            output.close();
+            output = null;
+
+            if (!tempFile.renameTo(cacheFile)) {
+                Log.e(LOG_TAG, "ERROR: writeCachedBlur(): The cached image could not be replaced.");
+            }
+        }
+
+        // IO exception handler.
+        catch (IOException e) {
+            Log.e(LOG_TAG, "ERROR: writeCachedBlur(): I/O exception occurred: " + e.getMessage());
+        }
+
+        finally {
+
+            if (output != null) {
+                try { output.close(); }
+                catch (IOException e) {} // The image has already been written.
+            }
+        }
+    }
+
+    // getCacheName(): Returns the disk cache file name for the specified album image URL.
+    private static String getCacheName(String albumUrl) {
+
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(albumUrl.getBytes());
+            StringBuilder name = new StringBuilder(digest.length * 2);
+
+            for (byte value : digest) {
+                name.append(Character.forDigit((value >> 4) & 0xF, 16));
+                name.append(Character.forDigit(value & 0xF, 16));
+            }
+
+            return name.toString();
+        }
+
+        // No such algorithm exception handler.
+        catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(albumUrl.hashCode());
+        }
+    }
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [OnBlurListener] INTERFACE
+     * DESCRIPTION: This is an interface subclass that is used to deliver a blurred album image.
+     * --------------------------------------------------------------------------------------------
+     */
+    public interface OnBlurListener {
+
+        // onBlurCompleted(): The method that is called on the main thread with the blurred image
+        // of the specified album image URL.
+        void onBlurCompleted(String albumUrl, Bitmap blurredBitmap);
+    }
+}
@@ -0,0 +1,85 @@
+package com.huhx0015.spotifystreamer.ui.graphics;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSBoxBlur] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSBoxBlur class approximates a gaussian blur with three separable box blur passes
+ *  over an ARGB pixel array, on the calling thread. It is used directly for small images such as
+ *  thumbnails, and by SSFastBlur for each band of it's worker threads. No threads are started by
+ *  this class, so using it does not start the SSFastBlur workers.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSBoxBlur {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // BLUR VARIABLES
+    static final int BOX_PASSES = 3; // Number of box blur passes, which approximate a gaussian blur.
+
+    /** BLUR METHODS ___________________________________________________________________________ **/
+
+    // blur(): Blurs the specified ARGB pixels in place on the calling thread, using the specified
+    // line buffer, which must hold at least max(width, height) pixels. The result is the same as
+    // SSFastBlur.blur(), but no lock is taken and no worker threads are used, so this can be used
+    // for small images on the main thread.
+    public static void blur(int[] pixels, int width, int height, int radius, int[] line) {
+
+        if ((radius < 1) || (width < 1) || (height < 1)) {
+            return;
+        }
+
+        int passRadius = getPassRadius(radius);
+
+        for (int i = 0; i < BOX_PASSES; i++) {
+
+            for (int row = 0; row < height; row++) {
+                blurLine(pixels, row * width, 1, width, passRadius, line);
+            }
+
+            for (int column = 0; column < width; column++) {
+                blurLine(pixels, column, width, height, passRadius, line);
+            }
+        }
+    }
+
+    // getPassRadius(): Splits the radius across the passes, so that the combined blur is close to
+    // a single gaussian blur of the specified radius.
+    static int getPassRadius(int radius) {
+        return Math.max(1, Math.round(radius / (float) Math.sqrt(BOX_PASSES)));
+    }
+
+    // blurLine(): Box blurs a single row or column of pixels in place, using a sliding window sum
+    // for each channel. Pixels beyond the edges are clamped to the edge pixels.
+    static void blurLine(int[] pixels, int offset, int stride, int length, int radius, int[] line) {
+
+        for (int i = 0; i < length; i++) {
+            line[i] = pixels[offset + i * stride];
+        }
+
+        int last = length - 1;
+        int window = radius * 2 + 1;
+        int sumA = 0, sumR = 0, sumG = 0, sumB = 0;
+
+        for (int i = -radius; i <= radius; i++) {
+            int pixel = line[Math.min(Math.max(i, 0), last)];
+            sumA += pixel >>> 24;
+            sumR += (pixel >> 16) & 0xFF;
+            sumG += (pixel >> 8) & 0xFF;
+            sumB += pixel & 0xFF;
+        }
+
+        for (int i = 0; i < length; i++) {
+
+            pixels[offset + i * stride] = ((sumA / window) << 24) | ((sumR / window) << 16) |
+                    ((sumG / window) << 8) | (sumB / window);
+
+            int out = line[Math.max(i - radius, 0)];
+            int in = line[Math.min(i + radius + 1, last)];
+            sumA += (in >>> 24) - (out >>> 24);
+            sumR += ((in >> 16) & 0xFF) - ((out >> 16) & 0xFF);
+            sumG += ((in >> 8) & 0xFF) - ((out >> 8) & 0xFF);
+            sumB += (in & 0xFF) - (out & 0xFF);
+        }
+    }
+}
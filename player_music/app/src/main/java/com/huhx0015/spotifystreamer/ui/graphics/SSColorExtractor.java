@@ -0,0 +1,128 @@
+package com.huhx0015.spotifystreamer.ui.graphics;
+
+import java.util.Arrays;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSColorExtractor] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSColorExtractor class extracts the two dominant colors of an image. The pixels
+ *  are quantized into a histogram of 4 bits per color channel; the most common bucket is the
+ *  primary color, and the most common bucket that is clearly distinct from it is the secondary
+ *  color. The histogram buffers are reused, so an instance must only be used by one thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSColorExtractor {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // COLOR VARIABLES
+    static final int DEFAULT_COLOR = 0xFF444444; // Color used if the image has no opaque pixels.
+    private static final int MIN_ALPHA = 128; // Pixels with a lower alpha value are ignored.
+    private static final int MIN_DISTANCE = 64 * 64; // Minimum squared RGB distance of the secondary color from the primary color.
+    private static final float DARKEN_FACTOR = 0.6f; // Used to derive the secondary color if the image has a single color.
+
+    // HISTOGRAM VARIABLES
+    private static final int BUCKET_COUNT = 16 * 16 * 16; // Number of buckets, at 4 bits per color channel.
+    private final int[] bucketCounts = new int[BUCKET_COUNT]; // Number of pixels in each bucket.
+    private final int[] bucketReds = new int[BUCKET_COUNT]; // Sum of the red values in each bucket.
+    private final int[] bucketGreens = new int[BUCKET_COUNT]; // Sum of the green values in each bucket.
+    private final int[] bucketBlues = new int[BUCKET_COUNT]; // Sum of the blue values in each bucket.
+
+    /** EXTRACTION METHODS _____________________________________________________________________ **/
+
+    // extractColors(): Stores the primary and secondary dominant colors of the first length pixels
+    // into the first two elements of colors.
+    public void extractColors(int[] pixels, int length, int[] colors) {
+
+        Arrays.fill(bucketCounts, 0);
+        Arrays.fill(bucketReds, 0);
+        Arrays.fill(bucketGreens, 0);
+        Arrays.fill(bucketBlues, 0);
+
+        // Builds the histogram of the opaque pixels.
+        for (int i = 0; i < length; i++) {
+
+            int pixel = pixels[i];
+
+            if ((pixel >>> 24) < MIN_ALPHA) {
+                continue;
+            }
+
+            int red = (pixel >> 16) & 0xFF;
+            int green = (pixel >> 8) & 0xFF;
+            int blue = pixel & 0xFF;
+            int bucket = ((red >> 4) << 8) | ((green >> 4) << 4) | (blue >> 4);
+
+            bucketCounts[bucket]++;
+            bucketReds[bucket] += red;
+            bucketGreens[bucket] += green;
+            bucketBlues[bucket] += blue;
+        }
+
+        // Finds the most common bucket.
+        int primaryBucket = -1;
+
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+
+            if ((bucketCounts[bucket] > 0) &&
+                    ((primaryBucket == -1) || (bucketCounts[bucket] > bucketCounts[primaryBucket]))) {
+                primaryBucket = bucket;
+            }
+        }
+
+        if (primaryBucket == -1) {
+            colors[0] = DEFAULT_COLOR;
+            colors[1] = darkenColor(DEFAULT_COLOR);
+            return;
+        }
+
+        int primaryColor = getBucketColor(primaryBucket);
+
+        // Finds the most common bucket that is clearly distinct from the primary color.
+        int secondaryBucket = -1;
+
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+
+            if ((bucketCounts[bucket] > 0) &&
+                    ((secondaryBucket == -1) || (bucketCounts[bucket] > bucketCounts[secondaryBucket])) &&
+                    (getDistance(primaryColor, getBucketColor(bucket)) >= MIN_DISTANCE)) {
+                secondaryBucket = bucket;
+            }
+        }
+
+        colors[0] = primaryColor;
+        colors[1] = secondaryBucket != -1 ? getBucketColor(secondaryBucket) : darkenColor(primaryColor);
+    }
+
+    /** COLOR METHODS __________________________________________________________________________ **/
+
+    // getBucketColor(): Returns the average color of the pixels in the specified bucket.
+    private int getBucketColor(int bucket) {
+
+        int count = bucketCounts[bucket];
+
+        return 0xFF000000 | ((bucketReds[bucket] / count) << 16) |
+                ((bucketGreens[bucket] / count) << 8) | (bucketBlues[bucket] / count);
+    }
+
+    // getDistance(): Returns the squared RGB distance between the specified colors.
+    private static int getDistance(int firstColor, int secondColor) {
+
+        int red = ((firstColor >> 16) & 0xFF) - ((secondColor >> 16) & 0xFF);
+        int green = ((firstColor >> 8) & 0xFF) - ((secondColor >> 8) & 0xFF);
+        int blue = (firstColor & 0xFF) - (secondColor & 0xFF);
+
+        return (red * red) + (green * green) + (blue * blue);
+    }
+
+    // darkenColor(): Returns a darker shade of the specified color.
+    static int darkenColor(int color) {
+
+        int red = (int) (((color >> 16) & 0xFF) * DARKEN_FACTOR);
+        int green = (int) (((color >> 8) & 0xFF) * DARKEN_FACTOR);
+        int blue = (int) ((color & 0xFF) * DARKEN_FACTOR);
+
+        return 0xFF000000 | (red << 16) | (green << 8) | blue;
+    }
+}
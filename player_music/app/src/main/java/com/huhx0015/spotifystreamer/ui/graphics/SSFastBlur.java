@@ -0,0 +1,184 @@
+package com.huhx0015.spotifystreamer.ui.graphics;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSFastBlur] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSFastBlur class is a pure Java blur, used when RenderScript is not available. It
+ *  runs the SSBoxBlur passes over an ARGB pixel array, with the rows and columns of each pass split
+ *  across a fixed set of worker threads, one per core. The line buffers are reused, so that no
+ *  memory is allocated once the image size has been seen.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSFastBlur {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // BLUR VARIABLES
+    private int[] pixels; // The pixels being blurred.
+    private int width; // The width of the image being blurred.
+    private int height; // The height of the image being blurred.
+    private int radius; // The box blur radius of the current pass.
+    private boolean isVertical; // Used to determine if the current pass blurs columns or rows.
+
+    // THREAD VARIABLES
+    private final int threadCount; // Number of threads, including the calling thread, that each pass is split across.
+    private final int[][] lineBuffers; // Line buffer for each thread.
+    private final Object passLock = new Object(); // Guards the pass generation and the pending band count.
+    private int passGeneration = 0; // Incremented when a new pass is started.
+    private int pendingBands = 0; // Number of worker bands of the current pass that have yet to complete.
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSFastBlur(): Constructor for SSFastBlur class.
+    private final static SSFastBlur ss_fast_blur = new SSFastBlur(Runtime.getRuntime().availableProcessors());
+
+    // SSFastBlur(): Deconstructor for SSFastBlur class. Starts a worker thread for each thread
+    // beyond the calling thread.
+    SSFastBlur(int threads) {
+
+        this.threadCount = Math.max(1, threads);
+        this.lineBuffers = new int[threadCount][];
+
+        for (int i = 1; i < threadCount; i++) {
+            Thread worker = new Thread(new BandWorker(i), "SSFastBlurThread-" + i);
+            worker.setDaemon(true);
+            worker.setPriority(Thread.MIN_PRIORITY);
+            worker.start();
+        }
+    }
+
+    // getInstance(): Returns the ss_fast_blur instance.
+    public static SSFastBlur getInstance() { return ss_fast_blur; }
+
+    /** BLUR METHODS ___________________________________________________________________________ **/
+
+    // blur(): Blurs the specified ARGB pixels in place. The radius (in pixels) is roughly the
+    // standard deviation of the equivalent gaussian blur. Calls are serialized, as the line buffers
+    // are shared.
+    public synchronized void blur(int[] pixels, int width, int height, int radius) {
+
+        if ((radius < 1) || (width < 1) || (height < 1)) {
+            return;
+        }
+
+        this.pixels = pixels;
+        this.width = width;
+        this.height = height;
+        this.radius = SSBoxBlur.getPassRadius(radius);
+
+        for (int i = 0; i < SSBoxBlur.BOX_PASSES; i++) {
+            runPass(false);
+            runPass(true);
+        }
+
+        this.pixels = null;
+    }
+
+    // runPass(): Runs a single horizontal or vertical box blur pass, and waits for every band to
+    // complete. The calling thread blurs the first band. If the calling thread is interrupted, the
+    // workers are still waited on, as they are writing to the pixels of the caller, and the
+    // interrupt is restored once the pass has completed.
+    private void runPass(boolean vertical) {
+
+        synchronized (passLock) {
+            isVertical = vertical;
+            pendingBands = threadCount - 1;
+            passGeneration++;
+            passLock.notifyAll();
+        }
+
+        blurBand(0);
+
+        boolean isInterrupted = false;
+
+        synchronized (passLock) {
+
+            while (pendingBands > 0) {
+
+                try { passLock.wait(); }
+                catch (InterruptedException e) { isInterrupted = true; }
+            }
+        }
+
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // blurBand(): Blurs the rows or columns of the current pass that belong to the specified band.
+    private void blurBand(int band) {
+
+        int lineCount = isVertical ? width : height;
+        int lineLength = isVertical ? height : width;
+        int start = (int) ((long) lineCount * band / threadCount);
+        int end = (int) ((long) lineCount * (band + 1) / threadCount);
+
+        // The line buffer is only reallocated when a longer line is blurred.
+        int[] line = lineBuffers[band];
+
+        if ((line == null) || (line.length < lineLength)) {
+            line = new int[lineLength];
+            lineBuffers[band] = line;
+        }
+
+        for (int i = start; i < end; i++) {
+
+            if (isVertical) {
+                SSBoxBlur.blurLine(pixels, i, width, height, radius, line);
+            }
+
+            else {
+                SSBoxBlur.blurLine(pixels, i * width, 1, width, radius, line);
+            }
+        }
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [BandWorker] CLASS
+     * DESCRIPTION: This is a Runnable subclass that blurs it's band of every pass on a worker
+     * thread.
+     * --------------------------------------------------------------------------------------------
+     */
+    private class BandWorker implements Runnable {
+
+        private final int band; // The band of each pass that is blurred by this worker.
+
+        BandWorker(int band) {
+            this.band = band;
+        }
+
+        @Override
+        public void run() {
+
+            int seenGeneration = 0;
+
+            while (true) {
+
+                // Waits for the next pass to be started.
+                synchronized (passLock) {
+
+                    while (passGeneration == seenGeneration) {
+
+                        try { passLock.wait(); }
+                        catch (InterruptedException e) { return; }
+                    }
+
+                    seenGeneration = passGeneration;
+                }
+
+                blurBand(band);
+
+                synchronized (passLock) {
+
+                    if (--pendingBands == 0) {
+                        passLock.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+}
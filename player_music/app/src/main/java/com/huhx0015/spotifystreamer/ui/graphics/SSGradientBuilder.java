@@ -0,0 +1,178 @@
+package com.huhx0015.spotifystreamer.ui.graphics;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.GradientDrawable;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.support.v4.app.ActivityManagerCompat;
+import android.support.v4.util.LruCache;
+import android.util.Log;
+import com.huhx0015.spotifystreamer.ui.views.SSScrollJankMonitor;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSGradientBuilder] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSGradientBuilder class creates gradient backgrounds from the dominant colors of
+ *  the album images, as a low cost replacement for the SSBlurBuilder blurred backgrounds. The
+ *  album image is downsampled into a tiny bitmap and its colors are extracted on a background
+ *  thread, and the colors are cached per album image URL. The gradient mode is chosen on low RAM
+ *  devices, or once the result lists have shown too much scroll jank.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSGradientBuilder {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CACHE VARIABLES
+    private static final int CACHE_SIZE = 64; // Number of albums of which the colors are cached.
+    private final LruCache<String, int[]> colorCache = new LruCache<>(CACHE_SIZE); // Caches the gradient colors by album image URL.
+
+    // LOGGING VARIABLES
+    private static final String LOG_TAG = SSGradientBuilder.class.getSimpleName(); // Used for logging output to logcat.
+
+    // MODE VARIABLES
+    private static final float JANK_PERCENT_LIMIT = 10f; // Percentage of janky scroll frames above which the gradient mode is chosen.
+    private static final long MIN_FRAME_COUNT = 120; // Number of scroll frames measured before the jank percentage is trusted.
+    private boolean isGradientMode = false; // Used to determine if the gradient mode has been chosen.
+
+    // SAMPLE VARIABLES: Only accessed on the gradient thread.
+    private static final int SAMPLE_SIZE = 16; // Width and height of the downsampled album image (in pixels).
+    private final Bitmap sampleBitmap = Bitmap.createBitmap(SAMPLE_SIZE, SAMPLE_SIZE, Bitmap.Config.ARGB_8888); // Downsampled album image.
+    private final Canvas sampleCanvas = new Canvas(sampleBitmap); // Canvas used to downsample the album image.
+    private final Paint samplePaint = new Paint(Paint.FILTER_BITMAP_FLAG); // Paint used to downsample the album image.
+    private final Rect sampleRect = new Rect(0, 0, SAMPLE_SIZE, SAMPLE_SIZE); // Bounds of the downsampled album image.
+    private final int[] samplePixels = new int[SAMPLE_SIZE * SAMPLE_SIZE]; // Pixels of the downsampled album image.
+    private final SSColorExtractor colorExtractor = new SSColorExtractor(); // Extracts the dominant colors.
+
+    // THREAD VARIABLES
+    private final Handler gradientHandler; // Handler for the gradient thread, on which the colors are extracted.
+    private final Handler mainHandler = new Handler(Looper.getMainLooper()); // Handler for posting gradients to the main thread.
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSGradientBuilder(): Constructor for SSGradientBuilder class.
+    private final static SSGradientBuilder ss_gradient = new SSGradientBuilder();
+
+    // SSGradientBuilder(): Deconstructor for SSGradientBuilder class. Starts the gradient thread.
+    private SSGradientBuilder() {
+
+        HandlerThread gradientThread = new HandlerThread("SSGradientThread", Process.THREAD_PRIORITY_BACKGROUND);
+        gradientThread.start();
+        gradientHandler = new Handler(gradientThread.getLooper());
+    }
+
+    // getInstance(): Returns the ss_gradient instance.
+    public static SSGradientBuilder getInstance() { return ss_gradient; }
+
+    /** MODE METHODS ___________________________________________________________________________ **/
+
+    // isGradientMode(): Determines if gradient backgrounds should be used instead of blurred
+    // backgrounds. The gradient mode is chosen on low RAM devices, or once the result lists have
+    // shown more than JANK_PERCENT_LIMIT percent of janky frames, and is kept from then on so that
+    // the background style does not change back and forth. Must be called on the main thread.
+    public boolean isGradientMode(Context context) {
+
+        if (!isGradientMode) {
+
+            ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+
+            if (ActivityManagerCompat.isLowRamDevice(activityManager)) {
+                Log.d(LOG_TAG, "isGradientMode(): Low RAM device, gradient backgrounds are used.");
+                isGradientMode = true;
+            }
+
+            // SSScrollJankMonitor is only available on Android API level 16 and higher.
+            else if ((android.os.Build.VERSION.SDK_INT >= 16) &&
+                    (SSScrollJankMonitor.getAllFrameCount() >= MIN_FRAME_COUNT) &&
+                    (SSScrollJankMonitor.getAllJankPercent() > JANK_PERCENT_LIMIT)) {
+                Log.d(LOG_TAG, "isGradientMode(): Scroll jank at " + SSScrollJankMonitor.getAllJankPercent() +
+                        "%, gradient backgrounds are used.");
+                isGradientMode = true;
+            }
+        }
+
+        return isGradientMode;
+    }
+
+    /** GRADIENT METHODS _______________________________________________________________________ **/
+
+    // createGradient(): Creates a gradient of the dominant colors of the album image, and signals
+    // the specified listener on the main thread with the gradient. The colors are taken from the
+    // cache without leaving the main thread if they are available; otherwise they are extracted on
+    // the gradient thread. The colors are cached from the first bitmap of the album, which is
+    // usually the RGB_565 result list thumbnail, and are not refined once the full size image
+    // arrives. Both are reduced to the same SAMPLE_SIZE sample, and the 5 to 6 bits per channel of
+    // RGB_565 are finer than the 4 bit histogram buckets of SSColorExtractor, so the full size
+    // image would give nearly the same colors at the cost of a second extraction.
+    public void createGradient(final String albumUrl, final Bitmap bitmapImage, final OnGradientListener listener) {
+
+        int[] cachedColors = albumUrl != null ? colorCache.get(albumUrl) : null;
+
+        if (cachedColors != null) {
+            listener.onGradientCompleted(albumUrl, createGradientDrawable(cachedColors));
+            return;
+        }
+
+        gradientHandler.post(new Runnable() {
+
+            @Override
+            public void run() {
+
+                final int[] colors = extractColors(bitmapImage);
+
+                if (albumUrl != null) {
+                    colorCache.put(albumUrl, colors);
+                }
+
+                mainHandler.post(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        listener.onGradientCompleted(albumUrl, createGradientDrawable(colors));
+                    }
+                });
+            }
+        });
+    }
+
+    // extractColors(): Downsamples the album image into the sample bitmap and returns its two
+    // dominant colors. Must be called on the gradient thread.
+    private int[] extractColors(Bitmap bitmapImage) {
+
+        sampleBitmap.eraseColor(0);
+        sampleCanvas.drawBitmap(bitmapImage, null, sampleRect, samplePaint);
+        sampleBitmap.getPixels(samplePixels, 0, SAMPLE_SIZE, 0, 0, SAMPLE_SIZE, SAMPLE_SIZE);
+
+        int[] colors = new int[2];
+        colorExtractor.extractColors(samplePixels, samplePixels.length, colors);
+        return colors;
+    }
+
+    // createGradientDrawable(): Creates a top to bottom gradient of the specified colors.
+    private static GradientDrawable createGradientDrawable(int[] colors) {
+        return new GradientDrawable(GradientDrawable.Orientation.TOP_BOTTOM, colors);
+    }
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [OnGradientListener] INTERFACE
+     * DESCRIPTION: This is an interface subclass that is used to deliver an album gradient.
+     * --------------------------------------------------------------------------------------------
+     */
+    public interface OnGradientListener {
+
+        // onGradientCompleted(): The method that is called on the main thread with the gradient of
+        // the specified album image URL.
+        void onGradientCompleted(String albumUrl, GradientDrawable gradientDrawable);
+    }
+}
@@ -0,0 +1,69 @@
+package com.huhx0015.spotifystreamer.ui.graphics;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.support.v4.content.ContextCompat;
+import android.support.v4.util.LongSparseArray;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSIconAtlas] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSIconAtlas class rasterizes the static player and drawer control icons once per
+ *  icon and pixel size, and shares the rasterized bitmaps across the application. Views create
+ *  their icon drawables once from the atlas, so that toggling a control only swaps drawables.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSIconAtlas {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // ATLAS VARIABLES
+    private final LongSparseArray<Bitmap> iconBitmaps = new LongSparseArray<>(); // Rasterized icons, keyed by resource ID and pixel size.
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSIconAtlas(): Constructor for SSIconAtlas class.
+    private final static SSIconAtlas ss_icons = new SSIconAtlas();
+
+    // SSIconAtlas(): Deconstructor for SSIconAtlas class.
+    private SSIconAtlas() {}
+
+    // getInstance(): Returns the ss_icons instance.
+    public static SSIconAtlas getInstance() { return ss_icons; }
+
+    /** ATLAS METHODS __________________________________________________________________________ **/
+
+    // getIcon(): Returns a drawable of the specified icon resource at the specified size (in dp).
+    // The icon is rasterized at the current display density the first time it is requested at
+    // that size; later requests share the rasterized bitmap. Must be called on the main thread.
+    public Drawable getIcon(Context context, int resId, int sizeDp) {
+        return new BitmapDrawable(context.getResources(), getIconBitmap(context, resId, sizeDp));
+    }
+
+    // getIconBitmap(): Returns the rasterized bitmap of the specified icon resource at the
+    // specified size (in dp), rasterizing it if it has not been requested at that size yet.
+    private Bitmap getIconBitmap(Context context, int resId, int sizeDp) {
+
+        int sizePx = Math.max(1, (int) (sizeDp * context.getResources().getDisplayMetrics().density));
+        long key = ((long) resId << 32) | sizePx;
+
+        Bitmap iconBitmap = iconBitmaps.get(key);
+
+        if (iconBitmap == null) {
+
+            // Draws the icon resource into a bitmap of the requested size.
+            Drawable iconDrawable = ContextCompat.getDrawable(context, resId);
+            iconBitmap = Bitmap.createBitmap(sizePx, sizePx, Bitmap.Config.ARGB_8888);
+            iconDrawable.setBounds(0, 0, sizePx, sizePx);
+            iconDrawable.draw(new Canvas(iconBitmap));
+
+            iconBitmaps.put(key, iconBitmap);
+        }
+
+        return iconBitmap;
+    }
+}
@@ -7,9 +7,11 @@ import android.app.PendingIntent;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
+import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.media.session.MediaSession;
 import android.os.Build;
+import java.util.WeakHashMap;
 import com.huhx0015.spotifystreamer.R;
 import com.huhx0015.spotifystreamer.activities.SSMainActivity;
 import com.huhx0015.spotifystreamer.services.SSMusicService;
@@ -18,7 +20,9 @@ import com.huhx0015.spotifystreamer.services.SSMusicService;
  *  [SSNotificationPlayer] CLASS
  *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
  *  DESCRIPTION: SSNotificationPlayer is a class that provides methods for constructing a
- *  media-style notification for controlling media playback from the notification bar.
+ *  media-style notification for controlling media playback from the notification bar. The
+ *  PendingIntents are built once, the album artwork is cached at the large icon size, and the
+ *  notification is only re-issued when the displayed content has changed.
  *  -----------------------------------------------------------------------------------------------
  */
 public class SSNotificationPlayer {
@@ -36,24 +40,40 @@ public class SSNotificationPlayer {
     // NOTIFICATION VARIABLES
     private static final int NOTIFICATION_ID = 1995; // Unique identifier for this application's notifications.
 
+    // ARTWORK VARIABLES
+    // Album artwork scaled to the large icon size, keyed by the decoded album bitmap. Tracks of the
+    // same album share the decoded bitmap from the image cache, so each album is only scaled once.
+    private static final WeakHashMap<Bitmap, Bitmap> iconCache = new WeakHashMap<>();
+
+    // DISPLAY VARIABLES
+    private static Bitmap displayedIcon; // The large icon of the notification currently displayed.
+    private static String displayedArtist; // The artist name of the notification currently displayed.
+    private static String displayedTrack; // The track name of the notification currently displayed.
+    private static Object displayedToken; // The MediaSession token of the notification currently displayed.
+
+    // PENDING INTENT VARIABLES
+    private static PendingIntent contentPendingIntent; // Launches the SSMainActivity activity.
+    private static PendingIntent dismissPendingIntent; // Stops playback when the notification is dismissed.
+    private static PendingIntent[] actionPendingIntents; // PendingIntents for the playback controls.
+
     /** NOTIFICATION METHODS ___________________________________________________________________ **/
 
-    // createNotificationPlayer(): Creates a media style notification audio player.
+    // createNotificationPlayer(): Creates a media style notification audio player. The
+    // notification is only issued if the displayed content has changed.
     @TargetApi(Build.VERSION_CODES.LOLLIPOP)
     public static void createNotificationPlayer(MediaSession streamerMediaSession, Bitmap albumImage,
                                           String artist, String track, Context context) {
 
-        // Sets up the PendingIntent for the ContentIntent property, which launches an Intent to
-        // open the SSMainActivity activity class.
-        Intent contentIntent = new Intent(context, SSMainActivity.class);
-        contentIntent.addFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
-        PendingIntent contentPendingIntent = PendingIntent.getActivity(context, 0, contentIntent, 0);
+        Bitmap largeIcon = getLargeIcon(albumImage, context); // Retrieves the scaled album artwork.
+        Object token = streamerMediaSession.getSessionToken();
 
-        // Sets up the PendingIntent for the DeleteIntent property, which signals the SSMusicEngine
-        // to stop audio playback when this notification is dismissed.
-        Intent dismissIntent = new Intent(context, SSMusicService.class);
-        dismissIntent.setAction(ACTION_STOP); // Defines this intent action to be ACTION_STOP.
-        PendingIntent dismissPendingIntent = PendingIntent.getService(context, 1, dismissIntent, 0);
+        // Skips the update if the notification already displays this content.
+        if ((largeIcon == displayedIcon) && token.equals(displayedToken) && isEqual(artist, displayedArtist)
+                && isEqual(track, displayedTrack)) {
+            return;
+        }
+
+        initializePendingIntents(context); // Builds the PendingIntents, if they have not been built.
 
         // Creates a new Notification with audio controls.
         final Notification notiPlay = new Notification.Builder(context)
@@ -66,7 +86,7 @@ public class SSNotificationPlayer {
 
                 .setTicker(artist + " - " + track) // Displays a ticker with the current artist and track name.
                 .setColor(context.getResources().getColor(R.color.ss_toolbar_dark_color))
-                .setLargeIcon(albumImage) // Sets the album bitmap image.
+                .setLargeIcon(largeIcon) // Sets the scaled album bitmap image.
                 .setSmallIcon(R.drawable.ss_notification_icon) // Sets the notification image.
                 .setShowWhen(false) // Disables timestamp display.
                 .setContentIntent(contentPendingIntent) // Launches the SSMainActivity activity when the notification is pressed.
@@ -85,22 +105,25 @@ public class SSNotificationPlayer {
                 .setWhen(0)
 
                 // Adds the playback controls for the media player.
-                .addAction(android.R.drawable.ic_media_previous, "Previous", triggerPlaybackAction(3, context))
-                .addAction(android.R.drawable.ic_media_play, "Play", triggerPlaybackAction(0, context))
-                .addAction(android.R.drawable.ic_media_pause, "Pause", triggerPlaybackAction(1, context))
-                .addAction(android.R.drawable.ic_media_next, "Next", triggerPlaybackAction(2, context))
-                .addAction(android.R.drawable.ic_notification_clear_all, "Remove", triggerPlaybackAction(4, context))
+                .addAction(android.R.drawable.ic_media_previous, "Previous", actionPendingIntents[3])
+                .addAction(android.R.drawable.ic_media_play, "Play", actionPendingIntents[0])
+                .addAction(android.R.drawable.ic_media_pause, "Pause", actionPendingIntents[1])
+                .addAction(android.R.drawable.ic_media_next, "Next", actionPendingIntents[2])
+                .addAction(android.R.drawable.ic_notification_clear_all, "Remove", actionPendingIntents[4])
                 .build();
 
         // Makes this notification an on-going event. With this enabled, the notification cannot be
         // dismissed manually.
         notiPlay.flags = Notification.FLAG_ONGOING_EVENT;
 
-        // Retrieves the transport controls from the current media session.
-        streamerMediaSession.getController().getTransportControls();
-
         // Sets the constructed notification.
         ((NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE)).notify(NOTIFICATION_ID, notiPlay);
+
+        // Stores the displayed content for comparing against the next update.
+        displayedIcon = largeIcon;
+        displayedToken = token;
+        displayedArtist = artist;
+        displayedTrack = track;
     }
 
     // removeNotifications(): This method is used to remove any active notifications displayed from
@@ -108,10 +131,83 @@ public class SSNotificationPlayer {
     public static void removeNotifications(Context context) {
         NotificationManager mNotificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
         mNotificationManager.cancel(NOTIFICATION_ID);
+
+        // Clears the displayed content, so that the next update is always issued.
+        displayedIcon = null;
+        displayedToken = null;
+        displayedArtist = null;
+        displayedTrack = null;
+    }
+
+    // isEqual(): Determines if the two specified strings are equal. Either string may be null.
+    private static boolean isEqual(String first, String second) {
+        return (first == null) ? (second == null) : first.equals(second);
+    }
+
+    /** ARTWORK METHODS ________________________________________________________________________ **/
+
+    // getLargeIcon(): Returns the album image scaled to the notification large icon size. The
+    // scaled image is cached, so that each album image is only scaled once.
+    private static Bitmap getLargeIcon(Bitmap albumImage, Context context) {
+
+        if (albumImage == null) {
+            return null;
+        }
+
+        Bitmap largeIcon = iconCache.get(albumImage);
+
+        if (largeIcon == null) {
+
+            Resources resources = context.getResources();
+            int width = resources.getDimensionPixelSize(android.R.dimen.notification_large_icon_width);
+            int height = resources.getDimensionPixelSize(android.R.dimen.notification_large_icon_height);
+
+            // The album image is used as is if it is already the large icon size. It is not cached,
+            // as the cached value would keep it's own key from being collected.
+            if ((albumImage.getWidth() == width) && (albumImage.getHeight() == height)) {
+                return albumImage;
+            }
+
+            largeIcon = Bitmap.createScaledBitmap(albumImage, width, height, true);
+            iconCache.put(albumImage, largeIcon);
+        }
+
+        return largeIcon;
     }
 
     /** PENDING INTENT METHODS _________________________________________________________________ **/
 
+    // initializePendingIntents(): Builds the PendingIntents used by the notification player. This
+    // is only done once, as the PendingIntents do not change between notification updates.
+    private static void initializePendingIntents(Context context) {
+
+        if (actionPendingIntents != null) {
+            return;
+        }
+
+        Context appContext = context.getApplicationContext();
+
+        // Sets up the PendingIntent for the ContentIntent property, which launches an Intent to
+        // open the SSMainActivity activity class.
+        Intent contentIntent = new Intent(appContext, SSMainActivity.class);
+        contentIntent.addFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        contentPendingIntent = PendingIntent.getActivity(appContext, 0, contentIntent, 0);
+
+        // Sets up the PendingIntent for the DeleteIntent property, which signals the SSMusicEngine
+        // to stop audio playback when this notification is dismissed.
+        Intent dismissIntent = new Intent(appContext, SSMusicService.class);
+        dismissIntent.setAction(ACTION_STOP); // Defines this intent action to be ACTION_STOP.
+        dismissPendingIntent = PendingIntent.getService(appContext, 1, dismissIntent, 0);
+
+        // Sets up the PendingIntents for the PLAY, PAUSE, NEXT, PREVIOUS and REMOVE controls.
+        PendingIntent[] pendingIntents = new PendingIntent[5];
+        for (int i = 0; i < pendingIntents.length; i++) {
+            pendingIntents[i] = triggerPlaybackAction(i, appContext);
+        }
+
+        actionPendingIntents = pendingIntents;
+    }
+
     // triggerPlaybackAction(): This method is invoked whenever the controls in the media player
     // notification are pressed.
     public static PendingIntent triggerPlaybackAction(int actionId, Context context) {
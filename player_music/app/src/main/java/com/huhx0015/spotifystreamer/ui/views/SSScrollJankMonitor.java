@@ -0,0 +1,114 @@
+package com.huhx0015.spotifystreamer.ui.views;
+
+import android.annotation.TargetApi;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.view.Choreographer;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSScrollJankMonitor] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSScrollJankMonitor is a RecyclerView scroll listener that measures the frames
+ *  drawn while a list is scrolling. A frame is counted as janky if it took longer than one and a
+ *  half frame intervals, and the jank counts are logged each time the list comes to rest. The jank
+ *  counts of every list are also combined, for choosing the cheaper rendering modes. This
+ *  requires Android API level 16 (JELLY_BEAN) or higher.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+@TargetApi(16)
+public class SSScrollJankMonitor extends RecyclerView.OnScrollListener implements Choreographer.FrameCallback {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // FRAME VARIABLES
+    private static final long FRAME_INTERVAL_NANOS = 16666667; // Frame interval at 60 frames per second (in nanoseconds).
+    private static final long JANK_THRESHOLD_NANOS = FRAME_INTERVAL_NANOS * 3 / 2; // Frames longer than this are counted as janky.
+    private long lastFrameNanos = 0; // Time of the last frame (in nanoseconds).
+
+    // JANK VARIABLES
+    private Boolean isMonitoring = false; // Used to determine if the list is scrolling and frames are being measured.
+    private int frameCount = 0; // Number of frames drawn during the current scroll.
+    private int jankyFrameCount = 0; // Number of janky frames during the current scroll.
+    private long totalFrameCount = 0; // Number of frames drawn during every scroll.
+    private long totalJankyFrameCount = 0; // Number of janky frames during every scroll.
+    private static long allFrameCount = 0; // Number of frames drawn during every scroll of every list.
+    private static long allJankyFrameCount = 0; // Number of janky frames during every scroll of every list.
+
+    // LOGGING VARIABLES
+    private static final String LOG_TAG = SSScrollJankMonitor.class.getSimpleName();
+    private final String listName; // Name of the monitored list, included in the log output.
+
+    /** INITIALIZATION METHODS _________________________________________________________________ **/
+
+    // SSScrollJankMonitor(): Constructor method for SSScrollJankMonitor.
+    public SSScrollJankMonitor(String name) {
+        this.listName = name;
+    }
+
+    /** EXTENSION METHODS ______________________________________________________________________ **/
+
+    // onScrollStateChanged(): Starts measuring frames when the list starts scrolling, and logs the
+    // jank counts once the list has come to rest.
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+
+        if ((newState != RecyclerView.SCROLL_STATE_IDLE) && !isMonitoring) {
+            isMonitoring = true;
+            frameCount = 0;
+            jankyFrameCount = 0;
+            lastFrameNanos = 0;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        else if ((newState == RecyclerView.SCROLL_STATE_IDLE) && isMonitoring) {
+            isMonitoring = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+
+            totalFrameCount += frameCount;
+            totalJankyFrameCount += jankyFrameCount;
+            allFrameCount += frameCount;
+            allJankyFrameCount += jankyFrameCount;
+
+            Log.d(LOG_TAG, listName + ": Scroll jank: " + jankyFrameCount + "/" + frameCount + " frames, total: " +
+                    totalJankyFrameCount + "/" + totalFrameCount + " frames (" + getJankPercent() + "%).");
+        }
+    }
+
+    // doFrame(): Measures the time since the previous frame, and requests the next frame while the
+    // list is scrolling.
+    @Override
+    public void doFrame(long frameTimeNanos) {
+
+        if (lastFrameNanos != 0) {
+            frameCount++;
+
+            if ((frameTimeNanos - lastFrameNanos) > JANK_THRESHOLD_NANOS) {
+                jankyFrameCount++;
+            }
+        }
+
+        lastFrameNanos = frameTimeNanos;
+
+        if (isMonitoring) {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /** MONITOR METHODS ________________________________________________________________________ **/
+
+    // getJankPercent(): Returns the percentage of janky frames during every scroll.
+    public float getJankPercent() {
+        return totalFrameCount == 0 ? 0 : (totalJankyFrameCount * 100f) / totalFrameCount;
+    }
+
+    // getAllFrameCount(): Returns the number of frames drawn during every scroll of every list.
+    public static long getAllFrameCount() {
+        return allFrameCount;
+    }
+
+    // getAllJankPercent(): Returns the percentage of janky frames during every scroll of every list.
+    public static float getAllJankPercent() {
+        return allFrameCount == 0 ? 0 : (allJankyFrameCount * 100f) / allFrameCount;
+    }
+}
@@ -0,0 +1,56 @@
+package com.huhx0015.spotifystreamer;
+
+import org.junit.Assume;
+import java.lang.management.ManagementFactory;
+import static org.junit.Assert.assertTrue;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSAllocationMeter] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSAllocationMeter is a test utility that measures the memory allocated by the
+ *  calling thread while a workload runs. The workload is run once to warm up the JIT compiler and
+ *  any reused buffers, and the allocations of a second run are measured. Tests are skipped on JVMs
+ *  that do not support allocation measurement.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSAllocationMeter {
+
+    /** ALLOCATION METHODS _____________________________________________________________________ **/
+
+    // assertAllocatesLessThan(): Asserts that a warmed up run of the specified workload allocates
+    // less than the specified number of bytes on the calling thread.
+    public static void assertAllocatesLessThan(long maxBytes, Runnable workload) {
+
+        com.sun.management.ThreadMXBean threadBean = getThreadBean();
+        Assume.assumeTrue(threadBean != null);
+
+        workload.run(); // Warms up the JIT compiler and any reused buffers.
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        workload.run();
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("Allocated " + allocated + " bytes", allocated < maxBytes);
+    }
+
+    // getThreadBean(): Returns the thread bean used to measure allocations, or null if allocation
+    // measurement is not supported by the JVM.
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+
+        try {
+            com.sun.management.ThreadMXBean bean =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+            if (bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return bean;
+            }
+        }
+
+        catch (ClassCastException | UnsupportedOperationException e) {}
+
+        return null;
+    }
+}
@@ -0,0 +1,500 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import android.content.Context;
+import com.huhx0015.spotifystreamer.interfaces.OnPlaybackEventListener;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSFakePlaybackEngine] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSFakePlaybackEngine class is a deterministic SSPlaybackEngine implementation that
+ *  runs on a virtual clock instead of a MediaPlayer object. Commands are applied immediately, and
+ *  the prepared and completion events are fired only when the virtual clock is advanced, so the
+ *  same sequence of commands always produces the same result. A song that has a next song set
+ *  is crossfaded into it once the song ends, and the advanced and completed events are signalled
+ *  to the event listener right away instead of through the SSPlaybackEventBus. The playback
+ *  metrics are recorded in the same order as SSMusicEngine, and preparations and loaded songs can
+ *  be made to fail, so that the retry path is covered. No objects are allocated once a command sequence is running.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSFakePlaybackEngine implements SSPlaybackEngine {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // AUDIO VARIABLES
+    private final SSPlaybackClock playbackClock; // Tracks the playback position on the virtual clock.
+    private String currentUrl; // The URL of the song currently loaded.
+    private String nextUrl; // The URL of the song set to be crossfaded into.
+    private int resumePosition = 0; // Position (in milliseconds) at which playback begins once prepared.
+
+    // FAKE VARIABLES
+    private final int prepareLatency; // Number of virtual milliseconds a song takes to prepare.
+    private final int songDuration; // The duration (in milliseconds) of every song.
+    private long preparedAt = -1; // Virtual time at which the current preparation completes.
+    private long prepareStartedAt = -1; // Virtual time at which the current preparation began.
+    private boolean isHoldingPrepared = false; // Used to determine if the song being prepared is to be held instead of played.
+    private boolean hasRetried = false; // Used to determine if the current song has already been retried.
+    private int failingPrepareCount = 0; // Number of upcoming preparations that fail instead of completing.
+
+    // LISTENER VARIABLES
+    private OnPlaybackEventListener eventListener; // Signalled when playback advances or completes.
+
+    // METRICS VARIABLES
+    private final SSPlaybackMetrics playbackMetrics; // Records the playback quality on the virtual clock.
+
+    // STATE VARIABLES
+    private SSPlaybackState playbackState = SSPlaybackState.IDLE;
+
+    // STATISTIC VARIABLES
+    private int commandCount = 0; // Number of commands that have been issued.
+    private int rejectedCount = 0; // Number of state transitions that were rejected.
+    private int completedCount = 0; // Number of songs that have reached the end of playback.
+    private int advancedCount = 0; // Number of songs that have been crossfaded into.
+    private long maxStartLatency = 0; // Longest virtual time (in milliseconds) from play to PLAYING.
+
+    // TIME VARIABLES
+    private final VirtualTime virtualTime = new VirtualTime(); // The virtual clock.
+
+    /** INITIALIZATION FUNCTIONALITY ___________________________________________________________ **/
+
+    // SSFakePlaybackEngine(): Constructor for SSFakePlaybackEngine class.
+    public SSFakePlaybackEngine(int prepareLatency, int songDuration) {
+        this.prepareLatency = prepareLatency;
+        this.songDuration = songDuration;
+        this.playbackClock = new SSPlaybackClock(virtualTime);
+        this.playbackMetrics = new SSPlaybackMetrics(virtualTime);
+    }
+
+    @Override
+    public void initializeAudio(Context con) {
+        releaseMedia();
+        resumePosition = 0;
+        playbackClock.reset();
+    }
+
+    /** VIRTUAL CLOCK FUNCTIONALITY ____________________________________________________________ **/
+
+    // advanceTime(): Advances the virtual clock by the specified number of milliseconds, firing the
+    // prepared and completion events that fall within the elapsed time in the order that they
+    // occur. The event listener may issue new commands, which are applied before the next event.
+    public void advanceTime(long elapsed) {
+
+        long target = virtualTime.now + elapsed;
+
+        while (true) {
+
+            // PREPARED: Fires once the preparation deadline has been reached, unless the
+            // preparation has been made to fail, in which case it is retried.
+            if ((playbackState == SSPlaybackState.PREPARING) && (preparedAt >= 0) && (preparedAt <= target)) {
+                virtualTime.now = preparedAt;
+
+                if (failingPrepareCount > 0) {
+                    failingPrepareCount--;
+                    retryOrFail(false);
+                }
+
+                else {
+                    onPrepared();
+                }
+            }
+
+            // COMPLETION: Fires once the song position reaches the end of the song.
+            else if ((playbackState == SSPlaybackState.PLAYING) &&
+                    (virtualTime.now + (songDuration - playbackClock.getPosition()) <= target)) {
+                virtualTime.now += songDuration - playbackClock.getPosition();
+                onCompletion();
+            }
+
+            else {
+                break;
+            }
+        }
+
+        virtualTime.now = target;
+    }
+
+    // now(): Returns the current virtual time (in milliseconds).
+    public long now() {
+        return virtualTime.now;
+    }
+
+    /** STATE FUNCTIONALITY ____________________________________________________________________ **/
+
+    @Override
+    public SSPlaybackState getPlaybackState() {
+        return playbackState;
+    }
+
+    @Override
+    public Boolean isPreparing() {
+        return playbackState == SSPlaybackState.PREPARING;
+    }
+
+    @Override
+    public Boolean isSongPlaying() {
+        return playbackState == SSPlaybackState.PLAYING;
+    }
+
+    // setState(): Transitions to the specified playback state, using the same transition rules as
+    // SSMusicEngine. Returns false if the transition is not allowed.
+    private boolean setState(SSPlaybackState next) {
+
+        if (!playbackState.canTransitionTo(next)) {
+            rejectedCount++;
+            return false;
+        }
+
+        playbackState = next;
+        return true;
+    }
+
+    /** MUSIC FUNCTIONALITY ____________________________________________________________________ **/
+
+    @Override
+    public float getBufferedFraction() {
+        return (playbackState == SSPlaybackState.PREPARING) || (currentUrl == null) ? 0f : 1f;
+    }
+
+    @Override
+    public int getRebufferCount() {
+        return 0;
+    }
+
+    @Override
+    public int getSongDuration() {
+        return playbackClock.getDuration();
+    }
+
+    @Override
+    public int getSongPosition() {
+        return playbackClock.getPosition();
+    }
+
+    // setNextSong(): Sets the next song to crossfade into. The crossfade is simulated at the end of
+    // the current song, regardless of the crossfade duration.
+    @Override
+    public void setNextSong(String songUrl, int crossfade) {
+        commandCount++;
+        nextUrl = songUrl;
+    }
+
+    @Override
+    public void setOnClockStateListener(SSPlaybackClock.OnClockStateListener listener) {
+        playbackClock.setOnClockStateListener(listener);
+    }
+
+    @Override
+    public void setPrepareTimeout(int timeout) {
+        commandCount++;
+    }
+
+    @Override
+    public void setSongPosition(int position) {
+
+        commandCount++;
+        resumePosition = position;
+
+        if ((playbackState == SSPlaybackState.PLAYING) || (playbackState == SSPlaybackState.PAUSED) ||
+                (playbackState == SSPlaybackState.PREPARED)) {
+            playbackClock.anchor(Math.min(position, songDuration), playbackState == SSPlaybackState.PLAYING);
+        }
+    }
+
+    @Override
+    public void playSongUrl(String songUrl, Boolean loop) {
+
+        commandCount++;
+
+        // HELD: A song that is still being prepared to be held is played once prepared instead.
+        if ((playbackState == SSPlaybackState.PREPARING) && isHoldingPrepared && songUrl.equals(currentUrl)) {
+            isHoldingPrepared = false;
+            playbackMetrics.beginPlay(songUrl, false);
+        }
+
+        // RESUME: A paused or held song is resumed without being prepared again.
+        else if (((playbackState == SSPlaybackState.PAUSED) || (playbackState == SSPlaybackState.PREPARED))
+                && songUrl.equals(currentUrl)) {
+
+            isHoldingPrepared = false;
+            playbackMetrics.clearTap();
+
+            if (setState(SSPlaybackState.PLAYING)) {
+                playbackClock.anchor(resumePosition, true);
+                resumePosition = 0;
+            }
+        }
+
+        // PREPARE: The song becomes prepared once the prepare latency has elapsed.
+        else {
+            hasRetried = false;
+            isHoldingPrepared = false;
+            playbackMetrics.beginPlay(songUrl, false);
+            startPrepare(songUrl);
+        }
+    }
+
+    @Override
+    public void prepareSongUrl(String songUrl, int position) {
+
+        commandCount++;
+
+        // Nothing is prepared if a song is already loaded.
+        if ((playbackState == SSPlaybackState.PREPARING) || (playbackState == SSPlaybackState.PREPARED) ||
+                (playbackState == SSPlaybackState.PLAYING) || (playbackState == SSPlaybackState.PAUSED)) {
+            return;
+        }
+
+        hasRetried = false;
+        isHoldingPrepared = true;
+        startPrepare(songUrl);
+        resumePosition = position;
+    }
+
+    // startPrepare(): Begins preparing the specified song.
+    private void startPrepare(String songUrl) {
+        setState(SSPlaybackState.PREPARING);
+        currentUrl = songUrl;
+        prepareStartedAt = virtualTime.now;
+        preparedAt = virtualTime.now + prepareLatency;
+        playbackClock.reset();
+    }
+
+    @Override
+    public void pauseSong() {
+
+        commandCount++;
+
+        if (setState(SSPlaybackState.PAUSED)) {
+            resumePosition = playbackClock.getPosition();
+            playbackClock.anchor(resumePosition, false);
+        }
+    }
+
+    @Override
+    public void stopSong() {
+
+        commandCount++;
+
+        SSPlaybackState previousState = playbackState;
+
+        if (setState(SSPlaybackState.STOPPED)) {
+
+            isHoldingPrepared = false;
+
+            // PREPARING: The pending preparation is cancelled.
+            if (previousState == SSPlaybackState.PREPARING) {
+                preparedAt = -1;
+                currentUrl = null;
+            }
+
+            playbackClock.reset();
+            playbackMetrics.endPlay();
+        }
+    }
+
+    @Override
+    public void releaseMedia() {
+
+        commandCount++;
+
+        setState(SSPlaybackState.IDLE);
+        preparedAt = -1;
+        currentUrl = null;
+        playbackClock.anchor(playbackClock.getPosition(), false);
+        playbackMetrics.endPlay();
+    }
+
+    @Override
+    public void updatePlayer() {
+        commandCount++;
+    }
+
+    @Override
+    public void warmUp() {}
+
+    // onPrepared(): Begins playback once the song has been prepared, or holds the song at it's
+    // resume position if it is not to be played yet.
+    private void onPrepared() {
+
+        preparedAt = -1;
+        playbackMetrics.markPrepared();
+
+        if (isHoldingPrepared) {
+
+            if (setState(SSPlaybackState.PREPARED)) {
+                playbackClock.setDuration(songDuration);
+                playbackClock.anchor(Math.min(resumePosition, songDuration), false);
+            }
+        }
+
+        else if (setState(SSPlaybackState.PLAYING)) {
+
+            maxStartLatency = Math.max(maxStartLatency, virtualTime.now - prepareStartedAt);
+            playbackMetrics.markFirstAudio();
+
+            playbackClock.setDuration(songDuration);
+            playbackClock.anchor(Math.min(resumePosition, songDuration), true);
+            resumePosition = 0;
+        }
+    }
+
+    // onCompletion(): Crossfades into the next song once the song has reached the end of playback,
+    // if a next song has been set. Otherwise, the clock is stopped.
+    private void onCompletion() {
+
+        // CROSSFADE: The next song is already prepared, and starts playing from the beginning.
+        if (nextUrl != null) {
+
+            playbackMetrics.beginPlay(nextUrl, true); // Commits the record of the previous song.
+            playbackMetrics.markPrepared();
+            playbackMetrics.markFirstAudio();
+
+            advancedCount++;
+            currentUrl = nextUrl;
+            nextUrl = null;
+            resumePosition = 0;
+            playbackClock.anchor(0, true);
+
+            if (eventListener != null) {
+                eventListener.playbackAdvanced();
+            }
+        }
+
+        else if (setState(SSPlaybackState.STOPPED)) {
+            completedCount++;
+            playbackMetrics.endPlay();
+            resumePosition = 0;
+            playbackClock.anchor(songDuration, false);
+
+            if (eventListener != null) {
+                eventListener.playbackCompleted();
+            }
+        }
+    }
+
+    // setOnPlaybackEventListener(): Sets the listener that is signalled when playback advances
+    // to the next song or completes.
+    public void setOnPlaybackEventListener(OnPlaybackEventListener listener) {
+        this.eventListener = listener;
+    }
+
+    // retryOrFail(): Retries the failed song once, keeping the playback record open as
+    // SSMusicEngine does, and otherwise fails the song. A paused song is only prepared and held at
+    // it's paused position. isTimeout indicates whether the failure was a time-out or an error.
+    private void retryOrFail(boolean isTimeout) {
+
+        SSPlaybackState state = playbackState;
+
+        // A time-out once the song has been prepared is a buffering stall.
+        if (isTimeout && (state != SSPlaybackState.PREPARING)) {
+            playbackMetrics.markRebufferTimeout();
+        }
+
+        else {
+            playbackMetrics.markPrepareFailure(isTimeout);
+        }
+
+        if (!hasRetried && (currentUrl != null)) {
+
+            hasRetried = true;
+
+            if (state == SSPlaybackState.PAUSED) {
+                isHoldingPrepared = true;
+            }
+
+            int lastPosition = (state == SSPlaybackState.PAUSED) ? resumePosition : playbackClock.getPosition();
+            if (lastPosition > 0) {
+                resumePosition = lastPosition;
+            }
+
+            startPrepare(currentUrl);
+            playbackClock.anchor(lastPosition, false);
+        }
+
+        else {
+            setState(SSPlaybackState.ERROR);
+            playbackMetrics.markFailed();
+            isHoldingPrepared = false;
+            preparedAt = -1;
+            resumePosition = 0;
+            playbackClock.reset();
+        }
+    }
+
+    // failPlayback(): Fails the song that is currently loaded, as an error reported by the
+    // MediaPlayer object or as a buffering stall that has reached it's deadline.
+    public void failPlayback(boolean isTimeout) {
+
+        if ((playbackState == SSPlaybackState.PLAYING) || (playbackState == SSPlaybackState.PAUSED) ||
+                (playbackState == SSPlaybackState.PREPARED)) {
+            retryOrFail(isTimeout);
+        }
+    }
+
+    // failPrepares(): Makes the specified number of upcoming preparations fail.
+    public void failPrepares(int count) {
+        failingPrepareCount = count;
+    }
+
+    /** STATISTIC FUNCTIONALITY ________________________________________________________________ **/
+
+    // getAdvancedCount(): Returns the number of songs that have been crossfaded into.
+    public int getAdvancedCount() {
+        return advancedCount;
+    }
+
+    // getCommandCount(): Returns the number of commands that have been issued.
+    public int getCommandCount() {
+        return commandCount;
+    }
+
+    // getCompletedCount(): Returns the number of songs that have reached the end of playback.
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    // getCurrentUrl(): Returns the URL of the song currently loaded.
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    // getMaxStartLatency(): Returns the longest virtual time (in milliseconds) between a play
+    // command and the start of playback.
+    public long getMaxStartLatency() {
+        return maxStartLatency;
+    }
+
+    // getMetrics(): Returns the playback metrics recorded by the fake engine.
+    public SSPlaybackMetrics getMetrics() {
+        return playbackMetrics;
+    }
+
+    // getNextUrl(): Returns the URL of the song set to be crossfaded into.
+    public String getNextUrl() {
+        return nextUrl;
+    }
+
+    // getRejectedCount(): Returns the number of state transitions that were rejected.
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [VirtualTime] CLASS
+     * DESCRIPTION: This is a TimeSource subclass that returns the virtual time, which only changes
+     * when advanceTime() is called.
+     * --------------------------------------------------------------------------------------------
+     */
+    private static class VirtualTime implements SSPlaybackClock.TimeSource {
+
+        private long now = 0; // The current virtual time (in milliseconds).
+
+        @Override
+        public long now() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,553 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import com.huhx0015.spotifystreamer.SSAllocationMeter;
+import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
+import com.huhx0015.spotifystreamer.interfaces.OnPlaybackEventListener;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSPlaybackEngineTest] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSPlaybackEngineTest runs play, skip, seek, pause and stop sequences on the JVM,
+ *  through the SSPlaybackController of the SSMusicService with the SSFakePlaybackEngine as the
+ *  playback engine, and verifies the playback state, the queued tracks, the start latency and the
+ *  allocation behaviour of the playback control logic. The advanced and completed events of the
+ *  fake engine are handled by the controller, as SSMusicService does while no player interface is
+ *  attached.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSPlaybackEngineTest {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // FAKE VARIABLES
+    private static final int PREPARE_LATENCY = 300; // Virtual prepare latency (in milliseconds).
+    private static final int SONG_DURATION = 30000; // Duration of every song (in milliseconds).
+    private SSFakePlaybackEngine engine;
+
+    // CONTROLLER VARIABLES
+    private static final int CROSSFADE_DURATION = 5000; // Crossfade duration (in milliseconds).
+    private SSPlaybackController controller;
+    private SSPlaybackQueue queue;
+
+    // SEQUENCE VARIABLES
+    private static final int SEQUENCE_COUNT = 100000; // Number of random commands per sequence.
+    private static final int MAX_ALLOCATED_BYTES = 64 * 1024; // Allocation budget per sequence.
+    private static final String[] SONG_URLS = { "song_0", "song_1", "song_2", "song_3", "song_4" };
+
+    /** SETUP METHODS __________________________________________________________________________ **/
+
+    @Before
+    public void setUp() {
+
+        engine = new SSFakePlaybackEngine(PREPARE_LATENCY, SONG_DURATION);
+        queue = new SSPlaybackQueue(new Random(SONG_URLS.length));
+        controller = new SSPlaybackController(engine, queue);
+
+        List<SSSpotifyModel> tracks = new ArrayList<>();
+
+        for (int i = 0; i < SONG_URLS.length; i++) {
+            tracks.add(new SSSpotifyModel("artist", "album", "song", "id_" + i, SONG_URLS[i], "image"));
+        }
+
+        queue.setTracks(tracks, 0);
+        controller.updateSettings(true, false, false, CROSSFADE_DURATION, PREPARE_LATENCY * 2);
+        engine.setOnPlaybackEventListener(new ControllerEventListener());
+    }
+
+    /** TEST METHODS ___________________________________________________________________________ **/
+
+    @Test
+    public void playBeginsOnceSongIsPrepared() {
+
+        engine.playSongUrl(SONG_URLS[0], false);
+        assertTrue(engine.isPreparing());
+
+        engine.advanceTime(PREPARE_LATENCY - 1);
+        assertTrue(engine.isPreparing());
+
+        engine.advanceTime(1);
+        assertTrue(engine.isSongPlaying());
+        assertEquals(0, engine.getSongPosition());
+        assertEquals(SONG_DURATION, engine.getSongDuration());
+    }
+
+    @Test
+    public void pauseAndResumeKeepsPosition() {
+
+        engine.playSongUrl(SONG_URLS[0], false);
+        engine.advanceTime(PREPARE_LATENCY + 5000);
+        engine.pauseSong();
+        engine.advanceTime(10000);
+
+        assertEquals(SSPlaybackState.PAUSED, engine.getPlaybackState());
+        assertEquals(5000, engine.getSongPosition());
+
+        engine.playSongUrl(SONG_URLS[0], false);
+        engine.advanceTime(1000);
+
+        assertTrue(engine.isSongPlaying());
+        assertEquals(6000, engine.getSongPosition());
+    }
+
+    @Test
+    public void stopDuringPrepareCancelsPlayback() {
+
+        engine.playSongUrl(SONG_URLS[0], false);
+        engine.stopSong();
+        engine.advanceTime(PREPARE_LATENCY * 2);
+
+        assertEquals(SSPlaybackState.STOPPED, engine.getPlaybackState());
+        assertFalse(engine.isSongPlaying());
+    }
+
+    @Test
+    public void invalidCommandsAreRejected() {
+
+        engine.pauseSong(); // IDLE -> PAUSED
+        engine.stopSong(); // IDLE -> STOPPED
+        engine.playSongUrl(SONG_URLS[0], false);
+        engine.pauseSong(); // PREPARING -> PAUSED
+
+        assertEquals(3, engine.getRejectedCount());
+        assertTrue(engine.isPreparing());
+    }
+
+    @Test
+    public void songCompletesAtEndOfDuration() {
+
+        engine.setOnPlaybackEventListener(null); // The next track is not played by the controller.
+        engine.playSongUrl(SONG_URLS[0], false);
+        engine.advanceTime(PREPARE_LATENCY + SONG_DURATION);
+
+        assertEquals(SSPlaybackState.STOPPED, engine.getPlaybackState());
+        assertEquals(SONG_DURATION, engine.getSongPosition());
+        assertEquals(1, engine.getCompletedCount());
+    }
+
+    @Test
+    public void preparedSongIsHeldUntilPlayed() {
+
+        engine.prepareSongUrl(SONG_URLS[0], 12000);
+        engine.advanceTime(PREPARE_LATENCY);
+
+        assertEquals(SSPlaybackState.PREPARED, engine.getPlaybackState());
+        assertEquals(12000, engine.getSongPosition());
+
+        engine.advanceTime(1000);
+        assertEquals(12000, engine.getSongPosition());
+
+        engine.playSongUrl(SONG_URLS[0], false); // Resumes without preparing the song again.
+        assertTrue(engine.isSongPlaying());
+
+        engine.advanceTime(1000);
+        assertEquals(13000, engine.getSongPosition());
+    }
+
+    @Test
+    public void metricsRecordEachPlayAndRetry() {
+
+        engine.playSongUrl(SONG_URLS[0], false);
+        engine.advanceTime(PREPARE_LATENCY + 1000);
+        engine.playSongUrl(SONG_URLS[1], false); // Replaces the playing song.
+        engine.advanceTime(PREPARE_LATENCY + 1000);
+
+        engine.failPrepares(2); // Fails the preparation and the retry.
+        engine.playSongUrl(SONG_URLS[2], false);
+        engine.advanceTime(PREPARE_LATENCY * 2);
+
+        assertEquals(SSPlaybackState.ERROR, engine.getPlaybackState());
+
+        String json = engine.getMetrics().toJson("test");
+
+        assertTrue(json, json.contains("\"total_plays\":3"));
+        assertTrue(json, json.contains("{\"url\":\"song_0\",\"crossfade\":false,\"tap_to_prepare_start_ms\":0," +
+                "\"tap_to_prepared_ms\":" + PREPARE_LATENCY + ",\"prepared_to_first_audio_ms\":0,"));
+        assertTrue(json, json.contains("{\"url\":\"song_1\",\"crossfade\":false,\"tap_to_prepare_start_ms\":0," +
+                "\"tap_to_prepared_ms\":" + PREPARE_LATENCY + ",\"prepared_to_first_audio_ms\":0,"));
+        assertTrue(json, json.contains("{\"url\":\"song_2\",\"crossfade\":false,\"tap_to_prepare_start_ms\":0," +
+                "\"tap_to_prepared_ms\":-1,\"prepared_to_first_audio_ms\":-1,\"rebuffers\":0,\"rebuffer_ms\":0," +
+                "\"rebuffer_timeouts\":0,\"prepare_errors\":2,\"prepare_timeouts\":0,\"failed\":true}"));
+        assertTrue(json, json.contains("\"ttfa_p50_ms\":" + PREPARE_LATENCY + ",\"ttfa_p90_ms\":" + PREPARE_LATENCY));
+        assertTrue(json, json.contains("\"prepare_errors\":2,\"prepare_timeouts\":0,\"failures\":1}"));
+    }
+
+    @Test
+    public void errorWhilePausedIsRetriedWithoutPlaying() {
+
+        engine.playSongUrl(SONG_URLS[0], false);
+        engine.advanceTime(PREPARE_LATENCY + 5000);
+        engine.pauseSong();
+        engine.failPlayback(false); // The stream fails while paused.
+
+        engine.advanceTime(PREPARE_LATENCY + 1000);
+        assertEquals(SSPlaybackState.PREPARED, engine.getPlaybackState());
+        assertEquals(5000, engine.getSongPosition());
+
+        engine.playSongUrl(SONG_URLS[0], false); // Resumes at the paused position.
+        engine.advanceTime(1000);
+
+        assertTrue(engine.isSongPlaying());
+        assertEquals(6000, engine.getSongPosition());
+
+        engine.stopSong(); // Commits the playback record.
+        String json = engine.getMetrics().toJson("test");
+
+        assertTrue(json, json.contains("\"rebuffer_timeouts\":0,\"prepare_errors\":1,\"prepare_timeouts\":0,"));
+    }
+
+    @Test
+    public void stallTimeoutIsRecordedAsRebufferTimeout() {
+
+        engine.playSongUrl(SONG_URLS[0], false);
+        engine.advanceTime(PREPARE_LATENCY + 1000);
+        engine.failPlayback(true); // The stall deadline is reached during playback.
+
+        engine.advanceTime(PREPARE_LATENCY);
+        assertTrue(engine.isSongPlaying());
+        assertEquals(1000, engine.getSongPosition());
+
+        engine.stopSong(); // Commits the playback record.
+        String json = engine.getMetrics().toJson("test");
+
+        assertTrue(json, json.contains("\"rebuffer_timeouts\":1,\"prepare_errors\":0,\"prepare_timeouts\":0,"));
+    }
+
+    @Test
+    public void metricsIgnoreTapsOfResumesAndEarlierCommands() {
+
+        engine.setOnPlaybackEventListener(null); // No track is played by the controller.
+        engine.advanceTime(100);
+        engine.getMetrics().markTap();
+        engine.advanceTime(100);
+        engine.playSongUrl(SONG_URLS[0], false);
+        engine.advanceTime(PREPARE_LATENCY + 1000);
+        engine.pauseSong();
+
+        engine.getMetrics().markTap(); // Resumes the paused song.
+        engine.playSongUrl(SONG_URLS[0], false);
+        engine.advanceTime(10000);
+        engine.playSongUrl(SONG_URLS[1], false); // Played without a tap, as from the notification.
+        engine.advanceTime(PREPARE_LATENCY);
+
+        engine.getMetrics().markTap(); // A tap that did not reach the playback engine.
+        engine.advanceTime(10000);
+        engine.playSongUrl(SONG_URLS[2], false);
+        engine.stopSong();
+
+        String json = engine.getMetrics().toJson("test");
+
+        assertTrue(json, json.contains("{\"url\":\"song_0\",\"crossfade\":false,\"tap_to_prepare_start_ms\":100,"));
+        assertTrue(json, json.contains("{\"url\":\"song_1\",\"crossfade\":false,\"tap_to_prepare_start_ms\":0," +
+                "\"tap_to_prepared_ms\":" + PREPARE_LATENCY + ","));
+        assertTrue(json, json.contains("{\"url\":\"song_2\",\"crossfade\":false,\"tap_to_prepare_start_ms\":0,"));
+    }
+
+    @Test
+    public void metricsEscapeSongUrls() {
+
+        engine.playSongUrl("song_\"5\"\\", false);
+        engine.stopSong();
+
+        String json = engine.getMetrics().toJson("test");
+
+        assertTrue(json, json.contains("{\"url\":\"song_\\\"5\\\"\\\\\","));
+    }
+
+    @Test
+    public void skipWhilePlayingPlaysNewTrack() {
+
+        controller.playCurrentTrack();
+        engine.advanceTime(PREPARE_LATENCY + 1000);
+
+        assertEquals(SONG_URLS[1], engine.getNextUrl());
+
+        controller.skipTrack(true);
+
+        assertTrue(engine.isPreparing());
+        assertEquals(SONG_URLS[1], engine.getCurrentUrl());
+        assertEquals(SONG_URLS[2], engine.getNextUrl());
+
+        engine.advanceTime(PREPARE_LATENCY);
+        assertTrue(engine.isSongPlaying());
+        assertEquals(0, engine.getSongPosition());
+    }
+
+    @Test
+    public void skipWhilePausedOnlyMovesQueue() {
+
+        controller.playCurrentTrack();
+        engine.advanceTime(PREPARE_LATENCY + 1000);
+        controller.pauseSong(false);
+
+        controller.skipTrack(true);
+        controller.skipTrack(true);
+
+        assertEquals(SSPlaybackState.PAUSED, engine.getPlaybackState());
+        assertEquals(SONG_URLS[0], engine.getCurrentUrl());
+        assertEquals(2, queue.getCurrentPosition());
+        assertEquals(SONG_URLS[3], engine.getNextUrl());
+
+        controller.playCurrentTrack(); // Prepares the new track instead of resuming the old one.
+        assertTrue(engine.isPreparing());
+        assertEquals(SONG_URLS[2], engine.getCurrentUrl());
+    }
+
+    @Test
+    public void nextTrackFollowsSettingsAndQueueEnd() {
+
+        controller.playCurrentTrack();
+        assertEquals(SONG_URLS[1], engine.getNextUrl());
+
+        controller.updateSettings(true, true, false, CROSSFADE_DURATION, PREPARE_LATENCY * 2);
+        controller.queueNextTrack();
+        assertNull(engine.getNextUrl()); // Repeat is enabled.
+
+        controller.updateSettings(true, false, false, CROSSFADE_DURATION, PREPARE_LATENCY * 2);
+        queue.moveTo(SONG_URLS.length - 1);
+        controller.playCurrentTrack();
+        assertNull(engine.getNextUrl()); // The end of the queue has been reached.
+
+        assertNull(controller.skipTrack(true));
+        assertEquals(SONG_URLS[SONG_URLS.length - 1], engine.getCurrentUrl());
+    }
+
+    @Test
+    public void preparedTrackIsResumedFromQueue() {
+
+        queue.moveTo(3);
+        controller.prepareCurrentTrack(12000);
+        engine.advanceTime(PREPARE_LATENCY);
+
+        assertEquals(SSPlaybackState.PREPARED, engine.getPlaybackState());
+        assertEquals(SONG_URLS[3], engine.getCurrentUrl());
+
+        controller.playCurrentTrack(); // Resumes without preparing the song again.
+        engine.advanceTime(1000);
+
+        assertTrue(engine.isSongPlaying());
+        assertEquals(13000, engine.getSongPosition());
+        assertEquals(SONG_URLS[4], engine.getNextUrl());
+    }
+
+    @Test
+    public void crossfadeAdvancesQueue() {
+
+        controller.playCurrentTrack();
+        engine.advanceTime(PREPARE_LATENCY + SONG_DURATION + 1000);
+
+        assertEquals(1, engine.getAdvancedCount());
+        assertTrue(engine.isSongPlaying());
+        assertEquals(1000, engine.getSongPosition());
+        assertEquals(1, queue.getCurrentPosition());
+        assertEquals(SONG_URLS[1], engine.getCurrentUrl());
+        assertEquals(SONG_URLS[2], engine.getNextUrl());
+
+        // Playback continues through the rest of the queue, and stops at the end.
+        engine.advanceTime(SONG_DURATION * SONG_URLS.length);
+
+        assertEquals(SONG_URLS.length - 1, engine.getAdvancedCount());
+        assertEquals(SONG_URLS.length - 1, queue.getCurrentPosition());
+        assertEquals(SSPlaybackState.STOPPED, engine.getPlaybackState());
+        assertEquals(1, engine.getCompletedCount());
+    }
+
+    @Test
+    public void completionPlaysNextTrackWithoutCrossfade() {
+
+        controller.updateSettings(true, false, false, 0, PREPARE_LATENCY * 2);
+        controller.playCurrentTrack();
+        engine.advanceTime(PREPARE_LATENCY + SONG_DURATION);
+
+        assertEquals(0, engine.getAdvancedCount());
+        assertTrue(engine.isPreparing());
+        assertEquals(1, queue.getCurrentPosition());
+        assertEquals(SONG_URLS[1], engine.getCurrentUrl());
+
+        engine.advanceTime(PREPARE_LATENCY + 1000);
+        assertTrue(engine.isSongPlaying());
+        assertEquals(1000, engine.getSongPosition());
+    }
+
+    @Test
+    public void completionFollowsRepeatAndAutoPlay() {
+
+        // REPEAT: The current track is played again.
+        controller.updateSettings(true, true, false, CROSSFADE_DURATION, PREPARE_LATENCY * 2);
+        controller.playCurrentTrack();
+        engine.advanceTime(PREPARE_LATENCY + SONG_DURATION);
+
+        assertTrue(engine.isPreparing());
+        assertEquals(0, queue.getCurrentPosition());
+        assertEquals(SONG_URLS[0], engine.getCurrentUrl());
+
+        // AUTO PLAY DISABLED: Playback ends with the current track.
+        controller.updateSettings(false, false, false, CROSSFADE_DURATION, PREPARE_LATENCY * 2);
+        engine.advanceTime(PREPARE_LATENCY + SONG_DURATION);
+
+        assertEquals(SSPlaybackState.STOPPED, engine.getPlaybackState());
+        assertEquals(0, queue.getCurrentPosition());
+        assertEquals(2, engine.getCompletedCount());
+    }
+
+    @Test
+    public void randomSequencesKeepPlaybackConsistent() {
+
+        assertEquals(SEQUENCE_COUNT, runSequence(new Random(26), SEQUENCE_COUNT));
+        assertTrue(engine.getMaxStartLatency() <= PREPARE_LATENCY);
+        assertTrue(engine.getAdvancedCount() > 0);
+        assertTrue(engine.getCompletedCount() > 0);
+
+        // SHUFFLE: The same invariants hold for the shuffled play order.
+        controller.updateSettings(true, false, true, CROSSFADE_DURATION, PREPARE_LATENCY * 2);
+        assertEquals(SEQUENCE_COUNT, runSequence(new Random(27), SEQUENCE_COUNT));
+    }
+
+    @Test
+    public void randomSequencesDoNotAllocate() {
+
+        controller.updateSettings(true, false, true, CROSSFADE_DURATION, PREPARE_LATENCY * 2);
+
+        SSAllocationMeter.assertAllocatesLessThan(MAX_ALLOCATED_BYTES, new Runnable() {
+
+            @Override
+            public void run() {
+                runSequence(new Random(31), SEQUENCE_COUNT);
+            }
+        });
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    /**
+     * --------------------------------------------------------------------------------------------
+     * [ControllerEventListener] CLASS
+     * DESCRIPTION: This is an OnPlaybackEventListener subclass that relays the advanced and
+     * completed events of the fake engine to the playback controller, as SSMusicService does.
+     * --------------------------------------------------------------------------------------------
+     */
+    private class ControllerEventListener implements OnPlaybackEventListener {
+
+        @Override
+        public void bufferingProgress(int percent) {}
+
+        @Override
+        public void bufferingStatus(Boolean isBuffering) {}
+
+        @Override
+        public void playbackAdvanced() {
+            controller.advanceTrack();
+        }
+
+        @Override
+        public void playbackCompleted() {
+            controller.completeTrack();
+        }
+
+        @Override
+        public void playbackStatus(Boolean isPlay) {}
+
+        @Override
+        public void seekbarStatus(int position) {}
+
+        @Override
+        public void setDuration(int duration) {}
+
+        @Override
+        public void stopSongPrepare(Boolean isStop) {}
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // runSequence(): Runs the specified number of random commands through the playback controller,
+    // and verifies the playback invariants after each command. The commands are issued in the same
+    // way as the SSMusicService issues them. Returns the number of commands that were run.
+    private int runSequence(Random random, int count) {
+
+        int commands = 0;
+
+        while (commands < count) {
+
+            switch (random.nextInt(6)) {
+
+                // PLAY: Moves the queue to a track list position and plays the track.
+                case 0:
+                    queue.moveTo(random.nextInt(SONG_URLS.length));
+                    controller.playCurrentTrack();
+                    commands++;
+                    break;
+
+                // SKIP:
+                case 1:
+                    controller.skipTrack(random.nextBoolean());
+                    commands++;
+                    break;
+
+                // SEEK: SSMusicService seeks the playback engine directly.
+                case 2:
+                    engine.setSongPosition(random.nextInt(SONG_DURATION));
+                    commands++;
+                    break;
+
+                // PAUSE:
+                case 3:
+                    controller.pauseSong(false);
+                    commands++;
+                    break;
+
+                // STOP:
+                case 4:
+                    controller.pauseSong(true);
+                    commands++;
+                    break;
+
+                // WAIT:
+                default:
+                    engine.advanceTime(random.nextInt(2 * PREPARE_LATENCY));
+                    break;
+            }
+
+            verifyInvariants();
+        }
+
+        return commands;
+    }
+
+    // verifyInvariants(): Verifies that the fake engine is in a consistent state, and that the
+    // song being played and the song queued for a crossfade match the playback queue.
+    private void verifyInvariants() {
+
+        int position = engine.getSongPosition();
+        SSPlaybackState state = engine.getPlaybackState();
+
+        if ((position < 0) || (position > SONG_DURATION)) {
+            throw new AssertionError("Position out of range: " + position);
+        }
+
+        if (engine.isSongPlaying() != (state == SSPlaybackState.PLAYING)) {
+            throw new AssertionError("Playing flag does not match state: " + state);
+        }
+
+        // A paused song is kept when the queue is navigated, and is replaced once played.
+        if (((state == SSPlaybackState.PREPARING) || (state == SSPlaybackState.PLAYING)) &&
+                !queue.getCurrent().getSongURL().equals(engine.getCurrentUrl())) {
+            throw new AssertionError("Playing " + engine.getCurrentUrl() + " at queue position " + queue.getCurrentPosition());
+        }
+
+        SSSpotifyModel nextTrack = queue.peekNext();
+        String nextUrl = engine.getNextUrl();
+
+        if ((nextTrack == null) ? (nextUrl != null) : !nextTrack.getSongURL().equals(nextUrl)) {
+            throw new AssertionError("Queued " + nextUrl + " at queue position " + queue.getCurrentPosition());
+        }
+    }
+}
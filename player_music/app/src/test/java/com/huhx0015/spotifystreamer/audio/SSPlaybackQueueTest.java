@@ -0,0 +1,404 @@
+package com.huhx0015.spotifystreamer.audio;
+
+import com.huhx0015.spotifystreamer.data.SSSpotifyModel;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSPlaybackQueueTest] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSPlaybackQueueTest verifies the play order of the SSPlaybackQueue in track list
+ *  and shuffle mode, jumping to played and upcoming tracks, toggling shuffle mode mid-queue, the
+ *  bounded history of played tracks, and adding and removing tracks while the queue is played.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSPlaybackQueueTest {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // QUEUE VARIABLES
+    private static final int TRACK_COUNT = 10; // Number of tracks in the test track lists.
+    private static final long SEED = 39; // Seed of the shuffled play order.
+
+    /** TEST METHODS ___________________________________________________________________________ **/
+
+    @Test
+    public void nextAndPreviousFollowTrackOrder() {
+
+        SSPlaybackQueue queue = new SSPlaybackQueue(new Random(SEED));
+        queue.setTracks(createTracks(5), 1);
+
+        assertEquals(5, queue.size());
+        assertEquals(1, queue.getCurrentPosition());
+        assertEquals(2, queue.getNextPosition());
+
+        queue.next();
+        queue.next();
+        assertEquals(3, queue.getCurrentPosition());
+
+        queue.previous();
+        queue.previous();
+        queue.previous();
+        assertEquals(0, queue.getCurrentPosition());
+        assertNull(queue.previous()); // The beginning of the queue has been reached.
+        assertEquals(0, queue.getCurrentPosition());
+
+        assertTrue(queue.moveTo(4));
+        assertNull(queue.peekNext());
+        assertNull(queue.next()); // The end of the queue has been reached.
+        assertEquals(-1, queue.getNextPosition());
+        assertEquals(4, queue.getCurrentPosition());
+    }
+
+    @Test
+    public void shuffleVisitsEveryTrackOnceAndReturnsThroughHistory() {
+
+        SSPlaybackQueue queue = new SSPlaybackQueue(new Random(SEED));
+        queue.setShuffle(true);
+        queue.setTracks(createTracks(TRACK_COUNT), 3);
+
+        List<Integer> visited = walkToEnd(queue);
+
+        assertEquals(3, (int) visited.get(0));
+        assertEquals(TRACK_COUNT, visited.size());
+        assertEquals(TRACK_COUNT, new HashSet<>(visited).size());
+
+        // PREVIOUS: Returns through the played tracks in reverse order.
+        for (int i = TRACK_COUNT - 2; i >= 0; i--) {
+            queue.previous();
+            assertEquals((int) visited.get(i), queue.getCurrentPosition());
+            assertEquals((int) visited.get(i + 1), queue.getNextPosition());
+        }
+
+        assertNull(queue.previous()); // The history is empty.
+    }
+
+    @Test
+    public void moveToTrackListPosition() {
+
+        SSPlaybackQueue queue = new SSPlaybackQueue(new Random(SEED));
+        queue.setTracks(createTracks(TRACK_COUNT), 0);
+
+        assertTrue(queue.moveTo(6));
+        assertEquals(7, queue.getNextPosition());
+
+        queue.previous();
+        assertEquals(5, queue.getCurrentPosition());
+
+        assertFalse(queue.moveTo(-1));
+        assertFalse(queue.moveTo(TRACK_COUNT));
+        assertEquals(5, queue.getCurrentPosition());
+    }
+
+    @Test
+    public void moveToUpcomingShuffledTrackIsNotPlayedAgain() {
+
+        List<Integer> order = walkToEnd(createShuffledQueue(0));
+
+        SSPlaybackQueue queue = createShuffledQueue(0);
+        queue.next();
+
+        assertTrue(queue.moveTo(order.get(5))); // Jumps ahead to an upcoming track.
+        assertEquals((int) order.get(5), queue.getCurrentPosition());
+
+        List<Integer> visited = new ArrayList<>();
+        visited.add(order.get(0));
+        visited.add(order.get(1));
+        visited.addAll(walkToEnd(queue));
+
+        assertEquals(TRACK_COUNT, visited.size());
+        assertEquals(TRACK_COUNT, new HashSet<>(visited).size());
+    }
+
+    @Test
+    public void moveToPlayedShuffledTrackKeepsUpcomingTracks() {
+
+        List<Integer> order = walkToEnd(createShuffledQueue(0));
+
+        SSPlaybackQueue queue = createShuffledQueue(0);
+        queue.next();
+        queue.next();
+        queue.next();
+
+        assertTrue(queue.moveTo(order.get(1))); // Jumps back to a played track.
+        assertEquals((int) order.get(1), queue.getCurrentPosition());
+
+        // The tracks that had yet to be played are still played, in the same order.
+        List<Integer> upcoming = walkToEnd(queue);
+        assertEquals(order.subList(4, TRACK_COUNT), upcoming.subList(1, upcoming.size()));
+
+        // PREVIOUS: Returns to the track that was playing before the jump.
+        queue.moveTo(order.get(1));
+        queue.previous();
+        assertEquals((int) order.get(TRACK_COUNT - 1), queue.getCurrentPosition());
+    }
+
+    @Test
+    public void toggleShuffleMidQueue() {
+
+        SSPlaybackQueue queue = new SSPlaybackQueue(new Random(SEED));
+        queue.setTracks(createTracks(TRACK_COUNT), 0);
+        queue.next();
+        queue.next();
+
+        // SHUFFLE ON: The new shuffled play order starts with the current track.
+        queue.setShuffle(true);
+        assertTrue(queue.isShuffled());
+        assertEquals(2, queue.getCurrentPosition());
+
+        queue.next();
+        queue.next();
+        int current = queue.getCurrentPosition();
+
+        // SHUFFLE OFF: Playback continues in track list order from the current track.
+        queue.setShuffle(false);
+        assertFalse(queue.isShuffled());
+        assertEquals(current, queue.getCurrentPosition());
+
+        if (current < TRACK_COUNT - 1) {
+            assertEquals(current + 1, queue.getNextPosition());
+        }
+
+        // SHUFFLE ON: Every track is played once more, starting with the current track.
+        queue.setShuffle(true);
+        List<Integer> visited = walkToEnd(queue);
+
+        assertEquals(current, (int) visited.get(0));
+        assertEquals(TRACK_COUNT, new HashSet<>(visited).size());
+    }
+
+    @Test
+    public void historyWrapsAtHistorySize() {
+
+        int trackCount = SSPlaybackQueue.HISTORY_SIZE + 10;
+
+        SSPlaybackQueue queue = new SSPlaybackQueue(new Random(SEED));
+        queue.setShuffle(true);
+        queue.setTracks(createTracks(trackCount), 0);
+
+        List<Integer> visited = walkToEnd(queue);
+        assertEquals(trackCount, visited.size());
+
+        // Only the last HISTORY_SIZE played tracks are returned, most recent first.
+        for (int i = 1; i <= SSPlaybackQueue.HISTORY_SIZE; i++) {
+            queue.previous();
+            assertEquals((int) visited.get(trackCount - 1 - i), queue.getCurrentPosition());
+        }
+
+        assertNull(queue.previous()); // The oldest tracks have been overwritten.
+    }
+
+    @Test
+    public void appendToShuffledQueuePlaysEveryTrackOnce() {
+
+        SSPlaybackQueue queue = createShuffledQueue(0);
+        List<Integer> visited = new ArrayList<>();
+        visited.add(queue.getCurrentPosition());
+
+        for (int i = 0; i < 4; i++) {
+            queue.next();
+            visited.add(queue.getCurrentPosition());
+        }
+
+        SSPlaybackQueue.Entry entry = queue.append(createTrack(TRACK_COUNT));
+        queue.append(createTrack(TRACK_COUNT + 1));
+
+        assertEquals(TRACK_COUNT, entry.getPosition());
+        assertEquals(TRACK_COUNT + 2, queue.size());
+
+        // The appended tracks are played once among the upcoming tracks.
+        List<Integer> upcoming = walkToEnd(queue);
+        visited.addAll(upcoming.subList(1, upcoming.size()));
+
+        assertEquals(TRACK_COUNT + 2, visited.size());
+        assertEquals(TRACK_COUNT + 2, new HashSet<>(visited).size());
+
+        // PREVIOUS: Returns through the played tracks, including the appended tracks.
+        queue.previous();
+        assertEquals((int) visited.get(TRACK_COUNT), queue.getCurrentPosition());
+    }
+
+    @Test
+    public void insertNextIsPlayedNext() {
+
+        for (boolean shuffle : new boolean[] { false, true }) {
+
+            SSPlaybackQueue queue = new SSPlaybackQueue(new Random(SEED));
+            queue.setShuffle(shuffle);
+            queue.setTracks(createTracks(TRACK_COUNT), 2);
+            queue.next();
+
+            int current = queue.getCurrentPosition();
+            SSPlaybackQueue.Entry entry = queue.insertNext(createTrack(TRACK_COUNT));
+
+            assertEquals(TRACK_COUNT, queue.getNextPosition());
+            assertEquals(entry.getTrack(), queue.next());
+
+            // PREVIOUS: Returns to the track that was playing when the track was inserted.
+            queue.previous();
+            assertEquals(current, queue.getCurrentPosition());
+            assertEquals(TRACK_COUNT, queue.getNextPosition());
+
+            queue.next();
+            List<Integer> visited = walkToEnd(queue);
+            assertTrue(visited.size() > 1);
+            assertFalse(visited.subList(1, visited.size()).contains(TRACK_COUNT));
+        }
+
+        // TRACK LIST: The inserted track is linked after the current track.
+        SSPlaybackQueue queue = new SSPlaybackQueue(new Random(SEED));
+        queue.setTracks(createTracks(TRACK_COUNT), 4);
+        queue.insertNext(createTrack(TRACK_COUNT));
+
+        queue.next();
+        queue.next();
+        assertEquals(5, queue.getCurrentPosition());
+    }
+
+    @Test
+    public void removedTracksAreSkipped() {
+
+        SSPlaybackQueue queue = new SSPlaybackQueue(new Random(SEED));
+        queue.setShuffle(true);
+        List<SSPlaybackQueue.Entry> entries = appendTracks(queue, TRACK_COUNT);
+        queue.moveTo(0);
+
+        List<Integer> visited = new ArrayList<>();
+        visited.add(queue.getCurrentPosition());
+        queue.next();
+        visited.add(queue.getCurrentPosition());
+        queue.next();
+
+        int played = visited.get(1);
+        int upcoming = queue.getNextPosition();
+
+        queue.remove(entries.get(played));
+        queue.remove(entries.get(upcoming));
+        queue.remove(entries.get(upcoming)); // Removing an entry twice has no effect.
+
+        assertEquals(TRACK_COUNT - 2, queue.size());
+        assertFalse(queue.moveTo(played));
+        assertFalse(queue.moveTo(upcoming));
+
+        // The removed tracks are skipped in the shuffled play order and the history.
+        visited.addAll(walkToEnd(queue));
+        visited.remove(1);
+        assertEquals(TRACK_COUNT - 2, new HashSet<>(visited).size());
+        assertFalse(visited.contains(upcoming));
+
+        while (queue.previous() != null) {
+            assertTrue(queue.getCurrentPosition() != played);
+            assertTrue(queue.getCurrentPosition() != upcoming);
+        }
+    }
+
+    @Test
+    public void removeCurrentMovesToFollowingTrack() {
+
+        // TRACK LIST:
+        SSPlaybackQueue queue = new SSPlaybackQueue(new Random(SEED));
+        List<SSPlaybackQueue.Entry> entries = appendTracks(queue, TRACK_COUNT);
+
+        queue.moveTo(3);
+        queue.remove(entries.get(3));
+        assertEquals(4, queue.getCurrentPosition());
+
+        queue.previous();
+        assertEquals(2, queue.getCurrentPosition());
+
+        queue.moveTo(TRACK_COUNT - 1);
+        queue.remove(entries.get(TRACK_COUNT - 1));
+        assertEquals(TRACK_COUNT - 2, queue.getCurrentPosition()); // No following track.
+        assertNull(queue.peekNext());
+
+        // SHUFFLE:
+        queue = new SSPlaybackQueue(new Random(SEED));
+        queue.setShuffle(true);
+        entries = appendTracks(queue, TRACK_COUNT);
+        queue.moveTo(0);
+        queue.next();
+
+        int next = queue.getNextPosition();
+        queue.remove(entries.get(queue.getCurrentPosition()));
+        assertEquals(next, queue.getCurrentPosition());
+
+        List<Integer> visited = walkToEnd(queue);
+        int last = visited.get(visited.size() - 1);
+        queue.remove(entries.get(last));
+
+        assertEquals(TRACK_COUNT - 2, queue.size());
+        assertEquals((int) visited.get(visited.size() - 2), queue.getCurrentPosition()); // No following track.
+        assertNull(queue.peekNext());
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // createTracks(): Creates a track list of the specified number of tracks.
+    private static List<SSSpotifyModel> createTracks(int count) {
+
+        List<SSSpotifyModel> tracks = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            tracks.add(createTrack(i));
+        }
+
+        return tracks;
+    }
+
+    // appendTracks(): Appends the specified number of tracks to the queue, and returns their
+    // entries.
+    private static List<SSPlaybackQueue.Entry> appendTracks(SSPlaybackQueue queue, int count) {
+
+        List<SSPlaybackQueue.Entry> entries = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            entries.add(queue.append(createTrack(i)));
+        }
+
+        return entries;
+    }
+
+    // createTrack(): Creates the track with the specified number.
+    private static SSSpotifyModel createTrack(int number) {
+        return new SSSpotifyModel("artist", "album", "song_" + number, "id_" + number, "url_" + number, "image_" + number);
+    }
+
+    // createShuffledQueue(): Creates a shuffled queue of TRACK_COUNT tracks, starting at the
+    // specified track list position. Queues created with the same position share a play order.
+    private static SSPlaybackQueue createShuffledQueue(int position) {
+
+        SSPlaybackQueue queue = new SSPlaybackQueue(new Random(SEED));
+        queue.setShuffle(true);
+        queue.setTracks(createTracks(TRACK_COUNT), position);
+        return queue;
+    }
+
+    // walkToEnd(): Returns the track list positions of the current track and every following
+    // track, moving to the end of the queue.
+    private static List<Integer> walkToEnd(SSPlaybackQueue queue) {
+
+        List<Integer> visited = new ArrayList<>();
+        visited.add(queue.getCurrentPosition());
+
+        Set<Integer> seen = new HashSet<>(visited);
+
+        while (queue.next() != null) {
+            visited.add(queue.getCurrentPosition());
+
+            if (!seen.add(queue.getCurrentPosition())) {
+                throw new AssertionError("Track played twice: " + queue.getCurrentPosition());
+            }
+        }
+
+        return visited;
+    }
+}
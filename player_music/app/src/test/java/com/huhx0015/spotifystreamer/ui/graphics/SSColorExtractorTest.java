@@ -0,0 +1,78 @@
+package com.huhx0015.spotifystreamer.ui.graphics;
+
+import org.junit.Test;
+import java.util.Arrays;
+import static org.junit.Assert.assertEquals;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSColorExtractorTest] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSColorExtractorTest verifies the dominant colors extracted by SSColorExtractor
+ *  from small sample images.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSColorExtractorTest {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // IMAGE VARIABLES
+    private static final int SAMPLE_LENGTH = 16 * 16; // Number of pixels in the sample images, matching SSGradientBuilder.
+
+    /** TEST METHODS ___________________________________________________________________________ **/
+
+    @Test
+    public void mostCommonColorsAreExtracted() {
+
+        int[] pixels = new int[SAMPLE_LENGTH];
+        Arrays.fill(pixels, 0, 160, 0xFF203040);
+        Arrays.fill(pixels, 160, 240, 0xFFE0C010);
+        Arrays.fill(pixels, 240, SAMPLE_LENGTH, 0xFF70A0F0);
+
+        int[] colors = new int[2];
+        new SSColorExtractor().extractColors(pixels, SAMPLE_LENGTH, colors);
+
+        assertEquals(0xFF203040, colors[0]);
+        assertEquals(0xFFE0C010, colors[1]);
+    }
+
+    @Test
+    public void similarColorsAreNotSecondary() {
+
+        int[] pixels = new int[SAMPLE_LENGTH];
+        Arrays.fill(pixels, 0, 128, 0xFF800000);
+        Arrays.fill(pixels, 128, 224, 0xFF901010);
+        Arrays.fill(pixels, 224, SAMPLE_LENGTH, 0xFF0000C0);
+
+        int[] colors = new int[2];
+        new SSColorExtractor().extractColors(pixels, SAMPLE_LENGTH, colors);
+
+        assertEquals(0xFF800000, colors[0]);
+        assertEquals(0xFF0000C0, colors[1]);
+    }
+
+    @Test
+    public void singleColorIsDarkenedForSecondary() {
+
+        int[] pixels = new int[SAMPLE_LENGTH];
+        Arrays.fill(pixels, 0xFF336699);
+
+        int[] colors = new int[2];
+        new SSColorExtractor().extractColors(pixels, SAMPLE_LENGTH, colors);
+
+        assertEquals(0xFF336699, colors[0]);
+        assertEquals(SSColorExtractor.darkenColor(0xFF336699), colors[1]);
+    }
+
+    @Test
+    public void transparentImageUsesDefaultColor() {
+
+        int[] pixels = new int[SAMPLE_LENGTH];
+
+        int[] colors = new int[2];
+        new SSColorExtractor().extractColors(pixels, SAMPLE_LENGTH, colors);
+
+        assertEquals(SSColorExtractor.DEFAULT_COLOR, colors[0]);
+        assertEquals(SSColorExtractor.darkenColor(SSColorExtractor.DEFAULT_COLOR), colors[1]);
+    }
+}
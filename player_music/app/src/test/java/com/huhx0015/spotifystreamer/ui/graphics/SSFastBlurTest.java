@@ -0,0 +1,147 @@
+package com.huhx0015.spotifystreamer.ui.graphics;
+
+import com.huhx0015.spotifystreamer.SSAllocationMeter;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SSFastBlurTest] CLASS
+ *  PROGRAMMER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: SSFastBlurTest verifies the output of the SSFastBlur box blur passes, that the
+ *  result does not depend on the number of threads, and that repeated blurs do not allocate.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SSFastBlurTest {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // IMAGE VARIABLES
+    private static final int IMAGE_WIDTH = 160; // Width of the test image, matching a scaled album image.
+    private static final int IMAGE_HEIGHT = 120; // Height of the test image.
+    private static final int BLUR_RADIUS = 10; // Blur radius used by SSBlurBuilder.
+
+    // ALLOCATION VARIABLES
+    private static final int BLUR_COUNT = 50; // Number of blurs per measurement.
+    private static final int MAX_ALLOCATED_BYTES = 16 * 1024; // Allocation budget per measurement.
+
+    /** TEST METHODS ___________________________________________________________________________ **/
+
+    @Test
+    public void uniformImageIsUnchanged() {
+
+        int[] pixels = new int[IMAGE_WIDTH * IMAGE_HEIGHT];
+        Arrays.fill(pixels, 0xFF336699);
+
+        new SSFastBlur(2).blur(pixels, IMAGE_WIDTH, IMAGE_HEIGHT, BLUR_RADIUS);
+
+        for (int pixel : pixels) {
+            assertEquals(0xFF336699, pixel);
+        }
+    }
+
+    @Test
+    public void singlePixelSpreadsSymmetrically() {
+
+        int size = 41;
+        int center = size / 2;
+        int[] pixels = new int[size * size];
+        Arrays.fill(pixels, 0xFF000000);
+        pixels[center * size + center] = 0xFFFFFFFF;
+
+        new SSFastBlur(1).blur(pixels, size, size, 3);
+
+        int centerValue = pixels[center * size + center] & 0xFF;
+        assertTrue(centerValue > 0);
+        assertTrue(centerValue < 0xFF);
+
+        for (int offset = 1; offset < center; offset++) {
+            int left = pixels[center * size + center - offset];
+            int top = pixels[(center - offset) * size + center];
+            assertEquals(left, pixels[center * size + center + offset]);
+            assertEquals(top, pixels[(center + offset) * size + center]);
+            assertTrue((left & 0xFF) <= centerValue);
+            assertTrue((top & 0xFF) <= centerValue);
+        }
+    }
+
+    @Test
+    public void threadCountDoesNotChangeResult() {
+
+        int[] expected = createImage(new Random(7));
+        int[] actual = Arrays.copyOf(expected, expected.length);
+
+        new SSFastBlur(1).blur(expected, IMAGE_WIDTH, IMAGE_HEIGHT, BLUR_RADIUS);
+        new SSFastBlur(4).blur(actual, IMAGE_WIDTH, IMAGE_HEIGHT, BLUR_RADIUS);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void callingThreadBlurMatchesThreadedBlur() {
+
+        int[] expected = createImage(new Random(11));
+        int[] actual = Arrays.copyOf(expected, expected.length);
+
+        new SSFastBlur(4).blur(expected, IMAGE_WIDTH, IMAGE_HEIGHT, BLUR_RADIUS);
+        SSBoxBlur.blur(actual, IMAGE_WIDTH, IMAGE_HEIGHT, BLUR_RADIUS, new int[IMAGE_WIDTH]);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void interruptedBlurWaitsForWorkers() {
+
+        int[] expected = createImage(new Random(13));
+        int[] actual = Arrays.copyOf(expected, expected.length);
+
+        new SSFastBlur(1).blur(expected, IMAGE_WIDTH, IMAGE_HEIGHT, BLUR_RADIUS);
+
+        Thread.currentThread().interrupt();
+        new SSFastBlur(4).blur(actual, IMAGE_WIDTH, IMAGE_HEIGHT, BLUR_RADIUS);
+
+        assertTrue(Thread.interrupted()); // The interrupt is restored, and cleared for later tests.
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void repeatedBlursDoNotAllocate() {
+
+        final SSFastBlur fastBlur = new SSFastBlur(1);
+        final int[] pixels = createImage(new Random(7));
+
+        SSAllocationMeter.assertAllocatesLessThan(MAX_ALLOCATED_BYTES, new Runnable() {
+
+            @Override
+            public void run() {
+                runBlurs(fastBlur, pixels);
+            }
+        });
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // createImage(): Creates a test image of random opaque pixels.
+    private static int[] createImage(Random random) {
+
+        int[] pixels = new int[IMAGE_WIDTH * IMAGE_HEIGHT];
+
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = 0xFF000000 | random.nextInt(0x1000000);
+        }
+
+        return pixels;
+    }
+
+    // runBlurs(): Blurs the specified pixels BLUR_COUNT times.
+    private static void runBlurs(SSFastBlur fastBlur, int[] pixels) {
+
+        for (int i = 0; i < BLUR_COUNT; i++) {
+            fastBlur.blur(pixels, IMAGE_WIDTH, IMAGE_HEIGHT, BLUR_RADIUS);
+        }
+    }
+}